@@ -0,0 +1,70 @@
+package com.kilombo.crm.application.dto;
+
+import java.util.Objects;
+
+/**
+ * Proyección ligera de un cliente para listas de selección: ID y nombre a mostrar.
+ * Se lee sin el resto de columnas ni la validación de la entidad; nombre y apellido
+ * se conservan por separado porque son la clave de la paginación.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class ClienteResumenDTO {
+
+    private final Integer id;
+    private final String nombre;
+    private final String apellido;
+
+    /**
+     * Constructor con todos los campos.
+     *
+     * @param id ID del cliente
+     * @param nombre Nombre del cliente
+     * @param apellido Apellido del cliente
+     */
+    public ClienteResumenDTO(Integer id, String nombre, String apellido) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+    }
+
+    /**
+     * Obtiene el nombre a mostrar, con el mismo formato que {@link ClienteDTO#getNombreCompleto()}.
+     *
+     * @return Nombre y apellido
+     */
+    public String getNombreCompleto() {
+        return nombre + " " + apellido;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClienteResumenDTO that = (ClienteResumenDTO) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return getNombreCompleto();
+    }
+}
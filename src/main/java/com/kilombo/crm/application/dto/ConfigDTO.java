@@ -17,6 +17,9 @@ public class ConfigDTO implements Serializable {
     private String username;
     private String password;
     private String database;
+    private String replicaHost;
+    private String replicaUsername;
+    private String replicaPassword;
 
     /**
      * Constructor por defecto.
@@ -111,6 +114,60 @@ public class ConfigDTO implements Serializable {
         this.database = database;
     }
 
+    /**
+     * Obtiene el host/IP de la réplica de lectura.
+     *
+     * @return Host de la réplica, o null si no hay réplica
+     */
+    public String getReplicaHost() {
+        return replicaHost;
+    }
+
+    /**
+     * Establece el host/IP de la réplica de lectura.
+     *
+     * @param replicaHost Nuevo host de la réplica; null o vacío para no usar réplica
+     */
+    public void setReplicaHost(String replicaHost) {
+        this.replicaHost = replicaHost;
+    }
+
+    /**
+     * Obtiene el usuario de la réplica.
+     *
+     * @return Usuario de la réplica, o null para usar el del servidor principal
+     */
+    public String getReplicaUsername() {
+        return replicaUsername;
+    }
+
+    /**
+     * Establece el usuario de la réplica.
+     *
+     * @param replicaUsername Nuevo usuario de la réplica
+     */
+    public void setReplicaUsername(String replicaUsername) {
+        this.replicaUsername = replicaUsername;
+    }
+
+    /**
+     * Obtiene la contraseña de la réplica.
+     *
+     * @return Contraseña de la réplica, o null para usar la del servidor principal
+     */
+    public String getReplicaPassword() {
+        return replicaPassword;
+    }
+
+    /**
+     * Establece la contraseña de la réplica.
+     *
+     * @param replicaPassword Nueva contraseña de la réplica
+     */
+    public void setReplicaPassword(String replicaPassword) {
+        this.replicaPassword = replicaPassword;
+    }
+
     @Override
     public String toString() {
         return "ConfigDTO{" +
@@ -118,6 +175,8 @@ public class ConfigDTO implements Serializable {
                 ", username='" + username + '\'' +
                 ", password='[PROTECTED]'" +
                 ", database='" + database + '\'' +
+                ", replicaHost='" + replicaHost + '\'' +
+                ", replicaUsername='" + replicaUsername + '\'' +
                 '}';
     }
 
@@ -131,7 +190,10 @@ public class ConfigDTO implements Serializable {
         if (host != null ? !host.equals(configDTO.host) : configDTO.host != null) return false;
         if (username != null ? !username.equals(configDTO.username) : configDTO.username != null) return false;
         if (password != null ? !password.equals(configDTO.password) : configDTO.password != null) return false;
-        return database != null ? database.equals(configDTO.database) : configDTO.database == null;
+        if (database != null ? !database.equals(configDTO.database) : configDTO.database != null) return false;
+        if (replicaHost != null ? !replicaHost.equals(configDTO.replicaHost) : configDTO.replicaHost != null) return false;
+        if (replicaUsername != null ? !replicaUsername.equals(configDTO.replicaUsername) : configDTO.replicaUsername != null) return false;
+        return replicaPassword != null ? replicaPassword.equals(configDTO.replicaPassword) : configDTO.replicaPassword == null;
     }
 
     @Override
@@ -140,6 +202,9 @@ public class ConfigDTO implements Serializable {
         result = 31 * result + (username != null ? username.hashCode() : 0);
         result = 31 * result + (password != null ? password.hashCode() : 0);
         result = 31 * result + (database != null ? database.hashCode() : 0);
+        result = 31 * result + (replicaHost != null ? replicaHost.hashCode() : 0);
+        result = 31 * result + (replicaUsername != null ? replicaUsername.hashCode() : 0);
+        result = 31 * result + (replicaPassword != null ? replicaPassword.hashCode() : 0);
         return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.kilombo.crm.application.dto;
+
+/**
+ * Data Transfer Object con las estadísticas de pedidos de un cliente.
+ * Inmutable y con campos primitivos, para poder guardar las de una página completa de clientes.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class EstadisticasClienteDTO {
+
+    /**
+     * Estadísticas de un cliente sin pedidos.
+     */
+    public static final EstadisticasClienteDTO SIN_PEDIDOS = new EstadisticasClienteDTO(0, 0.0);
+
+    private final int numPedidos;
+    private final double totalGastado;
+
+    /**
+     * Constructor con todos los campos.
+     *
+     * @param numPedidos Número de pedidos del cliente
+     * @param totalGastado Suma del total de sus pedidos
+     */
+    public EstadisticasClienteDTO(int numPedidos, double totalGastado) {
+        this.numPedidos = numPedidos;
+        this.totalGastado = totalGastado;
+    }
+
+    public int getNumPedidos() {
+        return numPedidos;
+    }
+
+    public double getTotalGastado() {
+        return totalGastado;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasClienteDTO{" +
+                "numPedidos=" + numPedidos +
+                ", totalGastado=" + totalGastado +
+                '}';
+    }
+}
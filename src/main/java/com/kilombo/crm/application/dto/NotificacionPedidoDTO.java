@@ -0,0 +1,107 @@
+package com.kilombo.crm.application.dto;
+
+/**
+ * Data Transfer Object con los datos necesarios para notificar a un cliente sobre un pedido:
+ * estado del pedido, datos de contacto del cliente y producto principal.
+ * Se obtiene con una sola consulta para los servicios de email y WhatsApp.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class NotificacionPedidoDTO {
+
+    private final Integer idPedido;
+    private final Integer idCliente;
+    private final String estado;
+    private final String nombreCliente;
+    private final String apellidoCliente;
+    private final String email;
+    private final String telefono;
+    private final String productoPrincipal;
+
+    /**
+     * Constructor con todos los campos.
+     *
+     * @param idPedido ID del pedido
+     * @param idCliente ID del cliente del pedido
+     * @param estado Estado del pedido
+     * @param nombreCliente Nombre del cliente, o null si el cliente no existe
+     * @param apellidoCliente Apellido del cliente
+     * @param email Email del cliente
+     * @param telefono Teléfono del cliente
+     * @param productoPrincipal Tipo de producto del detalle de mayor subtotal, o null si no hay detalles
+     */
+    public NotificacionPedidoDTO(Integer idPedido, Integer idCliente, String estado,
+                                 String nombreCliente, String apellidoCliente, String email,
+                                 String telefono, String productoPrincipal) {
+        this.idPedido = idPedido;
+        this.idCliente = idCliente;
+        this.estado = estado;
+        this.nombreCliente = nombreCliente;
+        this.apellidoCliente = apellidoCliente;
+        this.email = email;
+        this.telefono = telefono;
+        this.productoPrincipal = productoPrincipal;
+    }
+
+    /**
+     * Indica si se encontró el cliente del pedido.
+     *
+     * @return true si hay datos del cliente
+     */
+    public boolean tieneCliente() {
+        return nombreCliente != null;
+    }
+
+    /**
+     * Obtiene el nombre completo del cliente.
+     *
+     * @return Nombre y apellido
+     */
+    public String getNombreCompletoCliente() {
+        return nombreCliente + " " + apellidoCliente;
+    }
+
+    public Integer getIdPedido() {
+        return idPedido;
+    }
+
+    public Integer getIdCliente() {
+        return idCliente;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+
+    public String getApellidoCliente() {
+        return apellidoCliente;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    public String getProductoPrincipal() {
+        return productoPrincipal;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificacionPedidoDTO{" +
+                "idPedido=" + idPedido +
+                ", idCliente=" + idCliente +
+                ", estado='" + estado + '\'' +
+                ", cliente='" + nombreCliente + " " + apellidoCliente + '\'' +
+                ", productoPrincipal='" + productoPrincipal + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package com.kilombo.crm.application.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Conteo de filas guardado en memoria durante un tiempo limitado.
+ * Los servicios lo invalidan al escribir; la caducidad cubre los cambios hechos por
+ * otras instancias de la aplicación o por borrados en cascada.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class CachedCount {
+
+    private final long ttlNanos;
+    // Se incrementa en cada invalidación: un conteo iniciado antes no se guarda
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Entry entry;
+
+    /**
+     * Conteo junto con la generación y el instante en que se obtuvo.
+     */
+    private static final class Entry {
+        private final long value;
+        private final long generation;
+        private final long loadedAtNanos;
+
+        Entry(long value, long generation, long loadedAtNanos) {
+            this.value = value;
+            this.generation = generation;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+
+    /**
+     * @param ttl Tiempo máximo que se reutiliza un conteo
+     * @param unit Unidad de ttl
+     */
+    CachedCount(long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Devuelve el conteo guardado si sigue vigente; si no, lo calcula con loader y lo guarda.
+     *
+     * @param loader Consulta de conteo
+     * @return Número de filas
+     */
+    long get(LongSupplier loader) {
+        long current = generation.get();
+        Entry cached = entry;
+        if (cached != null && cached.generation == current && System.nanoTime() - cached.loadedAtNanos < ttlNanos) {
+            return cached.value;
+        }
+
+        long loaded = loader.getAsLong();
+        synchronized (this) {
+            if (generation.get() == current) {
+                entry = new Entry(loaded, current, System.nanoTime());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Descarta el conteo guardado tras una escritura.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+}
@@ -1,13 +1,18 @@
 package com.kilombo.crm.application.service;
 
 import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
 import com.kilombo.crm.domain.exception.ClienteNotFoundException;
 import com.kilombo.crm.domain.exception.DatabaseException;
 import com.kilombo.crm.domain.exception.ValidationException;
 import com.kilombo.crm.domain.model.Cliente;
 import com.kilombo.crm.domain.repository.ClienteRepository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -25,7 +30,15 @@ public class ClienteService {
 
     private static final Logger logger = Logger.getLogger(ClienteService.class.getName());
 
+    // Resultados máximos de una búsqueda de clientes
+    private static final int LIMITE_BUSQUEDA = 50;
+
+    // Vigencia de los conteos guardados; las escrituras de este servicio los invalidan antes
+    private static final long VIGENCIA_CONTEO_S = 30;
+
     private final ClienteRepository clienteRepository;
+    private final CachedCount totalClientes = new CachedCount(VIGENCIA_CONTEO_S, TimeUnit.SECONDS);
+    private final CachedCount totalClientesAproximado = new CachedCount(VIGENCIA_CONTEO_S, TimeUnit.SECONDS);
     
     /**
      * Constructor con inyección de dependencias.
@@ -52,17 +65,12 @@ public class ClienteService {
         try {
             logger.info("Creando nuevo cliente: " + dto.getEmail());
 
-            // Validar que el email no esté duplicado
-            if (clienteRepository.existsByEmail(dto.getEmail())) {
-                logger.warning("Intento de crear cliente con email duplicado: " + dto.getEmail());
-                throw new ValidationException("Ya existe un cliente con el email: " + dto.getEmail());
-            }
-
             // Convertir DTO a entidad (esto valida los datos)
             Cliente cliente = dto.toEntity();
 
-            // Guardar en el repositorio
+            // Guardar en el repositorio; el índice único rechaza un email duplicado (ValidationException)
             Cliente clienteGuardado = clienteRepository.save(cliente);
+            invalidarConteos();
 
             logger.info("Cliente creado exitosamente con ID: " + clienteGuardado.getId());
 
@@ -95,6 +103,19 @@ public class ClienteService {
         return ClienteDTO.fromEntity(cliente);
     }
     
+    /**
+     * Obtiene varios clientes por ID en consultas agrupadas.
+     *
+     * @param ids IDs de los clientes
+     * @return Mapa de ID a DTO con los clientes existentes
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public Map<Integer, ClienteDTO> obtenerClientes(Collection<Integer> ids) {
+        Map<Integer, ClienteDTO> dtos = new HashMap<>();
+        clienteRepository.findByIds(ids).forEach((id, cliente) -> dtos.put(id, ClienteDTO.fromEntity(cliente)));
+        return dtos;
+    }
+
     /**
      * Obtiene todos los clientes del sistema.
      *
@@ -123,32 +144,78 @@ public class ClienteService {
         }
     }
     
+    /**
+     * Obtiene una página de clientes ordenados por apellido y nombre.
+     *
+     * @param despuesDe Último cliente de la página anterior, o null para la primera
+     * @param limite Número máximo de clientes de la página
+     * @return Lista de DTOs de clientes; menos de limite si no hay más
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public List<ClienteDTO> listarClientesPagina(ClienteDTO despuesDe, int limite) {
+        try {
+            Cliente clave = null;
+            if (despuesDe != null) {
+                clave = new Cliente();
+                clave.setId(despuesDe.getId());
+                clave.setNombre(despuesDe.getNombre());
+                clave.setApellido(despuesDe.getApellido());
+            }
+
+            List<ClienteDTO> dtos = clienteRepository.findPage(clave, limite).stream()
+                    .map(ClienteDTO::fromEntity)
+                    .collect(Collectors.toList());
+
+            logger.fine("Se obtuvo una página de " + dtos.size() + " clientes");
+            return dtos;
+
+        } catch (DatabaseException e) {
+            logger.log(Level.SEVERE, "Error de base de datos al listar clientes: " + e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al listar clientes: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al obtener la lista de clientes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene el ID y el nombre de los clientes cuyo apellido o nombre empieza por el prefijo.
+     *
+     * @param prefijo Texto inicial del apellido o nombre; vacío para los primeros clientes
+     * @param limite Número máximo de clientes
+     * @return Resúmenes de los clientes encontrados
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public List<ClienteResumenDTO> buscarResumenesClientes(String prefijo, int limite) {
+        try {
+            return clienteRepository.findResumenByPrefix(prefijo, limite);
+
+        } catch (DatabaseException e) {
+            logger.log(Level.SEVERE, "Error de base de datos al buscar resúmenes de clientes: " + e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al buscar resúmenes de clientes: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al buscar clientes: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Actualiza los datos de un cliente existente.
      * 
      * @param dto DTO con los datos actualizados del cliente
      * @throws ClienteNotFoundException si el cliente no existe
-     * @throws ValidationException si los datos no son válidos
+     * @throws ValidationException si los datos no son válidos o el email ya es de otro cliente
      */
     public void actualizarCliente(ClienteDTO dto) {
         if (dto.getId() == null) {
             throw new ValidationException("El ID del cliente es obligatorio para actualizar");
         }
         
-        // Verificar que el cliente existe
-        if (!clienteRepository.findById(dto.getId()).isPresent()) {
-            throw new ClienteNotFoundException(dto.getId());
-        }
-        
-        // Validar que el email no esté duplicado (excluyendo el cliente actual)
-        if (clienteRepository.existsByEmailAndIdNot(dto.getEmail(), dto.getId())) {
-            throw new ValidationException("Ya existe otro cliente con el email: " + dto.getEmail());
-        }
-        
         // Convertir DTO a entidad (esto valida los datos)
         Cliente cliente = dto.toEntity();
         
-        // Actualizar en el repositorio
+        // Actualizar en el repositorio: una sola sentencia que detecta el cliente inexistente
+        // y el email duplicado
         clienteRepository.update(cliente);
     }
     
@@ -159,7 +226,11 @@ public class ClienteService {
      * @throws ClienteNotFoundException si el cliente no existe
      */
     public void eliminarCliente(Integer id) {
-        clienteRepository.deleteById(id);
+        try {
+            clienteRepository.deleteById(id);
+        } finally {
+            invalidarConteos();
+        }
     }
     
     /**
@@ -173,31 +244,37 @@ public class ClienteService {
     }
     
     /**
-     * Busca clientes por nombre, apellido o email (búsqueda en memoria con validaciones).
+     * Busca clientes por nombre, apellido o email (como máximo {@value #LIMITE_BUSQUEDA}).
      *
      * @param termino Término de búsqueda (puede ser null o vacío)
      * @return Lista de clientes que coinciden con el término
      * @throws DatabaseException si ocurre un error al acceder a la base de datos
      */
     public List<ClienteDTO> buscarClientes(String termino) {
+        return buscarClientes(termino, LIMITE_BUSQUEDA);
+    }
+
+    /**
+     * Busca clientes por nombre, apellido o email en la base de datos.
+     * Coinciden los clientes cuyo nombre, apellido o email empieza por el término
+     * y aquellos con palabras que empiezan por cada palabra del término.
+     *
+     * @param termino Término de búsqueda (puede ser null o vacío)
+     * @param limite Número máximo de resultados
+     * @return Clientes que coinciden, por relevancia; sin término, la primera página del listado
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public List<ClienteDTO> buscarClientes(String termino, int limite) {
         try {
             if (termino == null || termino.trim().isEmpty()) {
-                logger.fine("Búsqueda sin término específico, retornando todos los clientes");
-                return listarClientes();
+                logger.fine("Búsqueda sin término específico, retornando la primera página de clientes");
+                return listarClientesPagina(null, limite);
             }
 
-            String terminoLower = termino.trim().toLowerCase();
             logger.info("Buscando clientes con término: '" + termino + "'");
 
-            List<ClienteDTO> todosLosClientes = listarClientes();
-
-            List<ClienteDTO> resultados = todosLosClientes.stream()
-                    .filter(c -> {
-                        if (c == null) return false;
-                        return (c.getNombre() != null && c.getNombre().toLowerCase().contains(terminoLower)) ||
-                               (c.getApellido() != null && c.getApellido().toLowerCase().contains(terminoLower)) ||
-                               (c.getEmail() != null && c.getEmail().toLowerCase().contains(terminoLower));
-                    })
+            List<ClienteDTO> resultados = clienteRepository.search(termino, limite).stream()
+                    .map(ClienteDTO::fromEntity)
                     .collect(Collectors.toList());
 
             logger.info("Búsqueda completada: " + resultados.size() + " resultados para '" + termino + "'");
@@ -219,10 +296,24 @@ public class ClienteService {
      * @throws DatabaseException si ocurre un error al acceder a la base de datos
      */
     public int contarClientes() {
+        return (int) contarClientes(false);
+    }
+
+    /**
+     * Obtiene el número total de clientes, reutilizando el último conteo durante
+     * {@value #VIGENCIA_CONTEO_S} segundos o hasta la siguiente alta o baja.
+     *
+     * @param aproximado true para estimarlo con las estadísticas de InnoDB (tablas muy grandes)
+     * @return Número de clientes
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public long contarClientes(boolean aproximado) {
         try {
-            logger.fine("Contando total de clientes");
+            logger.fine("Contando total de clientes" + (aproximado ? " (aproximado)" : ""));
 
-            int count = clienteRepository.findAll().size();
+            long count = aproximado
+                    ? totalClientesAproximado.get(clienteRepository::estimateCount)
+                    : totalClientes.get(clienteRepository::count);
 
             logger.fine("Total de clientes: " + count);
             return count;
@@ -235,4 +326,12 @@ public class ClienteService {
             throw new DatabaseException("Error inesperado al contar clientes: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Descarta los conteos guardados tras un alta o una baja.
+     */
+    private void invalidarConteos() {
+        totalClientes.invalidate();
+        totalClientesAproximado.invalidate();
+    }
 }
\ No newline at end of file
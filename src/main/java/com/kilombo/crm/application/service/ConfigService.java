@@ -107,6 +107,9 @@ public class ConfigService {
         configManager.setUsername(config.getUsername());
         configManager.setPassword(config.getPassword());
         configManager.setDatabase(config.getDatabase());
+        configManager.setReplicaHost(config.getReplicaHost());
+        configManager.setReplicaUsername(config.getReplicaUsername());
+        configManager.setReplicaPassword(config.getReplicaPassword());
 
         // Actualizar conexión existente
         conexionBD.refreshConfiguration();
@@ -137,6 +140,11 @@ public class ConfigService {
         config.setUsername(configManager.getUsername());
         config.setPassword(configManager.getPassword());
         config.setDatabase(configManager.getDatabase());
+        if (configManager.hasReplica()) {
+            config.setReplicaHost(configManager.getReplicaHost());
+            config.setReplicaUsername(configManager.getReplicaUsername());
+            config.setReplicaPassword(configManager.getReplicaPassword());
+        }
         return config;
     }
 
@@ -1,18 +1,15 @@
 package com.kilombo.crm.application.service;
 
-import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
 import com.kilombo.crm.domain.exception.ValidationException;
-import com.kilombo.crm.domain.model.Cliente;
-import com.kilombo.crm.domain.model.Pedido;
-import com.kilombo.crm.domain.repository.ClienteRepository;
-import com.kilombo.crm.domain.repository.DetallePedidoRepository;
 import com.kilombo.crm.domain.repository.PedidoRepository;
 import com.kilombo.crm.domain.service.EmailService;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
@@ -32,18 +29,12 @@ public class EmailServiceImpl implements EmailService {
     private static final String MESSAGES_FILE = "/messages.properties";
 
     private final PedidoRepository pedidoRepository;
-    private final ClienteRepository clienteRepository;
-    private final DetallePedidoRepository detallePedidoRepository;
 
     // Caché de plantillas cargadas una sola vez
     private final Map<String, String> messageTemplates = new HashMap<>();
 
-    public EmailServiceImpl(PedidoRepository pedidoRepository,
-                           ClienteRepository clienteRepository,
-                           DetallePedidoRepository detallePedidoRepository) {
+    public EmailServiceImpl(PedidoRepository pedidoRepository) {
         this.pedidoRepository = pedidoRepository;
-        this.clienteRepository = clienteRepository;
-        this.detallePedidoRepository = detallePedidoRepository;
         loadMessageTemplates();
     }
 
@@ -84,100 +75,14 @@ public class EmailServiceImpl implements EmailService {
         }
 
         try {
-            // Obtener pedido
-            logger.info("Buscando pedido con ID: " + idPedido);
-            Optional<Pedido> pedidoOpt = pedidoRepository.findById(idPedido);
-            if (!pedidoOpt.isPresent()) {
+            // Pedido, cliente y producto principal en una sola consulta
+            logger.info("Buscando datos de notificación del pedido ID: " + idPedido);
+            Optional<NotificacionPedidoDTO> notificacionOpt = pedidoRepository.findNotificacionByPedidoId(idPedido);
+            if (!notificacionOpt.isPresent()) {
                 logger.warning("Pedido no encontrado con ID: " + idPedido);
                 throw new ValidationException("Pedido no encontrado con ID: " + idPedido);
             }
-            Pedido pedido = pedidoOpt.get();
-            logger.info("Pedido encontrado - Estado: " + (pedido.getEstado() != null ? pedido.getEstado() : "SIN ESTADO"));
-
-            // Si el pedido no tiene estado, buscar el último pedido del cliente
-            if (pedido.getEstado() == null || pedido.getEstado().trim().isEmpty()) {
-                logger.info("Pedido sin estado, buscando último pedido del cliente ID: " + pedido.getIdCliente());
-                try {
-                    List<Pedido> pedidosCliente = pedidoRepository.findByClienteId(pedido.getIdCliente());
-                    if (!pedidosCliente.isEmpty()) {
-                        // Ordenar por fecha descendente y tomar el primero (más reciente)
-                        pedidosCliente.sort((p1, p2) -> p2.getFecha().compareTo(p1.getFecha()));
-                        Pedido ultimoPedido = pedidosCliente.get(0);
-                        logger.info("Usando último pedido del cliente - ID: " + ultimoPedido.getId() +
-                                  ", Estado: " + (ultimoPedido.getEstado() != null ? ultimoPedido.getEstado() : "SIN ESTADO"));
-                        pedido = ultimoPedido;
-                    } else {
-                        logger.warning("No se encontraron pedidos para el cliente ID: " + pedido.getIdCliente());
-                    }
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "Error al buscar último pedido del cliente: " + e.getMessage(), e);
-                }
-            }
-
-            // Obtener cliente
-            logger.info("Buscando cliente con ID: " + pedido.getIdCliente());
-            Optional<Cliente> clienteOpt = clienteRepository.findById(pedido.getIdCliente());
-            if (!clienteOpt.isPresent()) {
-                logger.warning("Cliente no encontrado para el pedido ID: " + idPedido);
-                throw new ValidationException("Cliente no encontrado para el pedido ID: " + idPedido);
-            }
-            Cliente cliente = clienteOpt.get();
-            logger.info("Cliente encontrado: " + cliente.getNombre() + " " + cliente.getApellido() +
-                      ", Email: " + cliente.getEmail() + ", Teléfono: " + cliente.getTelefono());
-
-            // Validar email
-            if (cliente.getEmail() == null || cliente.getEmail().trim().isEmpty()) {
-                logger.warning("Email no encontrado o inválido para cliente: " + cliente.getNombre() + " " + cliente.getApellido());
-                throw new ValidationException("Email no encontrado o inválido para este cliente");
-            }
-
-            // Obtener producto principal
-            logger.info("Buscando producto principal para pedido ID: " + pedido.getId());
-            Optional<String> productoPrincipalOpt = detallePedidoRepository.findPrincipalProductByPedidoId(pedido.getId());
-            String productoPrincipal = productoPrincipalOpt.orElse("producto");
-            logger.info("Producto principal encontrado: " + productoPrincipal);
-
-            // Determinar estado para la plantilla
-            String estadoParaPlantilla = (pedido.getEstado() != null && !pedido.getEstado().trim().isEmpty())
-                    ? pedido.getEstado().toLowerCase()
-                    : "pending";
-            logger.info("Estado para plantilla: " + estadoParaPlantilla);
-
-            // Obtener plantilla según estado
-            String templateKey = "template." + estadoParaPlantilla + ".body";
-            logger.info("Buscando plantilla con clave: " + templateKey);
-            String template = messageTemplates.get(templateKey);
-            if (template == null) {
-                logger.warning("Plantilla no encontrada para estado: " + estadoParaPlantilla + ", usando plantilla por defecto");
-                template = messageTemplates.get("template.pending.body");
-                if (template == null) {
-                    logger.severe("No se encontraron plantillas de mensaje válidas");
-                    throw new ValidationException("No se encontraron plantillas de mensaje válidas");
-                }
-            }
-            logger.info("Plantilla encontrada y cargada correctamente");
-
-            // Sustituir placeholders
-            logger.info("Realizando sustitución de placeholders en la plantilla");
-            String mensaje = template
-                    .replace("{NOMBRE_CLIENTE}", cliente.getNombre() + " " + cliente.getApellido())
-                    .replace("{PRODUCTO_PRINCIPAL}", productoPrincipal)
-                    .replace("{TELEFONO}", cliente.getTelefono())
-                    .replace("{ESTADO_PEDIDO}", estadoParaPlantilla);
-
-            logger.info("Mensaje después de sustitución: " + mensaje);
-
-            // Simular envío de email (en una implementación real se usaría JavaMail)
-            logger.info("=== SIMULANDO ENVÍO DE EMAIL ===");
-            logger.info("De: sistema@kilombocrm.com");
-            logger.info("Para: " + cliente.getEmail());
-            logger.info("Asunto: Actualización de tu pedido - " + productoPrincipal);
-            logger.info("Mensaje: " + mensaje);
-            logger.info("=== EMAIL ENVIADO EXITOSAMENTE (SIMULADO) ===");
-
-            // En una implementación real, aquí iría el código para enviar el email
-            // Por ahora, simulamos que siempre es exitoso
-            return true;
+            return enviar(notificacionOpt.get());
 
         } catch (ValidationException e) {
             logger.log(Level.WARNING, "Error de validación en envío de email: " + e.getMessage());
@@ -187,4 +92,104 @@ public class EmailServiceImpl implements EmailService {
             return false;
         }
     }
+
+    @Override
+    public int sendEmails(Collection<Integer> idsPedidos) {
+        if (idsPedidos == null || idsPedidos.isEmpty()) {
+            return 0;
+        }
+        logger.info("=== INICIANDO ENVÍO DE " + idsPedidos.size() + " EMAILS ===");
+
+        Map<Integer, NotificacionPedidoDTO> notificaciones = pedidoRepository.findNotificacionesByPedidoIds(idsPedidos);
+        int enviados = 0;
+        for (Integer idPedido : new LinkedHashSet<>(idsPedidos)) {
+            NotificacionPedidoDTO notificacion = notificaciones.get(idPedido);
+            if (notificacion == null) {
+                logger.warning("Pedido no encontrado con ID: " + idPedido + ", se omite");
+                continue;
+            }
+            try {
+                if (enviar(notificacion)) {
+                    enviados++;
+                }
+            } catch (ValidationException e) {
+                logger.warning("Email no enviado para el pedido ID " + idPedido + ": " + e.getMessage());
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error inesperado en envío de email del pedido ID " + idPedido + ": " + e.getMessage(), e);
+            }
+        }
+
+        logger.info("=== EMAILS ENVIADOS: " + enviados + " de " + idsPedidos.size() + " ===");
+        return enviados;
+    }
+
+    /**
+     * Genera y envía el email de un pedido a partir de sus datos de notificación.
+     *
+     * @param notificacion Estado del pedido, contacto del cliente y producto principal
+     * @return true si el correo se envió exitosamente
+     * @throws ValidationException si faltan datos requeridos
+     */
+    private boolean enviar(NotificacionPedidoDTO notificacion) {
+        Integer idPedido = notificacion.getIdPedido();
+        logger.info("Pedido encontrado - Estado: " + (notificacion.getEstado() != null ? notificacion.getEstado() : "SIN ESTADO"));
+
+        if (!notificacion.tieneCliente()) {
+            logger.warning("Cliente no encontrado para el pedido ID: " + idPedido);
+            throw new ValidationException("Cliente no encontrado para el pedido ID: " + idPedido);
+        }
+        logger.info("Cliente encontrado: " + notificacion.getNombreCompletoCliente() +
+                  ", Email: " + notificacion.getEmail() + ", Teléfono: " + notificacion.getTelefono());
+
+        // Validar email
+        if (notificacion.getEmail() == null || notificacion.getEmail().trim().isEmpty()) {
+            logger.warning("Email no encontrado o inválido para cliente: " + notificacion.getNombreCompletoCliente());
+            throw new ValidationException("Email no encontrado o inválido para este cliente");
+        }
+
+        String productoPrincipal = notificacion.getProductoPrincipal() != null ? notificacion.getProductoPrincipal() : "producto";
+        logger.info("Producto principal encontrado: " + productoPrincipal);
+
+        // Determinar estado para la plantilla
+        String estadoParaPlantilla = (notificacion.getEstado() != null && !notificacion.getEstado().trim().isEmpty())
+                ? notificacion.getEstado().toLowerCase()
+                : "pending";
+        logger.info("Estado para plantilla: " + estadoParaPlantilla);
+
+        // Obtener plantilla según estado
+        String templateKey = "template." + estadoParaPlantilla + ".body";
+        logger.info("Buscando plantilla con clave: " + templateKey);
+        String template = messageTemplates.get(templateKey);
+        if (template == null) {
+            logger.warning("Plantilla no encontrada para estado: " + estadoParaPlantilla + ", usando plantilla por defecto");
+            template = messageTemplates.get("template.pending.body");
+            if (template == null) {
+                logger.severe("No se encontraron plantillas de mensaje válidas");
+                throw new ValidationException("No se encontraron plantillas de mensaje válidas");
+            }
+        }
+        logger.info("Plantilla encontrada y cargada correctamente");
+
+        // Sustituir placeholders
+        logger.info("Realizando sustitución de placeholders en la plantilla");
+        String mensaje = template
+                .replace("{NOMBRE_CLIENTE}", notificacion.getNombreCompletoCliente())
+                .replace("{PRODUCTO_PRINCIPAL}", productoPrincipal)
+                .replace("{TELEFONO}", notificacion.getTelefono())
+                .replace("{ESTADO_PEDIDO}", estadoParaPlantilla);
+
+        logger.info("Mensaje después de sustitución: " + mensaje);
+
+        // Simular envío de email (en una implementación real se usaría JavaMail)
+        logger.info("=== SIMULANDO ENVÍO DE EMAIL ===");
+        logger.info("De: sistema@kilombocrm.com");
+        logger.info("Para: " + notificacion.getEmail());
+        logger.info("Asunto: Actualización de tu pedido - " + productoPrincipal);
+        logger.info("Mensaje: " + mensaje);
+        logger.info("=== EMAIL ENVIADO EXITOSAMENTE (SIMULADO) ===");
+
+        // En una implementación real, aquí iría el código para enviar el email
+        // Por ahora, simulamos que siempre es exitoso
+        return true;
+    }
 }
\ No newline at end of file
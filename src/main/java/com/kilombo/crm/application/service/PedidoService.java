@@ -1,18 +1,24 @@
 package com.kilombo.crm.application.service;
 
 import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.EstadisticasClienteDTO;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
 import com.kilombo.crm.application.dto.PedidoDTO;
 import com.kilombo.crm.domain.exception.ClienteNotFoundException;
 import com.kilombo.crm.domain.exception.DatabaseException;
 import com.kilombo.crm.domain.exception.PedidoNotFoundException;
 import com.kilombo.crm.domain.exception.ValidationException;
 import com.kilombo.crm.domain.model.Cliente;
+import com.kilombo.crm.domain.model.DetallePedido;
 import com.kilombo.crm.domain.model.Pedido;
 import com.kilombo.crm.domain.repository.ClienteRepository;
 import com.kilombo.crm.domain.repository.PedidoRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -30,8 +36,13 @@ public class PedidoService {
 
     private static final Logger logger = Logger.getLogger(PedidoService.class.getName());
 
+    // Vigencia de los conteos guardados; cubre también los pedidos borrados en cascada con su cliente
+    private static final long VIGENCIA_CONTEO_S = 30;
+
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
+    private final CachedCount totalPedidos = new CachedCount(VIGENCIA_CONTEO_S, TimeUnit.SECONDS);
+    private final CachedCount totalPedidosAproximado = new CachedCount(VIGENCIA_CONTEO_S, TimeUnit.SECONDS);
     
     /**
      * Constructor con inyección de dependencias.
@@ -73,6 +84,7 @@ public class PedidoService {
 
             // Guardar en el repositorio
             Pedido pedidoGuardado = pedidoRepository.save(pedido);
+            invalidarConteos();
 
             // Crear DTO de respuesta con nombre del cliente
             PedidoDTO resultado = PedidoDTO.fromEntity(pedidoGuardado);
@@ -93,6 +105,52 @@ public class PedidoService {
         }
     }
     
+    /**
+     * Crea un nuevo pedido junto con sus detalles en una sola transacción.
+     * El total del pedido se recalcula a partir de los subtotales de los detalles.
+     *
+     * @param dto DTO con los datos del pedido; su total se usa solo como valor provisional
+     * @param detalles Detalles del pedido; si está vacía se crea solo el pedido
+     * @return DTO del pedido creado con su ID generado y el total recalculado
+     * @throws ValidationException si los datos no son válidos
+     * @throws ClienteNotFoundException si el cliente no existe
+     * @throws DatabaseException si ocurre un error de base de datos; no se guarda nada
+     */
+    public PedidoDTO crearPedido(PedidoDTO dto, List<DetallePedido> detalles) {
+        if (detalles == null || detalles.isEmpty()) {
+            return crearPedido(dto);
+        }
+        if (dto == null) {
+            throw new ValidationException("Los datos del pedido no pueden ser null");
+        }
+
+        try {
+            logger.info("Creando nuevo pedido con " + detalles.size() + " detalles para cliente ID: " + dto.getIdCliente());
+
+            Cliente cliente = clienteRepository.findById(dto.getIdCliente())
+                    .orElseThrow(() -> new ClienteNotFoundException(dto.getIdCliente()));
+
+            Pedido pedidoGuardado = pedidoRepository.saveWithDetalles(dto.toEntity(), detalles);
+            invalidarConteos();
+
+            PedidoDTO resultado = PedidoDTO.fromEntity(pedidoGuardado);
+            resultado.setNombreCliente(cliente.getNombreCompleto());
+
+            logger.info("Pedido creado exitosamente con ID: " + pedidoGuardado.getId() + ", total " + pedidoGuardado.getTotal());
+            return resultado;
+
+        } catch (ClienteNotFoundException | ValidationException e) {
+            logger.log(Level.WARNING, "Error de validación al crear pedido: " + e.getMessage(), e);
+            throw e;
+        } catch (DatabaseException e) {
+            logger.log(Level.SEVERE, "Error de base de datos al crear pedido: " + e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al crear pedido: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al crear el pedido: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Obtiene un pedido por su ID.
      * 
@@ -112,6 +170,19 @@ public class PedidoService {
         
         return dto;
     }
+
+    /**
+     * Obtiene en una sola consulta los datos para notificar al cliente de un pedido:
+     * estado, contacto del cliente y producto principal.
+     *
+     * @param id ID del pedido
+     * @return Datos de notificación del pedido
+     * @throws PedidoNotFoundException si el pedido no existe
+     */
+    public NotificacionPedidoDTO obtenerNotificacion(Integer id) {
+        return pedidoRepository.findNotificacionByPedidoId(id)
+                .orElseThrow(() -> new PedidoNotFoundException(id));
+    }
     
     /**
      * Obtiene todos los pedidos del sistema.
@@ -123,22 +194,8 @@ public class PedidoService {
         try {
             logger.info("Obteniendo lista de todos los pedidos");
 
-            List<Pedido> pedidos = pedidoRepository.findAll();
-
-            List<PedidoDTO> dtos = pedidos.stream()
-                    .map(pedido -> {
-                        PedidoDTO dto = PedidoDTO.fromEntity(pedido);
-                        // Agregar nombre del cliente
-                        try {
-                            clienteRepository.findById(pedido.getIdCliente())
-                                    .ifPresent(c -> dto.setNombreCliente(c.getNombreCompleto()));
-                        } catch (Exception e) {
-                            logger.warning("Error al obtener nombre del cliente ID " + pedido.getIdCliente() + ": " + e.getMessage());
-                            dto.setNombreCliente("Cliente desconocido");
-                        }
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
+            // Una sola consulta con el nombre del cliente ya unido
+            List<PedidoDTO> dtos = pedidoRepository.findAllWithNombreCliente();
 
             logger.info("Se obtuvieron " + dtos.size() + " pedidos");
             return dtos;
@@ -152,6 +209,29 @@ public class PedidoService {
         }
     }
     
+    /**
+     * Obtiene una página de pedidos, del más reciente al más antiguo, con el nombre del cliente.
+     *
+     * @param despuesDe Último pedido de la página anterior, o null para la primera
+     * @param limite Número máximo de pedidos de la página
+     * @return Lista de DTOs de pedidos; menos de limite si no hay más
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public List<PedidoDTO> listarPedidosPagina(PedidoDTO despuesDe, int limite) {
+        try {
+            List<PedidoDTO> dtos = pedidoRepository.findPage(despuesDe, limite);
+            logger.fine("Se obtuvo una página de " + dtos.size() + " pedidos");
+            return dtos;
+
+        } catch (DatabaseException e) {
+            logger.log(Level.SEVERE, "Error de base de datos al listar pedidos: " + e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al listar pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al obtener la lista de pedidos: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Obtiene todos los pedidos de un cliente específico.
      *
@@ -236,7 +316,11 @@ public class PedidoService {
      * @throws PedidoNotFoundException si el pedido no existe
      */
     public void eliminarPedido(Integer id) {
-        pedidoRepository.deleteById(id);
+        try {
+            pedidoRepository.deleteById(id);
+        } finally {
+            invalidarConteos();
+        }
     }
     
     /**
@@ -266,10 +350,24 @@ public class PedidoService {
      * @throws DatabaseException si ocurre un error al acceder a la base de datos
      */
     public int contarPedidos() {
+        return (int) contarPedidos(false);
+    }
+
+    /**
+     * Obtiene el número total de pedidos, reutilizando el último conteo durante
+     * {@value #VIGENCIA_CONTEO_S} segundos o hasta la siguiente alta o baja.
+     *
+     * @param aproximado true para estimarlo con las estadísticas de InnoDB (tablas muy grandes)
+     * @return Número de pedidos
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public long contarPedidos(boolean aproximado) {
         try {
-            logger.fine("Contando total de pedidos");
+            logger.fine("Contando total de pedidos" + (aproximado ? " (aproximado)" : ""));
 
-            int count = pedidoRepository.findAll().size();
+            long count = aproximado
+                    ? totalPedidosAproximado.get(pedidoRepository::estimateCount)
+                    : totalPedidos.get(pedidoRepository::count);
 
             logger.fine("Total de pedidos: " + count);
             return count;
@@ -282,6 +380,14 @@ public class PedidoService {
             throw new DatabaseException("Error inesperado al contar pedidos: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Descarta los conteos guardados tras un alta o una baja.
+     */
+    private void invalidarConteos() {
+        totalPedidos.invalidate();
+        totalPedidosAproximado.invalidate();
+    }
     
     /**
      * Obtiene estadísticas de un cliente (número de pedidos y total gastado).
@@ -298,11 +404,11 @@ public class PedidoService {
         try {
             logger.fine("Obteniendo estadísticas para cliente ID: " + idCliente);
 
-            int numPedidos = contarPedidosPorCliente(idCliente);
-            double totalGastado = calcularTotalGastadoPorCliente(idCliente);
+            EstadisticasClienteDTO estadisticas = pedidoRepository.findEstadisticasByClienteId(idCliente);
 
-            logger.fine("Estadísticas cliente ID " + idCliente + ": pedidos=" + numPedidos + ", total=" + totalGastado);
-            return new double[]{numPedidos, totalGastado};
+            logger.fine("Estadísticas cliente ID " + idCliente + ": pedidos=" + estadisticas.getNumPedidos()
+                    + ", total=" + estadisticas.getTotalGastado());
+            return new double[]{estadisticas.getNumPedidos(), estadisticas.getTotalGastado()};
 
         } catch (DatabaseException e) {
             logger.log(Level.SEVERE, "Error de base de datos al obtener estadísticas del cliente " + idCliente + ": " + e.getMessage(), e);
@@ -312,4 +418,25 @@ public class PedidoService {
             throw new DatabaseException("Error inesperado al obtener estadísticas del cliente: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Obtiene las estadísticas de varios clientes a la vez, p. ej. los de una página de la tabla.
+     *
+     * @param idsClientes IDs de los clientes
+     * @return Mapa de ID de cliente a sus estadísticas (también los clientes sin pedidos)
+     * @throws DatabaseException si ocurre un error al acceder a la base de datos
+     */
+    public Map<Integer, EstadisticasClienteDTO> obtenerEstadisticasClientes(Collection<Integer> idsClientes) {
+        try {
+            logger.fine("Obteniendo estadísticas para " + (idsClientes != null ? idsClientes.size() : 0) + " clientes");
+            return pedidoRepository.findEstadisticasByClienteIds(idsClientes);
+
+        } catch (DatabaseException e) {
+            logger.log(Level.SEVERE, "Error de base de datos al obtener estadísticas de clientes: " + e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al obtener estadísticas de clientes: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al obtener estadísticas de clientes: " + e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,7 @@
 package com.kilombo.crm.application.service;
 
-import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
 import com.kilombo.crm.domain.exception.ValidationException;
-import com.kilombo.crm.domain.model.Cliente;
-import com.kilombo.crm.domain.model.Pedido;
-import com.kilombo.crm.domain.repository.ClienteRepository;
-import com.kilombo.crm.domain.repository.DetallePedidoRepository;
 import com.kilombo.crm.domain.repository.PedidoRepository;
 import com.kilombo.crm.domain.service.WhatsAppService;
 
@@ -13,8 +9,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
@@ -35,18 +32,12 @@ public class WhatsAppServiceImpl implements WhatsAppService {
     private static final String WHATSAPP_BASE_URL = "https://wa.me/";
 
     private final PedidoRepository pedidoRepository;
-    private final ClienteRepository clienteRepository;
-    private final DetallePedidoRepository detallePedidoRepository;
 
     // Caché de plantillas cargadas una sola vez
     private final Map<String, String> messageTemplates = new HashMap<>();
 
-    public WhatsAppServiceImpl(PedidoRepository pedidoRepository,
-                              ClienteRepository clienteRepository,
-                              DetallePedidoRepository detallePedidoRepository) {
+    public WhatsAppServiceImpl(PedidoRepository pedidoRepository) {
         this.pedidoRepository = pedidoRepository;
-        this.clienteRepository = clienteRepository;
-        this.detallePedidoRepository = detallePedidoRepository;
         loadMessageTemplates();
     }
 
@@ -86,62 +77,80 @@ public class WhatsAppServiceImpl implements WhatsAppService {
             throw new ValidationException("ID de pedido inválido");
         }
 
-        // Obtener pedido
-        logger.info("Buscando pedido con ID: " + idPedido);
-        Optional<Pedido> pedidoOpt = pedidoRepository.findById(idPedido);
-        if (!pedidoOpt.isPresent()) {
+        // Pedido, cliente y producto principal en una sola consulta
+        logger.info("Buscando datos de notificación del pedido ID: " + idPedido);
+        Optional<NotificacionPedidoDTO> notificacionOpt = pedidoRepository.findNotificacionByPedidoId(idPedido);
+        if (!notificacionOpt.isPresent()) {
             logger.warning("Pedido no encontrado con ID: " + idPedido);
             throw new ValidationException("Pedido no encontrado con ID: " + idPedido);
         }
-        Pedido pedido = pedidoOpt.get();
-        logger.info("Pedido encontrado - Estado: " + (pedido.getEstado() != null ? pedido.getEstado() : "SIN ESTADO"));
+        return generarUrl(notificacionOpt.get());
+    }
 
-        // Si el pedido no tiene estado, buscar el último pedido del cliente
-        if (pedido.getEstado() == null || pedido.getEstado().trim().isEmpty()) {
-            logger.info("Pedido sin estado, buscando último pedido del cliente ID: " + pedido.getIdCliente());
+    @Override
+    public String generateWhatsAppUrl(NotificacionPedidoDTO notificacion) {
+        if (notificacion == null) {
+            throw new ValidationException("Datos de notificación del pedido no disponibles");
+        }
+        return generarUrl(notificacion);
+    }
+
+    @Override
+    public Map<Integer, String> generateWhatsAppUrls(Collection<Integer> idsPedidos) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        if (idsPedidos == null || idsPedidos.isEmpty()) {
+            return urls;
+        }
+        logger.info("=== INICIANDO GENERACIÓN DE " + idsPedidos.size() + " URLS WHATSAPP ===");
+
+        Map<Integer, NotificacionPedidoDTO> notificaciones = pedidoRepository.findNotificacionesByPedidoIds(idsPedidos);
+        for (Integer idPedido : idsPedidos) {
+            NotificacionPedidoDTO notificacion = notificaciones.get(idPedido);
+            if (notificacion == null) {
+                logger.warning("Pedido no encontrado con ID: " + idPedido + ", se omite");
+                continue;
+            }
             try {
-                List<Pedido> pedidosCliente = pedidoRepository.findByClienteId(pedido.getIdCliente());
-                if (!pedidosCliente.isEmpty()) {
-                    // Ordenar por fecha descendente y tomar el primero (más reciente)
-                    pedidosCliente.sort((p1, p2) -> p2.getFecha().compareTo(p1.getFecha()));
-                    Pedido ultimoPedido = pedidosCliente.get(0);
-                    logger.info("Usando último pedido del cliente - ID: " + ultimoPedido.getId() +
-                              ", Estado: " + (ultimoPedido.getEstado() != null ? ultimoPedido.getEstado() : "SIN ESTADO"));
-                    pedido = ultimoPedido;
-                } else {
-                    logger.warning("No se encontraron pedidos para el cliente ID: " + pedido.getIdCliente());
-                }
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Error al buscar último pedido del cliente: " + e.getMessage(), e);
+                urls.put(idPedido, generarUrl(notificacion));
+            } catch (ValidationException e) {
+                logger.warning("URL de WhatsApp no generada para el pedido ID " + idPedido + ": " + e.getMessage());
             }
         }
 
-        // Obtener cliente
-        logger.info("Buscando cliente con ID: " + pedido.getIdCliente());
-        Optional<Cliente> clienteOpt = clienteRepository.findById(pedido.getIdCliente());
-        if (!clienteOpt.isPresent()) {
+        logger.info("=== URLS DE WHATSAPP GENERADAS: " + urls.size() + " de " + idsPedidos.size() + " ===");
+        return urls;
+    }
+
+    /**
+     * Genera la URL de WhatsApp de un pedido a partir de sus datos de notificación.
+     *
+     * @param notificacion Estado del pedido, contacto del cliente y producto principal
+     * @return URL completa de WhatsApp Web con el mensaje pre-cargado
+     * @throws ValidationException si faltan datos requeridos o no se puede codificar el mensaje
+     */
+    private String generarUrl(NotificacionPedidoDTO notificacion) {
+        Integer idPedido = notificacion.getIdPedido();
+        logger.info("Pedido encontrado - Estado: " + (notificacion.getEstado() != null ? notificacion.getEstado() : "SIN ESTADO"));
+
+        if (!notificacion.tieneCliente()) {
             logger.warning("Cliente no encontrado para el pedido ID: " + idPedido);
             throw new ValidationException("Cliente no encontrado para el pedido ID: " + idPedido);
         }
-        Cliente cliente = clienteOpt.get();
-        logger.info("Cliente encontrado: " + cliente.getNombre() + " " + cliente.getApellido() +
-                  ", Email: " + cliente.getEmail() + ", Teléfono: " + cliente.getTelefono());
+        logger.info("Cliente encontrado: " + notificacion.getNombreCompletoCliente() +
+                  ", Email: " + notificacion.getEmail() + ", Teléfono: " + notificacion.getTelefono());
 
         // Validar teléfono
-        if (cliente.getTelefono() == null || cliente.getTelefono().trim().isEmpty()) {
-            logger.warning("Teléfono no encontrado o inválido para cliente: " + cliente.getNombre() + " " + cliente.getApellido());
+        if (notificacion.getTelefono() == null || notificacion.getTelefono().trim().isEmpty()) {
+            logger.warning("Teléfono no encontrado o inválido para cliente: " + notificacion.getNombreCompletoCliente());
             throw new ValidationException("Teléfono no encontrado o inválido para este cliente");
         }
 
-        // Obtener producto principal
-        logger.info("Buscando producto principal para pedido ID: " + pedido.getId());
-        Optional<String> productoPrincipalOpt = detallePedidoRepository.findPrincipalProductByPedidoId(pedido.getId());
-        String productoPrincipal = productoPrincipalOpt.orElse("producto");
+        String productoPrincipal = notificacion.getProductoPrincipal() != null ? notificacion.getProductoPrincipal() : "producto";
         logger.info("Producto principal encontrado: " + productoPrincipal);
 
         // Determinar estado para la plantilla
-        String estadoParaPlantilla = (pedido.getEstado() != null && !pedido.getEstado().trim().isEmpty())
-                ? pedido.getEstado().toLowerCase()
+        String estadoParaPlantilla = (notificacion.getEstado() != null && !notificacion.getEstado().trim().isEmpty())
+                ? notificacion.getEstado().toLowerCase()
                 : "pending";
         logger.info("Estado para plantilla: " + estadoParaPlantilla);
 
@@ -162,9 +171,9 @@ public class WhatsAppServiceImpl implements WhatsAppService {
         // Sustituir placeholders
         logger.info("Realizando sustitución de placeholders en la plantilla");
         String mensaje = template
-                .replace("{NOMBRE_CLIENTE}", cliente.getNombre() + " " + cliente.getApellido())
+                .replace("{NOMBRE_CLIENTE}", notificacion.getNombreCompletoCliente())
                 .replace("{PRODUCTO_PRINCIPAL}", productoPrincipal)
-                .replace("{TELEFONO}", cliente.getTelefono())
+                .replace("{TELEFONO}", notificacion.getTelefono())
                 .replace("{ESTADO_PEDIDO}", estadoParaPlantilla);
 
         logger.info("Mensaje después de sustitución: " + mensaje);
@@ -176,7 +185,7 @@ public class WhatsAppServiceImpl implements WhatsAppService {
             logger.info("Mensaje codificado correctamente");
 
             // Construir URL completa
-            String telefonoLimpio = cliente.getTelefono().replaceAll("[^\\d]", "");
+            String telefonoLimpio = notificacion.getTelefono().replaceAll("[^\\d]", "");
             logger.info("Teléfono limpio para URL: " + telefonoLimpio);
             String whatsappUrl = WHATSAPP_BASE_URL + telefonoLimpio + "?text=" + mensajeCodificado;
 
@@ -0,0 +1,47 @@
+package com.kilombo.crm.domain.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Agregado de un Pedido con sus líneas de detalle, tal como se leen juntos de la base de datos.
+ * Pensado para exportaciones, informes y notificaciones por lotes.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class PedidoConDetalles {
+
+    private final Pedido pedido;
+    private final List<DetallePedido> detalles;
+
+    /**
+     * Constructor con el pedido y sus detalles.
+     *
+     * @param pedido Pedido
+     * @param detalles Líneas del pedido, en orden de ID (vacía si no tiene)
+     */
+    public PedidoConDetalles(Pedido pedido, List<DetallePedido> detalles) {
+        this.pedido = pedido;
+        this.detalles = Collections.unmodifiableList(detalles);
+    }
+
+    public Pedido getPedido() {
+        return pedido;
+    }
+
+    /**
+     * @return Líneas del pedido (no modificable)
+     */
+    public List<DetallePedido> getDetalles() {
+        return detalles;
+    }
+
+    @Override
+    public String toString() {
+        return "PedidoConDetalles{" +
+                "pedido=" + pedido +
+                ", detalles=" + detalles.size() +
+                '}';
+    }
+}
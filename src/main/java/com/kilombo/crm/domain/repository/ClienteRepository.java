@@ -1,8 +1,12 @@
 package com.kilombo.crm.domain.repository;
 
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
 import com.kilombo.crm.domain.model.Cliente;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz de repositorio para la entidad Cliente.
@@ -21,7 +25,7 @@ public interface ClienteRepository {
      * @param cliente Cliente a guardar
      * @return Cliente guardado con su ID generado
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
-     * @throws com.kilombo.crm.domain.exception.ValidationException si el cliente no es válido
+     * @throws com.kilombo.crm.domain.exception.ValidationException si el cliente no es válido o su email ya existe
      */
     Cliente save(Cliente cliente);
     
@@ -33,6 +37,16 @@ public interface ClienteRepository {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
      */
     Optional<Cliente> findById(Integer id);
+
+    /**
+     * Busca varios clientes por ID con consultas IN de tamaño acotado,
+     * en lugar de una consulta por cliente.
+     *
+     * @param ids IDs a buscar; se ignoran los repetidos, null y no positivos
+     * @return Mapa de ID a cliente con los clientes encontrados (los inexistentes no aparecen)
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    Map<Integer, Cliente> findByIds(Collection<Integer> ids);
     
     /**
      * Obtiene todos los clientes del sistema.
@@ -41,6 +55,82 @@ public interface ClienteRepository {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
      */
     List<Cliente> findAll();
+
+    /**
+     * Cuenta los clientes del sistema con COUNT(*), sin cargar las filas.
+     *
+     * @return Número exacto de clientes
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long count();
+
+    /**
+     * Estima el número de clientes con las estadísticas de InnoDB, sin recorrer la tabla.
+     * Puede desviarse bastante del valor real; solo para totales orientativos en tablas muy grandes.
+     *
+     * @return Número aproximado de clientes; el exacto si no hay estadística disponible
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long estimateCount();
+
+    /**
+     * Recorre todos los clientes sin cargarlos en memoria, en orden de ID.
+     * Las filas se leen en streaming y se convierten una a una; la conexión queda ocupada
+     * hasta terminar, así que la acción debe ser breve (con db.removeAbandoned, el recorrido
+     * completo debe durar menos de db.removeAbandonedTimeout).
+     *
+     * @param action Acción a aplicar a cada cliente; si lanza una excepción el recorrido se detiene
+     * @return Número de clientes recorridos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long forEach(Consumer<? super Cliente> action);
+
+    /**
+     * Obtiene una página de clientes ordenados por apellido, nombre e ID.
+     * La paginación es por clave: la página empieza justo después del cliente indicado,
+     * por lo que su coste no depende de lo avanzada que esté.
+     *
+     * @param afterKey Último cliente de la página anterior, o null para la primera página
+     * @param limit Número máximo de clientes a retornar
+     * @return Clientes de la página; menos de limit si no hay más
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<Cliente> findPage(Cliente afterKey, int limit);
+
+    /**
+     * Busca clientes en la base de datos por nombre, apellido o email.
+     * Primero van los clientes cuyo nombre, apellido o email empieza por el término y después
+     * los que contienen palabras que empiezan por cada palabra del término, por relevancia.
+     *
+     * @param term Término de búsqueda
+     * @param limit Número máximo de clientes a retornar
+     * @return Clientes encontrados, ordenados por relevancia
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<Cliente> search(String term, int limit);
+
+    /**
+     * Obtiene una página de la proyección (id, nombre, apellido) de los clientes, ordenada por
+     * apellido, nombre e ID, sin leer el resto de columnas ni construir entidades.
+     * La paginación es por clave, como en {@link #findPage(Cliente, int)}.
+     *
+     * @param afterKey Último cliente de la página anterior, o null para la primera página
+     * @param limit Número máximo de clientes a retornar
+     * @return Clientes de la página; menos de limit si no hay más
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<ClienteResumenDTO> findResumenPage(ClienteResumenDTO afterKey, int limit);
+
+    /**
+     * Obtiene la proyección (id, nombre, apellido) de los clientes cuyo apellido o nombre
+     * empieza por el prefijo indicado, ordenada por apellido, nombre e ID.
+     *
+     * @param prefix Prefijo a buscar (se toma literalmente)
+     * @param limit Número máximo de clientes a retornar
+     * @return Clientes encontrados
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<ClienteResumenDTO> findResumenByPrefix(String prefix, int limit);
     
     /**
      * Actualiza los datos de un cliente existente.
@@ -48,7 +138,7 @@ public interface ClienteRepository {
      * @param cliente Cliente con los datos actualizados
      * @throws com.kilombo.crm.domain.exception.ClienteNotFoundException si el cliente no existe
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
-     * @throws com.kilombo.crm.domain.exception.ValidationException si el cliente no es válido
+     * @throws com.kilombo.crm.domain.exception.ValidationException si el cliente no es válido o su email ya es de otro cliente
      */
     void update(Cliente cliente);
     
@@ -1,8 +1,11 @@
 package com.kilombo.crm.domain.repository;
 
 import com.kilombo.crm.domain.model.DetallePedido;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz de repositorio para la entidad DetallePedido.
@@ -25,6 +28,17 @@ public interface DetallePedidoRepository {
      */
     DetallePedido save(DetallePedido detallePedido);
 
+    /**
+     * Guarda varios detalles de pedido en una sola transacción y con una única inserción por lotes.
+     * Asigna a cada detalle su ID generado, en el mismo orden de la lista, y sus columnas
+     * calculadas (subtotal y ganancia bruta).
+     *
+     * @param detalles Detalles nuevos a guardar
+     * @return La misma lista con los IDs y columnas calculadas asignados
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD; no se guarda ninguno
+     */
+    List<DetallePedido> saveAll(List<DetallePedido> detalles);
+
     /**
      * Busca un detalle de pedido por su ID.
      *
@@ -42,6 +56,18 @@ public interface DetallePedidoRepository {
      */
     List<DetallePedido> findAll();
 
+    /**
+     * Recorre todos los detalles de pedido sin cargarlos en memoria, en orden de ID.
+     * Las filas se leen en streaming y se convierten una a una; la conexión queda ocupada
+     * hasta terminar, así que la acción debe ser breve (con db.removeAbandoned, el recorrido
+     * completo debe durar menos de db.removeAbandonedTimeout).
+     *
+     * @param action Acción a aplicar a cada detalle; si lanza una excepción el recorrido se detiene
+     * @return Número de detalles de pedido recorridos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long forEach(Consumer<? super DetallePedido> action);
+
     /**
      * Obtiene todos los detalles de pedido de un pedido específico.
      *
@@ -76,4 +102,14 @@ public interface DetallePedidoRepository {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
      */
     Optional<String> findPrincipalProductByPedidoId(Integer idPedido);
+
+    /**
+     * Encuentra el producto principal de varios pedidos, calculado en el servidor con una
+     * consulta por cada bloque de IDs en lugar de una por pedido.
+     *
+     * @param idsPedidos IDs de los pedidos; se ignoran los repetidos y los inválidos
+     * @return Mapa de ID de pedido a su tipo de producto principal; los pedidos sin detalles no aparecen
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    Map<Integer, String> findPrincipalProductsByPedidoIds(Collection<Integer> idsPedidos);
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.kilombo.crm.domain.repository;
 
+import com.kilombo.crm.domain.model.DetallePedido;
 import com.kilombo.crm.domain.model.Pedido;
+import com.kilombo.crm.domain.model.PedidoConDetalles;
+import com.kilombo.crm.application.dto.EstadisticasClienteDTO;
 import com.kilombo.crm.application.dto.InformeBI_DTO;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
+import com.kilombo.crm.application.dto.PedidoDTO;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz de repositorio para la entidad Pedido.
@@ -25,6 +33,19 @@ public interface PedidoRepository {
      * @throws com.kilombo.crm.domain.exception.ValidationException si el pedido no es válido
      */
     Pedido save(Pedido pedido);
+
+    /**
+     * Guarda un pedido nuevo junto con sus detalles en una sola transacción.
+     * Los detalles se insertan por lotes y el total del pedido se recalcula en la base de datos
+     * como la suma de sus subtotales; si algo falla no queda guardado nada.
+     *
+     * @param pedido Pedido a guardar; su total se sustituye por el recalculado
+     * @param detalles Detalles del pedido (al menos uno); se les asigna el ID del pedido
+     * @return Pedido guardado con su ID generado y el total recalculado
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     * @throws com.kilombo.crm.domain.exception.ValidationException si el pedido o algún detalle no es válido
+     */
+    Pedido saveWithDetalles(Pedido pedido, List<DetallePedido> detalles);
     
     /**
      * Busca un pedido por su ID.
@@ -34,6 +55,26 @@ public interface PedidoRepository {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
      */
     Optional<Pedido> findById(Integer id);
+
+    /**
+     * Obtiene en una sola consulta lo necesario para notificar un pedido: su estado,
+     * los datos de contacto del cliente y el producto principal.
+     *
+     * @param idPedido ID del pedido
+     * @return Optional con los datos si el pedido existe, Optional.empty() si no existe
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    Optional<NotificacionPedidoDTO> findNotificacionByPedidoId(Integer idPedido);
+
+    /**
+     * Versión por lotes de {@link #findNotificacionByPedidoId(Integer)}: una consulta por cada
+     * bloque de IDs en lugar de una por pedido.
+     *
+     * @param idsPedidos IDs de los pedidos; se ignoran los repetidos y los inválidos
+     * @return Mapa de ID de pedido a sus datos; los pedidos inexistentes no aparecen
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    Map<Integer, NotificacionPedidoDTO> findNotificacionesByPedidoIds(Collection<Integer> idsPedidos);
     
     /**
      * Obtiene todos los pedidos del sistema.
@@ -42,6 +83,66 @@ public interface PedidoRepository {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
      */
     List<Pedido> findAll();
+
+    /**
+     * Cuenta los pedidos del sistema con COUNT(*), sin cargar las filas.
+     *
+     * @return Número exacto de pedidos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long count();
+
+    /**
+     * Estima el número de pedidos con las estadísticas de InnoDB, sin recorrer la tabla.
+     * Puede desviarse bastante del valor real; solo para totales orientativos en tablas muy grandes.
+     *
+     * @return Número aproximado de pedidos; el exacto si no hay estadística disponible
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long estimateCount();
+
+    /**
+     * Recorre todos los pedidos sin cargarlos en memoria, en orden de ID.
+     * Las filas se leen en streaming y se convierten una a una; la conexión queda ocupada
+     * hasta terminar, así que la acción debe ser breve (con db.removeAbandoned, el recorrido
+     * completo debe durar menos de db.removeAbandonedTimeout).
+     *
+     * @param action Acción a aplicar a cada pedido; si lanza una excepción el recorrido se detiene
+     * @return Número de pedidos recorridos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long forEach(Consumer<? super Pedido> action);
+
+    /**
+     * Recorre todos los pedidos con sus líneas de detalle, en orden de ID, con una sola consulta
+     * en streaming que une pedidos y detalles. Las filas consecutivas de un mismo pedido se agrupan
+     * al vuelo, de modo que en memoria solo está el pedido en curso. Se aplican las mismas
+     * restricciones que a {@link #forEach(Consumer)}.
+     *
+     * @param action Acción a aplicar a cada pedido con sus detalles; si lanza una excepción el recorrido se detiene
+     * @return Número de pedidos recorridos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    long forEachWithDetalles(Consumer<? super PedidoConDetalles> action);
+
+    /**
+     * Obtiene todos los pedidos con el nombre de su cliente en una sola consulta.
+     *
+     * @return Lista de PedidoDTO con nombreCliente informado ("Cliente desconocido" si no existe)
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<PedidoDTO> findAllWithNombreCliente();
+
+    /**
+     * Obtiene una página de pedidos, del más reciente al más antiguo, con el nombre de su cliente.
+     * La paginación es por clave (fecha e ID del último pedido de la página anterior).
+     *
+     * @param afterKey Último pedido de la página anterior, o null para la primera página
+     * @param limit Número máximo de pedidos a retornar
+     * @return Pedidos de la página; menos de limit si no hay más
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    List<PedidoDTO> findPage(PedidoDTO afterKey, int limit);
     
     /**
      * Obtiene todos los pedidos de un cliente específico.
@@ -89,6 +190,26 @@ public interface PedidoRepository {
      */
     double sumTotalByClienteId(Integer idCliente);
 
+    /**
+     * Obtiene el número de pedidos y el total gastado de un cliente en una sola consulta.
+     *
+     * @param idCliente ID del cliente
+     * @return Estadísticas del cliente; {@link EstadisticasClienteDTO#SIN_PEDIDOS} si no tiene pedidos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    EstadisticasClienteDTO findEstadisticasByClienteId(Integer idCliente);
+
+    /**
+     * Obtiene el número de pedidos y el total gastado de varios clientes (p. ej. una página
+     * de la tabla) con una consulta agrupada por cada bloque de IDs, en lugar de dos por cliente.
+     *
+     * @param idsClientes IDs de los clientes; se ignoran los repetidos y los inválidos
+     * @return Mapa de ID de cliente a sus estadísticas, con {@link EstadisticasClienteDTO#SIN_PEDIDOS}
+     *         para los clientes sin pedidos
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error en la BD
+     */
+    Map<Integer, EstadisticasClienteDTO> findEstadisticasByClienteIds(Collection<Integer> idsClientes);
+
     /**
      * Obtiene los clientes top por ganancia bruta.
      *
@@ -1,5 +1,7 @@
 package com.kilombo.crm.domain.service;
 
+import java.util.Collection;
+
 /**
  * Servicio de dominio para envío de correos electrónicos.
  * Define el contrato para la lógica de envío de emails de seguimiento.
@@ -20,4 +22,14 @@ public interface EmailService {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error al acceder a la BD
      */
     boolean sendEmail(Integer idPedido);
+
+    /**
+     * Envía el correo de seguimiento de varios pedidos, leyendo los datos de todos ellos
+     * con una consulta por bloque de IDs. Los pedidos con datos incompletos se omiten.
+     *
+     * @param idsPedidos IDs de los pedidos
+     * @return Número de correos enviados
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error al acceder a la BD
+     */
+    int sendEmails(Collection<Integer> idsPedidos);
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.kilombo.crm.domain.service;
 
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
+
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Servicio de dominio para generar enlaces de WhatsApp con mensajes personalizados.
  * Define el contrato para la lógica de seguimiento de pedidos vía WhatsApp.
@@ -20,4 +25,23 @@ public interface WhatsAppService {
      * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error al acceder a la BD
      */
     String generateWhatsAppUrl(Integer idPedido);
+
+    /**
+     * Genera la URL de WhatsApp a partir de datos de notificación ya cargados, sin consultar la BD.
+     *
+     * @param notificacion Estado del pedido, contacto del cliente y producto principal
+     * @return URL completa de WhatsApp Web con el mensaje pre-cargado
+     * @throws com.kilombo.crm.domain.exception.ValidationException si faltan datos requeridos (teléfono, etc.)
+     */
+    String generateWhatsAppUrl(NotificacionPedidoDTO notificacion);
+
+    /**
+     * Genera las URLs de WhatsApp de varios pedidos, leyendo los datos de todos ellos
+     * con una consulta por bloque de IDs. Los pedidos con datos incompletos se omiten.
+     *
+     * @param idsPedidos IDs de los pedidos
+     * @return Mapa de ID de pedido a su URL, en el orden recibido
+     * @throws com.kilombo.crm.domain.exception.DatabaseException si ocurre un error al acceder a la BD
+     */
+    Map<Integer, String> generateWhatsAppUrls(Collection<Integer> idsPedidos);
 }
\ No newline at end of file
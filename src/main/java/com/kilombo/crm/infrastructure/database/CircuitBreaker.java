@@ -0,0 +1,200 @@
+package com.kilombo.crm.infrastructure.database;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker para caídas de la base de datos.
+ * Tras db.circuitBreaker.failureThreshold fallos de conexión consecutivos el circuito se abre
+ * y las peticiones fallan de inmediato; un hilo en segundo plano sondea el servidor cada
+ * db.circuitBreaker.probeInterval milisegundos (estado semiabierto mientras sondea) y cierra
+ * el circuito en cuanto responde.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    private static final long DEFAULT_PROBE_INTERVAL_MS = 5000;
+
+    /**
+     * Estados del circuito.
+     */
+    public enum State {
+        /** Funcionamiento normal: las peticiones llegan a la base de datos. */
+        CLOSED,
+        /** Base de datos caída: las peticiones fallan sin intentar conectar. */
+        OPEN,
+        /** Sondeo de recuperación en curso; las peticiones siguen fallando de inmediato. */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long probeIntervalMs;
+    private final BooleanSupplier probe;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+    private volatile State state = State.CLOSED;
+    private ScheduledExecutorService probeExecutor;
+    private ScheduledFuture<?> probeTask;
+
+    /**
+     * Crea el circuit breaker leyendo sus parámetros de las propiedades indicadas.
+     *
+     * @param properties Propiedades con las claves db.circuitBreaker.*
+     * @param probe Comprobación de disponibilidad usada para salir del estado abierto
+     */
+    public CircuitBreaker(Properties properties, BooleanSupplier probe) {
+        this.failureThreshold = Math.max(1, PropertyReader.readInt(properties, "db.circuitBreaker.failureThreshold", DEFAULT_FAILURE_THRESHOLD));
+        this.probeIntervalMs = Math.max(100, PropertyReader.readLong(properties, "db.circuitBreaker.probeInterval", DEFAULT_PROBE_INTERVAL_MS));
+        this.probe = probe;
+    }
+
+    /**
+     * Indica si se puede intentar acceder a la base de datos.
+     *
+     * @return true solo con el circuito cerrado
+     */
+    public boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Registra un acceso correcto: reinicia la cuenta de fallos.
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Registra un fallo de conexión; al alcanzar el umbral abre el circuito.
+     */
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Cierra el circuito y cancela el sondeo, por ejemplo tras cambiar la configuración.
+     */
+    public void reset() {
+        consecutiveFailures.set(0);
+        transitionTo(State.CLOSED);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getProbeIntervalMs() {
+        return probeIntervalMs;
+    }
+
+    /**
+     * Añade un observador de los cambios de estado. Se invoca desde el hilo que provoca el cambio.
+     *
+     * @param listener Observador que recibe el nuevo estado
+     */
+    public void addStateListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    private void open() {
+        boolean opened;
+        synchronized (this) {
+            opened = state == State.CLOSED;
+            if (opened) {
+                state = State.OPEN;
+                scheduleProbe();
+            }
+        }
+        if (opened) {
+            logger.warning("Circuito de base de datos abierto tras " + consecutiveFailures.get()
+                    + " fallos consecutivos; sondeando cada " + probeIntervalMs + " ms");
+            notifyListeners(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        State previous;
+        synchronized (this) {
+            previous = state;
+            state = newState;
+            if (newState == State.CLOSED && probeTask != null) {
+                probeTask.cancel(false);
+                probeTask = null;
+            }
+        }
+        if (previous != newState) {
+            if (newState == State.CLOSED) {
+                logger.info("Circuito de base de datos cerrado: servidor disponible de nuevo");
+            }
+            notifyListeners(newState);
+        }
+    }
+
+    private void scheduleProbe() {
+        if (probeExecutor == null) {
+            probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kilombo-db-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        probeTask = probeExecutor.scheduleWithFixedDelay(this::runProbe, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runProbe() {
+        synchronized (this) {
+            if (state != State.OPEN) {
+                return;
+            }
+            state = State.HALF_OPEN;
+        }
+
+        boolean available;
+        try {
+            available = probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, "Error en el sondeo de la base de datos: " + e.getMessage(), e);
+            available = false;
+        }
+
+        if (available) {
+            consecutiveFailures.set(0);
+            transitionTo(State.CLOSED);
+        } else {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    state = State.OPEN;
+                }
+            }
+            logger.fine("Base de datos aún no disponible");
+        }
+    }
+
+    private void notifyListeners(State newState) {
+        for (Consumer<State> listener : listeners) {
+            try {
+                listener.accept(newState);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error en observador del circuit breaker: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.kilombo.crm.infrastructure.database;
 
 import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.infrastructure.metrics.DatabaseMetrics;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -15,31 +21,49 @@ import java.util.logging.Logger;
 /**
  * Clase Singleton para gestionar la conexión a la base de datos MySQL.
  * Implementa el patrón Singleton thread-safe con doble verificación.
- * Incluye reintentos automáticos, timeouts y validación de estructura.
+ * Las conexiones se obtienen de un {@link ConnectionPool} acotado: cada llamador
+ * recibe su propia conexión y al cerrarla vuelve al pool.
+ * Un {@link CircuitBreaker} sustituye a los reintentos bloqueantes: si la base de datos cae,
+ * las peticiones fallan de inmediato (modo sin conexión) hasta que el sondeo en segundo plano
+ * detecta que vuelve a estar disponible.
+ * Si hay una réplica configurada, {@link #getReadConnection()} reparte las lecturas
+ * que toleran cierto desfase a través de un {@link ReplicaRouter}.
+ * Incluye timeouts y validación de estructura.
  *
  * @author KilomboCRM Team
- * @version 2.1
+ * @version 2.2
  */
 public class ConexionBD {
 
     private static final Logger logger = Logger.getLogger(ConexionBD.class.getName());
 
+    private static final String EXTERNAL_CONFIG_FILE = "config.properties";
+
+    /** Propiedad notificada cuando la aplicación entra o sale del modo sin conexión. */
+    public static final String PROPERTY_MODO_SIN_CONEXION = "modoSinConexion";
+
     private static ConexionBD instance;
-    private Connection connection;
+    private volatile ConnectionPool pool;
+    private final SchemaValidator schemaValidator = new SchemaValidator(VALIDATION_QUERY_TIMEOUT_S);
     private final Properties properties;
     private final ConfigurationManager configManager;
-
-    // Configuración de la base de datos
-    private String url;
-    private String username;
-    private String password;
+    private final CircuitBreaker circuitBreaker;
+    private final ReplicaRouter replicaRouter;
+    private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+    // Configuración de la base de datos (cada generación del pool toma una copia al crearse)
+    private volatile String url;
+    private volatile String username;
+    private volatile String password;
+    private volatile int poolGeneration = 0;
+    // Sentencias que cada pool nuevo prepara al arrancar
+    private volatile List<String> warmupStatements = Collections.emptyList();
     private String driver;
 
-    // Configuración de reintentos y timeouts
-    private static final int MAX_RETRIES = 3;
-    private static final int RETRY_DELAY_MS = 1000;
+    // Configuración de timeouts
     private static final int CONNECTION_TIMEOUT_MS = 5000;
     private static final int VALIDATION_QUERY_TIMEOUT_S = 5;
+    private static final long DEFAULT_DRAIN_TIMEOUT_MS = 30000;
     
     /**
      * Constructor privado para implementar el patrón Singleton.
@@ -51,6 +75,7 @@ public class ConexionBD {
         properties = new Properties();
         configManager = ConfigurationManager.getInstance();
         loadProperties();
+        replicaRouter = new ReplicaRouter(properties, this::isConnectionValid);
 
         // Usar configuración dinámica del ConfigurationManager
         updateConfigurationFromManager();
@@ -58,6 +83,9 @@ public class ConexionBD {
         this.driver = properties.getProperty("db.driver");
 
         loadDriver();
+        this.circuitBreaker = new CircuitBreaker(properties, this::probeDatabase);
+        this.circuitBreaker.addStateListener(this::onCircuitStateChanged);
+        DatabaseMetrics.getInstance().bindPool(() -> pool);
     }
     
     /**
@@ -82,6 +110,14 @@ public class ConexionBD {
                 "Error al cargar el archivo de configuración", e
             );
         }
+
+        // El config.properties externo, si existe, sobrescribe los valores por defecto (p. ej. límites del pool)
+        try (InputStream external = new FileInputStream(EXTERNAL_CONFIG_FILE)) {
+            properties.load(external);
+            logger.info("Configuración externa cargada desde " + EXTERNAL_CONFIG_FILE);
+        } catch (IOException e) {
+            logger.fine("Sin configuración externa en " + EXTERNAL_CONFIG_FILE + ", usando application.properties");
+        }
     }
     
     /**
@@ -107,17 +143,31 @@ public class ConexionBD {
         this.url = configManager.getConnectionUrl();
         this.username = configManager.getUsername();
         this.password = configManager.getPassword();
+        replicaRouter.configure(configManager.getReplicaConnectionUrl(), configManager.getReplicaUsername(),
+                configManager.getReplicaPassword(), getDrainTimeoutMs());
     }
 
     /**
-     * Actualiza la configuración y reinicia la conexión si es necesario.
+     * Aplica la nueva configuración como una nueva generación del pool.
+     * Los préstamos posteriores van al nuevo destino, mientras que el pool anterior se retira
+     * sin cortar el trabajo en curso y se cierra al devolverse sus conexiones o al vencer db.drainTimeout.
      * Se llama cuando se cambian los parámetros de configuración desde la UI.
      */
     public void refreshConfiguration() {
-        updateConfigurationFromManager();
+        ConnectionPool retired;
+        synchronized (this) {
+            updateConfigurationFromManager();
+            schemaValidator.invalidate();
+            retired = pool;
+            pool = null;
+        }
 
-        // Cerrar conexión existente para forzar reconexión con nueva configuración
-        closeConnection();
+        if (retired != null) {
+            retired.drain(getDrainTimeoutMs());
+        }
+
+        // La nueva configuración merece un intento inmediato aunque la anterior estuviera caída
+        circuitBreaker.reset();
 
         logger.info("Configuración actualizada: " + configManager.getConfigurationInfo());
     }
@@ -154,123 +204,272 @@ public class ConexionBD {
         this.properties = new Properties();
         this.configManager = ConfigurationManager.getInstance();
         this.driver = null; // No hay driver en modo offline
+        this.circuitBreaker = new CircuitBreaker(properties, () -> false);
+        this.replicaRouter = new ReplicaRouter(properties, connection -> false);
         // No cargar propiedades ni driver en modo offline
     }
     
     /**
-     * Obtiene una conexión activa a la base de datos con reintentos automáticos.
-     * Si la conexión está cerrada o es nula, crea una nueva con validación.
+     * Obtiene una conexión del pool para uso exclusivo del llamador.
+     * Debe cerrarse (try-with-resources) para devolverla al pool.
      * En modo offline, lanza excepción indicando que no hay BD configurada.
      *
      * @return Conexión activa a la base de datos
-     * @throws DatabaseException si no se puede establecer la conexión después de reintentos o si está en modo offline
+     * @throws DatabaseException si no se puede obtener una conexión o si está en modo offline
      */
     public Connection getConnection() {
         // Verificar si estamos en modo offline
         if (driver == null) {
             throw new DatabaseException("La aplicación está funcionando en modo sin conexión. Configure una base de datos en el panel de configuración.");
         }
+        if (!circuitBreaker.allowRequest()) {
+            throw databaseUnavailable();
+        }
 
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                if (connection == null || connection.isClosed() || !isConnectionValid()) {
-                    logger.info("Intentando establecer conexión a BD (intento " + attempt + "/" + MAX_RETRIES + ")");
+        ConnectionPool current = getPool();
+        try {
+            return current.borrow();
+        } catch (DatabaseException e) {
+            // Si el pool se retiró durante el préstamo por un cambio de configuración, usar la nueva generación
+            if (current.isClosed() && pool != current && circuitBreaker.allowRequest()) {
+                return getPool().borrow();
+            }
+            throw e;
+        }
+    }
 
-                    // Establecer conexión con timeout
-                    DriverManager.setLoginTimeout(CONNECTION_TIMEOUT_MS / 1000);
-                    connection = DriverManager.getConnection(url, username, password);
-                    connection.setAutoCommit(true);
+    /**
+     * Obtiene una conexión para lecturas que toleran un pequeño desfase (listados, informes BI,
+     * exploración de tablas). Usa la réplica si está configurada, su retraso es aceptable
+     * y no hubo escrituras recientes; en otro caso, el servidor principal.
+     *
+     * @return Conexión de solo lectura lógica; debe cerrarse igual que las de {@link #getConnection()}
+     * @throws DatabaseException si no se puede obtener una conexión o si está en modo offline
+     */
+    public Connection getReadConnection() {
+        if (driver == null) {
+            throw new DatabaseException("La aplicación está funcionando en modo sin conexión. Configure una base de datos en el panel de configuración.");
+        }
+        if (!circuitBreaker.allowRequest()) {
+            throw databaseUnavailable();
+        }
+        return replicaRouter.borrowForRead(this::getConnection);
+    }
 
-                    // Validar la conexión y estructura
-                    validateConnectionAndSchema();
+    /**
+     * Obtiene una conexión al servidor principal para escribir.
+     * Además abre la ventana de lectura tras escritura: durante db.replica.maxLag segundos
+     * {@link #getReadConnection()} también irá al principal para que se vean los cambios propios.
+     *
+     * @return Conexión al servidor principal
+     * @throws DatabaseException si no se puede obtener una conexión o si está en modo offline
+     */
+    public Connection getWriteConnection() {
+        Connection connection = getConnection();
+        replicaRouter.recordWrite();
+        return connection;
+    }
 
-                    logger.info("Conexión a BD establecida exitosamente");
-                    return connection;
-                }
+    /**
+     * Indica qué sentencias deben prepararse en las conexiones de cada pool nuevo (principal y réplica),
+     * para que las primeras consultas encuentren la caché de sentencias ya caliente.
+     * Si el pool ya existe, se precalienta ahora.
+     *
+     * @param statements SQL de las primeras pantallas
+     */
+    public void setWarmupStatements(Collection<String> statements) {
+        warmupStatements = List.copyOf(statements);
+        replicaRouter.setWarmupStatements(warmupStatements);
+        ConnectionPool current = pool;
+        if (current != null && !current.isClosed()) {
+            current.warmUpStatements(warmupStatements);
+        }
+    }
 
-                // Verificar que la conexión existente sigue siendo válida
-                if (isConnectionValid()) {
-                    return connection;
-                } else {
-                    logger.warning("Conexión existente no válida, creando nueva");
-                    closeConnection();
+    /**
+     * Obtiene el pool actual, creándolo de forma lazy con la configuración vigente.
+     *
+     * @return Pool de conexiones activo
+     */
+    private ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                current = pool;
+                if (current == null || current.isClosed()) {
+                    // Fijar el destino de esta generación: un cambio de configuración posterior no la afecta
+                    String targetUrl = url;
+                    String targetUsername = username;
+                    String targetPassword = password;
+                    current = new ConnectionPool(
+                            () -> createPhysicalConnection(targetUrl, targetUsername, targetPassword),
+                            this::isConnectionValid, properties);
+                    try {
+                        current.prefill();
+                    } catch (DatabaseException e) {
+                        current.close();
+                        throw e;
+                    }
+                    current.warmUpStatements(warmupStatements);
+                    pool = current;
+                    poolGeneration++;
+                    logger.info("Pool de conexiones generación " + poolGeneration + " apuntando a " + targetUrl);
                 }
+            }
+        }
+        return current;
+    }
 
-            } catch (SQLException e) {
-                logger.log(Level.WARNING, "Error en intento " + attempt + " de conexión a BD: " + e.getMessage(), e);
+    /**
+     * Crea una nueva conexión física y valida el esquema.
+     * Un único intento: los fallos se cuentan en el circuit breaker en lugar de reintentar
+     * bloqueando al llamador.
+     *
+     * @param targetUrl URL de la generación del pool que pide la conexión
+     * @param targetUsername Usuario de esa generación
+     * @param targetPassword Contraseña de esa generación
+     * @return Conexión física nueva
+     * @throws DatabaseException si no se puede establecer la conexión o el circuito está abierto
+     */
+    private Connection createPhysicalConnection(String targetUrl, String targetUsername, String targetPassword) {
+        if (!circuitBreaker.allowRequest()) {
+            throw databaseUnavailable();
+        }
 
-                if (attempt == MAX_RETRIES) {
-                    throw new DatabaseException(
-                        "Error al establecer conexión con la base de datos después de " + MAX_RETRIES + " intentos: " + e.getMessage(), e
-                    );
-                }
+        Connection connection;
+        try {
+            // Establecer conexión con timeout
+            DriverManager.setLoginTimeout(CONNECTION_TIMEOUT_MS / 1000);
+            connection = DriverManager.getConnection(targetUrl, targetUsername, targetPassword);
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error al establecer conexión a BD: " + e.getMessage(), e);
+            circuitBreaker.recordFailure();
+            throw new DatabaseException("Error al establecer conexión con la base de datos: " + e.getMessage(), e);
+        }
+        circuitBreaker.recordSuccess();
 
-                // Esperar antes del siguiente intento
-                try {
-                    Thread.sleep(RETRY_DELAY_MS * attempt); // Backoff exponencial
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new DatabaseException("Interrupción durante reintento de conexión", ie);
-                }
-            }
+        // Validar la estructura solo una vez por época de configuración
+        try {
+            schemaValidator.ensureValidated(connection, schemaKey(targetUrl, targetUsername), this::getConnection);
+        } catch (DatabaseException e) {
+            closeQuietly(connection);
+            throw e;
         }
 
-        // Este código nunca debería alcanzarse, pero por seguridad
-        throw new DatabaseException("Error inesperado al obtener conexión");
+        logger.info("Conexión a BD establecida exitosamente");
+        return connection;
     }
-    
+
     /**
-     * Cierra la conexión actual a la base de datos.
-     * 
-     * @throws DatabaseException si ocurre un error al cerrar la conexión
+     * Comprueba si el servidor vuelve a aceptar conexiones. Usado por el sondeo del circuit breaker.
+     *
+     * @return true si se pudo abrir y validar una conexión
      */
-    public void closeConnection() {
+    private boolean probeDatabase() {
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            return connection.isValid(VALIDATION_QUERY_TIMEOUT_S);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reacciona a los cambios del circuit breaker: al abrirse descarta el pool (sus conexiones
+     * están muertas) y notifica a la interfaz el cambio de modo.
+     */
+    private void onCircuitStateChanged(CircuitBreaker.State state) {
+        boolean sinConexion = state != CircuitBreaker.State.CLOSED;
+        if (sinConexion) {
+            closeConnection();
+        }
+        changeSupport.firePropertyChange(PROPERTY_MODO_SIN_CONEXION, !sinConexion, sinConexion);
+    }
+
+    private DatabaseException databaseUnavailable() {
+        return new DatabaseException("La base de datos no está disponible. La aplicación funciona en modo sin conexión "
+                + "y se reconectará automáticamente cuando el servidor responda.");
+    }
+
+    private static void closeQuietly(Connection connection) {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                connection = null;
-            }
+            connection.close();
         } catch (SQLException e) {
-            throw new DatabaseException(
-                "Error al cerrar la conexión con la base de datos", e
-            );
+            logger.log(Level.FINE, "Error al cerrar conexión: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indica si la aplicación funciona sin base de datos, ya sea por no tener configuración
+     * válida o porque el servidor está caído (circuito abierto).
+     *
+     * @return true en modo sin conexión
+     */
+    public boolean isModoSinConexion() {
+        return driver == null || !circuitBreaker.allowRequest();
+    }
+
+    /**
+     * Registra un observador de la propiedad {@link #PROPERTY_MODO_SIN_CONEXION}.
+     * Las notificaciones llegan desde hilos de fondo; la interfaz debe pasarlas al EDT.
+     *
+     * @param listener Observador
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        changeSupport.addPropertyChangeListener(PROPERTY_MODO_SIN_CONEXION, listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        changeSupport.removePropertyChangeListener(PROPERTY_MODO_SIN_CONEXION, listener);
+    }
+
+    /**
+     * Cierra el pool de conexiones actual.
+     * Las conexiones libres se cierran de inmediato y las prestadas al devolverse.
+     */
+    public void closeConnection() {
+        ConnectionPool current;
+        synchronized (this) {
+            current = pool;
+            pool = null;
+        }
+        if (current != null) {
+            current.close();
         }
+        replicaRouter.close();
     }
     
     /**
-     * Verifica si la conexión está activa y funcional.
+     * Verifica si hay un pool abierto con conexiones establecidas.
      * En modo offline siempre retorna false.
      *
-     * @return true si la conexión está activa, false en caso contrario
+     * @return true si hay conexiones activas, false en caso contrario
      */
     public boolean isConnected() {
         // En modo offline, nunca está conectado
-        if (driver == null) {
+        if (isModoSinConexion()) {
             return false;
         }
 
-        try {
-            return connection != null && !connection.isClosed() && isConnectionValid();
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "Error al verificar estado de conexión: " + e.getMessage(), e);
-            return false;
-        }
+        ConnectionPool current = pool;
+        return current != null && !current.isClosed()
+                && current.getActiveCount() + current.getIdleCount() > 0;
     }
 
     /**
-     * Verifica si la conexión es válida ejecutando una consulta de prueba.
+     * Verifica si una conexión es válida mediante la comprobación del driver (ping del protocolo),
+     * más barata que ejecutar una consulta de prueba.
      *
+     * @param connection Conexión a verificar
      * @return true si la conexión es válida, false en caso contrario
      */
-    private boolean isConnectionValid() {
+    private boolean isConnectionValid(Connection connection) {
         if (connection == null) {
             return false;
         }
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.setQueryTimeout(VALIDATION_QUERY_TIMEOUT_S);
-            stmt.executeQuery("SELECT 1");
-            return true;
+        try {
+            return connection.isValid(VALIDATION_QUERY_TIMEOUT_S);
         } catch (SQLException e) {
             logger.log(Level.WARNING, "Conexión no válida: " + e.getMessage(), e);
             return false;
@@ -278,87 +477,42 @@ public class ConexionBD {
     }
 
     /**
-     * Valida la conexión y verifica que el esquema de la base de datos existe.
-     *
-     * @throws DatabaseException si la validación falla
+     * Clave de la época de configuración actual, usada para la caché de validación de esquema.
      */
-    private void validateConnectionAndSchema() {
-        try (Statement stmt = connection.createStatement()) {
-            stmt.setQueryTimeout(VALIDATION_QUERY_TIMEOUT_S);
-
-            // Verificar que las tablas existen y tienen estructura correcta
-            validateTableStructure(stmt, "clientes", "id", "nombre", "apellido", "email", "telefono");
-            validateTableStructure(stmt, "pedidos", "id", "id_cliente", "fecha", "total");
-
-            // Verificar integridad referencial básica
-            validateReferentialIntegrity(stmt);
-
-            logger.info("Esquema de base de datos validado correctamente");
+    private static String schemaKey(String targetUrl, String targetUsername) {
+        return targetUrl + "|" + targetUsername;
+    }
 
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error al validar esquema de BD: " + e.getMessage(), e);
-            throw new DatabaseException(
-                "La base de datos no tiene el esquema correcto o está corrupta: " + e.getMessage(), e
-            );
-        }
+    /**
+     * Plazo de drenaje del pool retirado al cambiar la configuración (db.drainTimeout).
+     */
+    private long getDrainTimeoutMs() {
+        return Math.max(0, PropertyReader.readLong(properties, "db.drainTimeout", DEFAULT_DRAIN_TIMEOUT_MS));
     }
 
     /**
-     * Valida que una tabla tiene las columnas esperadas.
+     * Vuelve a validar el esquema y la integridad referencial de forma síncrona.
+     * Pensado para la acción explícita "Revalidar esquema" del panel de configuración.
      *
-     * @param stmt Statement para ejecutar consultas
-     * @param tableName Nombre de la tabla
-     * @param expectedColumns Columnas esperadas
-     * @throws SQLException si la validación falla
+     * @return Informe de la comprobación de integridad
+     * @throws DatabaseException si el esquema no es correcto o no hay conexión
      */
-    private void validateTableStructure(Statement stmt, String tableName, String... expectedColumns) throws SQLException {
-        // En MySQL, verificamos la estructura consultando INFORMATION_SCHEMA
-        String query = "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                       "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + tableName + "' ORDER BY ORDINAL_POSITION";
-
-        try (ResultSet rs = stmt.executeQuery(query)) {
-            java.util.Set<String> actualColumns = new java.util.HashSet<>();
-            while (rs.next()) {
-                actualColumns.add(rs.getString(1).toLowerCase());
-            }
-
-            for (String expected : expectedColumns) {
-                if (!actualColumns.contains(expected.toLowerCase())) {
-                    throw new SQLException("Columna '" + expected + "' no encontrada en tabla '" + tableName + "'");
-                }
-            }
-
-            logger.fine("Estructura de tabla '" + tableName + "' validada correctamente");
+    public String revalidateSchema() {
+        schemaValidator.invalidate();
+        try (Connection conn = getConnection()) {
+            return schemaValidator.revalidate(conn, schemaKey(url, username));
+        } catch (SQLException e) {
+            throw new DatabaseException("Error al revalidar el esquema: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Valida la integridad referencial básica entre tablas.
+     * Obtiene el resultado de la última comprobación de integridad en segundo plano.
      *
-     * @param stmt Statement para ejecutar consultas
-     * @throws SQLException si la validación falla
+     * @return Informe de integridad
      */
-    private void validateReferentialIntegrity(Statement stmt) throws SQLException {
-        // Verificar que no hay pedidos huérfanos (sin cliente)
-        String orphanQuery = "SELECT COUNT(*) FROM pedidos p LEFT JOIN clientes c ON p.id_cliente = c.id WHERE c.id IS NULL";
-        try (ResultSet rs = stmt.executeQuery(orphanQuery)) {
-            if (rs.next() && rs.getInt(1) > 0) {
-                int orphanCount = rs.getInt(1);
-                logger.warning("Encontrados " + orphanCount + " pedidos huérfanos (sin cliente asociado)");
-                // No lanzamos excepción, solo advertimos
-            }
-        }
-
-        // Verificar que los datos básicos son consistentes
-        String consistencyQuery = "SELECT COUNT(*) FROM clientes WHERE nombre IS NULL OR nombre = ''";
-        try (ResultSet rs = stmt.executeQuery(consistencyQuery)) {
-            if (rs.next() && rs.getInt(1) > 0) {
-                int invalidCount = rs.getInt(1);
-                logger.warning("Encontrados " + invalidCount + " clientes con nombre inválido");
-            }
-        }
-
-        logger.fine("Integridad referencial validada");
+    public String getIntegrityReport() {
+        return schemaValidator.getLastIntegrityReport();
     }
     
     /**
@@ -386,8 +540,7 @@ public class ConexionBD {
             closeConnection();
         }
 
-        try {
-            Connection testConn = getConnection();
+        try (Connection testConn = getConnection()) {
             if (testConn == null || testConn.isClosed()) {
                 logger.warning("Prueba de conexión fallida: conexión nula o cerrada");
                 return false;
@@ -430,8 +583,7 @@ public class ConexionBD {
 
         try {
             // Crear URL de prueba
-            String testUrl = "jdbc:mysql://" + testHost + ":3306/" + configManager.getDatabase() +
-                           "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8&characterSetResults=UTF-8";
+            String testUrl = configManager.getConnectionUrl(testHost);
 
             logger.info("Probando conexión con configuración: Host=" + testHost + ", Usuario=" + testUsername);
 
@@ -530,9 +682,30 @@ public class ConexionBD {
                    "Configure una base de datos en el panel de configuración.";
         }
 
-        return "URL: " + url + "\n" +
-               "Usuario: " + username + "\n" +
-               "Driver: " + driver + "\n" +
-               "Conectado: " + isConnected();
+        StringBuilder info = new StringBuilder();
+        info.append("URL: ").append(url).append("\n")
+            .append("Usuario: ").append(username).append("\n")
+            .append("Driver: ").append(driver).append("\n")
+            .append("Conectado: ").append(isConnected()).append("\n")
+            .append("Generación del pool: ").append(poolGeneration).append("\n")
+            .append(replicaRouter.getStatus());
+
+        if (!circuitBreaker.allowRequest()) {
+            info.append("\nModo: Sin conexión (servidor no disponible, sondeando cada ")
+                .append(circuitBreaker.getProbeIntervalMs() / 1000).append(" s)");
+        }
+
+        ConnectionPool current = pool;
+        if (current != null && !current.isClosed()) {
+            info.append("\nValidaciones: ").append(current.getValidationsPerformed()).append(" ejecutadas, ")
+                .append(current.getValidationsSkipped()).append(" evitadas, ")
+                .append(current.getValidationsFailed()).append(" fallidas")
+                .append("\nConexiones abandonadas reclamadas: ").append(current.getAbandonedReclaimed())
+                .append("\nCaché de sentencias (").append(current.getStatementCacheSize()).append(" por conexión): ")
+                .append(current.getStatementCacheHits()).append(" aciertos, ")
+                .append(current.getStatementCacheMisses()).append(" fallos, ")
+                .append(current.getStatementCacheEvictions()).append(" expulsadas");
+        }
+        return info.toString();
     }
 }
\ No newline at end of file
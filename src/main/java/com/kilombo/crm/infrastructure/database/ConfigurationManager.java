@@ -27,6 +27,9 @@ public class ConfigurationManager {
     private static final String DEFAULT_USERNAME = "admin";
     private static final String DEFAULT_PASSWORD = "admin";
     private static final String DEFAULT_DATABASE = "kilombo";
+    private static final int DEFAULT_PORT = 3306;
+    private static final String URL_PARAMETERS =
+            "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8&characterSetResults=UTF-8&useServerPrepStmts=true&rewriteBatchedStatements=true";
 
     /**
      * Constructor privado para patrón Singleton.
@@ -95,10 +98,28 @@ public class ConfigurationManager {
      * @return URL de conexión JDBC
      */
     public String getConnectionUrl() {
-        String host = getHost();
-        String database = getDatabase();
-        return "jdbc:mysql://" + host + ":3306/" + database +
-               "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8&characterSetResults=UTF-8";
+        return getConnectionUrl(getHost());
+    }
+
+    /**
+     * Obtiene la URL de conexión a la réplica de lectura.
+     *
+     * @return URL de conexión JDBC de la réplica, o null si no hay réplica configurada
+     */
+    public String getReplicaConnectionUrl() {
+        return hasReplica() ? getConnectionUrl(getReplicaHost()) : null;
+    }
+
+    /**
+     * Construye la URL JDBC para un host con la base de datos configurada.
+     * El host admite la forma host:puerto; sin puerto se usa el 3306.
+     *
+     * @param host Host o host:puerto del servidor
+     * @return URL de conexión JDBC
+     */
+    public String getConnectionUrl(String host) {
+        String hostAndPort = host.contains(":") ? host : host + ":" + DEFAULT_PORT;
+        return "jdbc:mysql://" + hostAndPort + "/" + getDatabase() + URL_PARAMETERS;
     }
 
     /**
@@ -173,6 +194,71 @@ public class ConfigurationManager {
         configProperties.setProperty("db.database", database != null ? database.trim() : DEFAULT_DATABASE);
     }
 
+    /**
+     * Indica si hay una réplica de lectura configurada.
+     *
+     * @return true si db.replica.host tiene valor
+     */
+    public boolean hasReplica() {
+        return !getReplicaHost().isEmpty();
+    }
+
+    /**
+     * Obtiene el host/IP de la réplica de lectura.
+     *
+     * @return Host de la réplica, o cadena vacía si no hay réplica
+     */
+    public String getReplicaHost() {
+        return configProperties.getProperty("db.replica.host", "").trim();
+    }
+
+    /**
+     * Establece el host/IP de la réplica de lectura.
+     *
+     * @param host Nuevo host; null o vacío desactiva la réplica
+     */
+    public void setReplicaHost(String host) {
+        configProperties.setProperty("db.replica.host", host != null ? host.trim() : "");
+    }
+
+    /**
+     * Obtiene el usuario de la réplica; si no se indicó, el del servidor principal.
+     *
+     * @return Nombre de usuario de la réplica
+     */
+    public String getReplicaUsername() {
+        String username = configProperties.getProperty("db.replica.username", "").trim();
+        return username.isEmpty() ? getUsername() : username;
+    }
+
+    /**
+     * Establece el usuario de la réplica.
+     *
+     * @param username Nuevo usuario; null o vacío para usar el del servidor principal
+     */
+    public void setReplicaUsername(String username) {
+        configProperties.setProperty("db.replica.username", username != null ? username.trim() : "");
+    }
+
+    /**
+     * Obtiene la contraseña de la réplica; si no se indicó, la del servidor principal.
+     *
+     * @return Contraseña de la réplica
+     */
+    public String getReplicaPassword() {
+        String password = configProperties.getProperty("db.replica.password", "");
+        return password.isEmpty() ? getPassword() : password;
+    }
+
+    /**
+     * Establece la contraseña de la réplica.
+     *
+     * @param password Nueva contraseña; null o vacía para usar la del servidor principal
+     */
+    public void setReplicaPassword(String password) {
+        configProperties.setProperty("db.replica.password", password != null ? password : "");
+    }
+
     /**
      * Obtiene información de la configuración actual (sin contraseña).
      *
@@ -181,6 +267,7 @@ public class ConfigurationManager {
     public String getConfigurationInfo() {
         return "Host: " + getHost() + "\n" +
                "Base de datos: " + getDatabase() + "\n" +
-               "Usuario: " + getUsername();
+               "Usuario: " + getUsername() + "\n" +
+               "Réplica de lectura: " + (hasReplica() ? getReplicaHost() : "(ninguna)");
     }
 }
\ No newline at end of file
@@ -0,0 +1,819 @@
+package com.kilombo.crm.infrastructure.database;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.infrastructure.metrics.DatabaseMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Aplica los límites db.initialSize, db.maxActive, db.maxIdle, db.minIdle y db.maxWait
+ * de la configuración. Cada llamada a {@link #borrow()} entrega una conexión propia
+ * cuyo close() la devuelve al pool en lugar de cerrar el socket.
+ * Las conexiones usadas dentro de db.validationIdleWindow se prestan sin validar;
+ * las demás se validan antes de prestarlas y, en segundo plano, cada db.keepaliveInterval.
+ * La misma tarea periódica repone conexiones libres hasta db.minIdle.
+ * Con db.removeAbandoned, las conexiones retenidas más de db.removeAbandonedTimeout segundos
+ * se reclaman y, con db.logAbandoned, se registra dónde se pidieron; los recorridos largos
+ * en streaming se excluyen con {@link #exemptFromAbandonedReclaim(Connection)}.
+ * Al cambiar la configuración el pool se retira con {@link #drain(long)}: deja de prestar
+ * conexiones pero respeta las que están en uso hasta un plazo máximo.
+ * Cada conexión física mantiene una caché LRU de hasta db.statementCacheSize sentencias
+ * preparadas ({@link StatementCache}) que sobrevive entre préstamos.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class ConnectionPool implements DatabaseMetrics.PoolStatistics {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Valores por defecto si la propiedad no existe o es inválida
+    private static final int DEFAULT_INITIAL_SIZE = 5;
+    private static final int DEFAULT_MAX_ACTIVE = 20;
+    private static final int DEFAULT_MAX_IDLE = 10;
+    private static final int DEFAULT_MIN_IDLE = 5;
+    private static final long DEFAULT_MAX_WAIT_MS = 10000;
+    private static final long DEFAULT_VALIDATION_IDLE_WINDOW_MS = 5000;
+    private static final long DEFAULT_KEEPALIVE_INTERVAL_MS = 30000;
+    private static final long DEFAULT_REMOVE_ABANDONED_TIMEOUT_S = 300;
+    private static final long MIN_ABANDONED_CHECK_INTERVAL_MS = 1000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    /**
+     * Fábrica de conexiones físicas usada por el pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Comprobación de validez aplicada a una conexión libre antes de prestarla.
+     */
+    @FunctionalInterface
+    public interface ConnectionValidator {
+        boolean isValid(Connection connection);
+    }
+
+    private final ConnectionFactory factory;
+    private final ConnectionValidator validator;
+    private final int initialSize;
+    private final int maxActive;
+    private final int maxIdle;
+    private final int minIdle;
+    private final long maxWaitMs;
+    private final long validationIdleWindowNanos;
+    private final long keepaliveIntervalMs;
+    private final boolean removeAbandoned;
+    private final long removeAbandonedTimeoutNanos;
+    private final boolean logAbandoned;
+    private final int statementCacheSize;
+
+    // Conexiones libres; se reutiliza la más reciente (LIFO) para mantener calientes pocas conexiones
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final DatabaseMetrics metrics = DatabaseMetrics.getInstance();
+    private volatile boolean closed = false;
+    private volatile boolean draining = false;
+    private ScheduledExecutorService maintenanceExecutor;
+
+    // Préstamos en curso, para detectar conexiones abandonadas y cerrar las rezagadas al drenar
+    private final Set<LeasedConnectionHandler> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicLong abandonedReclaimed = new AtomicLong();
+
+    // Contadores de validación
+    private final AtomicLong validationsPerformed = new AtomicLong();
+    private final AtomicLong validationsSkipped = new AtomicLong();
+    private final AtomicLong validationsFailed = new AtomicLong();
+
+    // Contadores de las cachés de sentencias de todas las conexiones del pool
+    private final StatementCache.Statistics statementStatistics = new StatementCache.Statistics();
+
+    /**
+     * Crea un pool leyendo los límites desde las propiedades indicadas.
+     *
+     * @param factory Fábrica de conexiones físicas
+     * @param validator Validación aplicada a las conexiones libres antes de prestarlas
+     * @param properties Propiedades con las claves db.* del pool
+     */
+    public ConnectionPool(ConnectionFactory factory, ConnectionValidator validator, Properties properties) {
+        this.factory = factory;
+        this.validator = validator;
+        this.maxActive = Math.max(1, PropertyReader.readInt(properties, "db.maxActive", DEFAULT_MAX_ACTIVE));
+        this.maxIdle = Math.max(0, Math.min(maxActive, PropertyReader.readInt(properties, "db.maxIdle", DEFAULT_MAX_IDLE)));
+        this.minIdle = Math.max(0, Math.min(maxIdle, PropertyReader.readInt(properties, "db.minIdle", DEFAULT_MIN_IDLE)));
+        this.initialSize = Math.max(0, Math.min(maxActive, PropertyReader.readInt(properties, "db.initialSize", DEFAULT_INITIAL_SIZE)));
+        this.maxWaitMs = Math.max(0, PropertyReader.readLong(properties, "db.maxWait", DEFAULT_MAX_WAIT_MS));
+        this.validationIdleWindowNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(0, PropertyReader.readLong(properties, "db.validationIdleWindow", DEFAULT_VALIDATION_IDLE_WINDOW_MS)));
+        this.keepaliveIntervalMs = Math.max(0, PropertyReader.readLong(properties, "db.keepaliveInterval", DEFAULT_KEEPALIVE_INTERVAL_MS));
+        this.removeAbandoned = Boolean.parseBoolean(properties.getProperty("db.removeAbandoned", "false").trim());
+        this.removeAbandonedTimeoutNanos = TimeUnit.SECONDS.toNanos(
+                Math.max(1, PropertyReader.readLong(properties, "db.removeAbandonedTimeout", DEFAULT_REMOVE_ABANDONED_TIMEOUT_S)));
+        this.logAbandoned = Boolean.parseBoolean(properties.getProperty("db.logAbandoned", "false").trim());
+        this.statementCacheSize = Math.max(0, PropertyReader.readInt(properties, "db.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE));
+        this.permits = new Semaphore(maxActive, true);
+    }
+
+    /**
+     * Abre las conexiones iniciales (db.initialSize, nunca menos que db.minIdle).
+     * Si falla la primera conexión se propaga el error; fallos posteriores solo se registran,
+     * el resto de conexiones se crearán bajo demanda y las tareas de mantenimiento arrancan igualmente.
+     *
+     * @throws DatabaseException si no se puede abrir ninguna conexión
+     */
+    public void prefill() {
+        int target = Math.min(maxIdle, Math.max(initialSize, minIdle));
+        for (int i = idle.size(); i < target && !closed; i++) {
+            try {
+                idle.offerLast(newIdleConnection(factory.create()));
+            } catch (SQLException | DatabaseException e) {
+                if (idle.isEmpty()) {
+                    throw e instanceof DatabaseException ? (DatabaseException) e
+                            : new DatabaseException("Error al precargar el pool de conexiones: " + e.getMessage(), e);
+                }
+                logger.log(Level.WARNING, "No se pudo precargar el pool de conexiones: " + e.getMessage(), e);
+                break;
+            }
+        }
+        startMaintenance();
+        logger.info("Pool de conexiones inicializado con " + idle.size() + " conexiones libres (maxActive=" + maxActive + ")");
+    }
+
+    /**
+     * Arranca las tareas periódicas del pool: keepalive de conexiones libres (si db.keepaliveInterval
+     * es mayor que 0) con reposición hasta db.minIdle, y reclamación de conexiones abandonadas
+     * (si db.removeAbandoned está activo). Sin keepalive, la reposición usa el intervalo por defecto.
+     */
+    private synchronized void startMaintenance() {
+        if (maintenanceExecutor != null || closed || (keepaliveIntervalMs <= 0 && minIdle == 0 && !removeAbandoned)) {
+            return;
+        }
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kilombo-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (keepaliveIntervalMs > 0 || minIdle > 0) {
+            long idleCheckMs = keepaliveIntervalMs > 0 ? keepaliveIntervalMs : DEFAULT_KEEPALIVE_INTERVAL_MS;
+            maintenanceExecutor.scheduleWithFixedDelay(this::maintainIdle, idleCheckMs, idleCheckMs, TimeUnit.MILLISECONDS);
+        }
+        if (removeAbandoned) {
+            long checkIntervalMs = Math.max(MIN_ABANDONED_CHECK_INTERVAL_MS,
+                    TimeUnit.NANOSECONDS.toMillis(removeAbandonedTimeoutNanos) / 4);
+            maintenanceExecutor.scheduleWithFixedDelay(this::reclaimAbandoned, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo db.maxWait milisegundos.
+     *
+     * @return Conexión exclusiva del llamador; close() la devuelve al pool
+     * @throws DatabaseException si el pool está cerrado, se agota la espera o falla la conexión
+     */
+    public Connection borrow() {
+        if (closed) {
+            throw new DatabaseException("El pool de conexiones está cerrado");
+        }
+
+        long waitStart = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            boolean acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            waiting.decrementAndGet();
+            if (!acquired) {
+                metrics.recordBorrowTimeout();
+                throw new DatabaseException("Tiempo de espera agotado (" + maxWaitMs + " ms) al obtener conexión del pool: "
+                        + active.get() + " conexiones en uso de " + maxActive);
+            }
+        } catch (InterruptedException e) {
+            waiting.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupción mientras se esperaba una conexión del pool", e);
+        }
+        metrics.recordBorrowWait(System.nanoTime() - waitStart);
+
+        // El pool pudo retirarse mientras se esperaba el permiso
+        if (closed) {
+            permits.release();
+            throw new DatabaseException("El pool de conexiones está cerrado");
+        }
+
+        try {
+            IdleConnection connection = takeIdle();
+            if (connection == null) {
+                connection = newIdleConnection(factory.create());
+            }
+            active.incrementAndGet();
+            return wrap(connection);
+        } catch (SQLException e) {
+            permits.release();
+            throw new DatabaseException("Error al crear conexión para el pool: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Toma una conexión libre descartando las que estén cerradas o no superen la validación.
+     * Las conexiones usadas dentro de la ventana de inactividad se entregan sin validar.
+     */
+    private IdleConnection takeIdle() {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate, System.nanoTime())) {
+                return candidate;
+            }
+            closeQuietly(candidate.physical);
+        }
+        return null;
+    }
+
+    /**
+     * Aplica la política de validación a una conexión libre.
+     *
+     * @return true si la conexión puede prestarse
+     */
+    private boolean isUsable(IdleConnection candidate, long now) {
+        try {
+            if (candidate.physical.isClosed()) {
+                return false;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Conexión libre descartada: " + e.getMessage(), e);
+            return false;
+        }
+
+        if (now - candidate.lastCheckedNanos < validationIdleWindowNanos) {
+            validationsSkipped.incrementAndGet();
+            return true;
+        }
+
+        validationsPerformed.incrementAndGet();
+        if (validator.isValid(candidate.physical)) {
+            candidate.lastCheckedNanos = now;
+            return true;
+        }
+        validationsFailed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Tarea periódica sobre las conexiones libres: keepalive y reposición hasta db.minIdle.
+     */
+    private void maintainIdle() {
+        if (keepaliveIntervalMs > 0) {
+            keepalive();
+        }
+        ensureMinIdle();
+    }
+
+    /**
+     * Abre conexiones libres hasta alcanzar db.minIdle, sin superar db.maxActive conexiones
+     * físicas entre libres y prestadas. Cada apertura reserva un permiso, igual que un préstamo,
+     * para no competir con los préstamos que están abriendo su propia conexión; si no queda
+     * ninguno o hay préstamos esperando, la reposición se deja para la siguiente pasada.
+     * Un fallo se registra y se reintenta en la siguiente pasada.
+     */
+    private void ensureMinIdle() {
+        while (!closed && idle.size() < minIdle) {
+            if (permits.hasQueuedThreads() || !permits.tryAcquire()) {
+                return;
+            }
+            try {
+                // Permisos ocupados (incluido el propio): préstamos activos o abriendo conexión
+                int held = maxActive - permits.availablePermits();
+                if (idle.size() + held > maxActive) {
+                    return;
+                }
+                idle.offerLast(newIdleConnection(factory.create()));
+                if (closed) {
+                    // close() pudo vaciar la cola mientras se abría la conexión
+                    IdleConnection candidate;
+                    while ((candidate = idle.pollFirst()) != null) {
+                        closeQuietly(candidate.physical);
+                    }
+                }
+            } catch (SQLException | DatabaseException e) {
+                logger.log(Level.FINE, "No se pudo reponer el mínimo de conexiones libres: " + e.getMessage(), e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Valida en segundo plano las conexiones libres que superan la ventana de inactividad,
+     * para que el servidor no las cierre por inactividad y el préstamo no tenga que validarlas.
+     * Recorre una copia de la cola: las conexiones revalidadas vuelven al final y no deben
+     * visitarse otra vez en la misma pasada.
+     */
+    private void keepalive() {
+        long now = System.nanoTime();
+        for (IdleConnection candidate : new ArrayList<>(idle)) {
+            if (closed) {
+                return;
+            }
+            // remove() garantiza que ningún préstamo concurrente se lleve la misma conexión
+            if (now - candidate.lastCheckedNanos < validationIdleWindowNanos || !idle.remove(candidate)) {
+                continue;
+            }
+            if (isUsable(candidate, now) && !closed && idle.size() < maxIdle) {
+                idle.offerLast(candidate);
+            } else {
+                closeQuietly(candidate.physical);
+            }
+        }
+    }
+
+    /**
+     * Prepara por adelantado, en un hilo en segundo plano, las sentencias indicadas
+     * en las cachés de todas las conexiones libres.
+     *
+     * @param statements SQL de las primeras pantallas
+     */
+    public void warmUpStatements(Collection<String> statements) {
+        if (statementCacheSize == 0 || statements.isEmpty()) {
+            return;
+        }
+        Thread warmer = new Thread(() -> {
+            int prepared = 0;
+            // Sobre una copia: las conexiones precalentadas vuelven al final de la cola
+            for (IdleConnection candidate : new ArrayList<>(idle)) {
+                if (closed) {
+                    return;
+                }
+                // Igual que en keepalive: sacarla de la cola para que nadie la tome a la vez
+                if (!idle.remove(candidate)) {
+                    continue;
+                }
+                try {
+                    prepared += candidate.statements.warmUp(statements);
+                } finally {
+                    if (!closed) {
+                        idle.offerLast(candidate);
+                    } else {
+                        closeQuietly(candidate.physical);
+                    }
+                }
+            }
+            logger.info("Caché de sentencias precalentada: " + prepared + " sentencias preparadas");
+        }, "kilombo-statement-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    /**
+     * Excluye un préstamo de la reclamación de conexiones abandonadas, para recorridos que
+     * legítimamente retienen la conexión más de db.removeAbandonedTimeout (exportaciones en streaming).
+     * El plazo de drenaje al retirar el pool se sigue aplicando.
+     *
+     * @param connection Conexión obtenida de un pool; otras conexiones se ignoran
+     * @return true si la conexión es un préstamo del pool y quedó excluida
+     */
+    public static boolean exemptFromAbandonedReclaim(Connection connection) {
+        if (connection == null || !Proxy.isProxyClass(connection.getClass())) {
+            return false;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(connection);
+        if (!(handler instanceof LeasedConnectionHandler)) {
+            return false;
+        }
+        ((LeasedConnectionHandler) handler).reclaimExempt = true;
+        return true;
+    }
+
+    /**
+     * Reclama las conexiones prestadas durante más de db.removeAbandonedTimeout, salvo las excluidas.
+     * La conexión física se cierra (abortando cualquier consulta en curso) y su permiso
+     * vuelve al pool; el proxy del llamador queda inservible.
+     */
+    private void reclaimAbandoned() {
+        long now = System.nanoTime();
+        for (LeasedConnectionHandler lease : leases) {
+            if (lease.reclaimExempt || now - lease.borrowedAtNanos < removeAbandonedTimeoutNanos
+                    || !lease.revoke("La conexión fue reclamada por el pool al superar db.removeAbandonedTimeout")) {
+                continue;
+            }
+
+            abandonedReclaimed.incrementAndGet();
+            long heldSeconds = TimeUnit.NANOSECONDS.toSeconds(now - lease.borrowedAtNanos);
+            String message = "Conexión abandonada reclamada tras " + heldSeconds + " s, prestada al hilo '"
+                    + lease.borrowerThread + "' desde " + lease.callSite();
+            if (logAbandoned) {
+                logger.log(Level.WARNING, message, lease.borrowTrace);
+            } else {
+                logger.warning(message);
+            }
+
+            discard(lease);
+        }
+    }
+
+    /**
+     * Saca del pool una conexión prestada sin reutilizarla.
+     */
+    private void discard(LeasedConnectionHandler lease) {
+        leases.remove(lease);
+        active.decrementAndGet();
+        try {
+            closeQuietly(lease.physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Devuelve una conexión física al pool, restaurando su estado por defecto.
+     * Si sobran conexiones libres o el pool está cerrado, se cierra físicamente.
+     */
+    private void release(LeasedConnectionHandler lease) {
+        Connection physical = lease.physical;
+        StatementCache statements = lease.statements;
+        leases.remove(lease);
+        active.decrementAndGet();
+        try {
+            boolean reusable = !closed && !physical.isClosed() && resetState(physical);
+            if (reusable && idle.size() < maxIdle) {
+                if (statements != null) {
+                    statements.releaseAbandoned();
+                }
+                idle.offerFirst(new IdleConnection(physical, statements));
+            } else {
+                closeQuietly(physical);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Conexión descartada al devolverla al pool: " + e.getMessage(), e);
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+            if (draining && active.get() == 0) {
+                logger.info("Pool retirado drenado: todas las conexiones en uso se han devuelto");
+            }
+        }
+    }
+
+    /**
+     * Deshace cualquier transacción pendiente y restaura autocommit y modo de solo lectura.
+     *
+     * @return true si la conexión quedó en estado reutilizable
+     */
+    private boolean resetState(Connection physical) {
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "No se pudo restaurar el estado de la conexión devuelta: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Envuelve la conexión física en un proxy cuyo close() la devuelve al pool.
+     */
+    private Connection wrap(IdleConnection connection) {
+        LeasedConnectionHandler lease = new LeasedConnectionHandler(connection.physical, connection.statements);
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                lease);
+    }
+
+    /**
+     * Cierra el pool: las conexiones libres se cierran ya y las prestadas al devolverse.
+     */
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (maintenanceExecutor != null) {
+                maintenanceExecutor.shutdownNow();
+            }
+        }
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            closeQuietly(candidate.physical);
+        }
+        logger.info("Pool de conexiones cerrado (" + active.get() + " conexiones aún en uso se cerrarán al devolverse)");
+    }
+
+    /**
+     * Retira el pool sin interrumpir el trabajo en curso: deja de prestar conexiones y cierra
+     * las libres, pero las prestadas siguen funcionando hasta devolverse. Las que sigan en uso
+     * al cumplirse el plazo se cierran a la fuerza.
+     *
+     * @param timeoutMs Plazo máximo en milisegundos para que se devuelvan las conexiones en uso
+     */
+    public void drain(long timeoutMs) {
+        draining = true;
+        close();
+        if (active.get() == 0) {
+            return;
+        }
+
+        logger.info("Drenando pool retirado: " + active.get() + " conexiones en uso, plazo " + timeoutMs + " ms");
+        ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kilombo-pool-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.schedule(() -> {
+            forceCloseLeases("La conexión se cerró al retirar el pool tras cambiar la configuración");
+            drainer.shutdown();
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cierra a la fuerza todas las conexiones prestadas que aún no se han devuelto.
+     */
+    private void forceCloseLeases(String reason) {
+        int forced = 0;
+        for (LeasedConnectionHandler lease : leases) {
+            if (lease.revoke(reason)) {
+                logger.warning("Conexión cerrada al vencer el plazo de drenaje, prestada al hilo '"
+                        + lease.borrowerThread + "' desde " + lease.callSite());
+                discard(lease);
+                forced++;
+            }
+        }
+        if (forced > 0) {
+            logger.warning("Plazo de drenaje vencido: " + forced + " conexiones en uso cerradas a la fuerza");
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return true si el pool está retirado pero aún tiene conexiones en uso
+     */
+    public boolean isDraining() {
+        return draining && active.get() > 0;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    @Override
+    public int getMaxActive() {
+        return maxActive;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public long getValidationIdleWindowMs() {
+        return TimeUnit.NANOSECONDS.toMillis(validationIdleWindowNanos);
+    }
+
+    /**
+     * @return Validaciones ejecutadas contra el servidor (préstamos y keepalive)
+     */
+    public long getValidationsPerformed() {
+        return validationsPerformed.get();
+    }
+
+    /**
+     * @return Validaciones evitadas por estar la conexión dentro de la ventana de inactividad
+     */
+    public long getValidationsSkipped() {
+        return validationsSkipped.get();
+    }
+
+    /**
+     * @return Validaciones que descartaron una conexión
+     */
+    public long getValidationsFailed() {
+        return validationsFailed.get();
+    }
+
+    /**
+     * @return Conexiones reclamadas por superar db.removeAbandonedTimeout
+     */
+    public long getAbandonedReclaimed() {
+        return abandonedReclaimed.get();
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return statementStatistics.getHits();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return statementStatistics.getMisses();
+    }
+
+    /**
+     * @return Sentencias expulsadas por superar db.statementCacheSize
+     */
+    public long getStatementCacheEvictions() {
+        return statementStatistics.getEvictions();
+    }
+
+    /**
+     * Crea el registro de una conexión física nueva con su caché de sentencias (si está activa).
+     */
+    private IdleConnection newIdleConnection(Connection physical) {
+        StatementCache statements = statementCacheSize > 0
+                ? new StatementCache(physical, statementCacheSize, statementStatistics) : null;
+        return new IdleConnection(physical, statements);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error al cerrar conexión física: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Conexión libre junto con su caché de sentencias y el instante de su último uso o validación.
+     */
+    private static final class IdleConnection {
+
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastCheckedNanos;
+
+        IdleConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.lastCheckedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Localiza en la traza el punto de la capa de repositorios que pidió la conexión;
+     * si no lo hay, el primer marco ajeno al pool.
+     */
+    private static String findCallSite(StackTraceElement[] trace) {
+        for (StackTraceElement element : trace) {
+            String className = element.getClassName();
+            if (className.endsWith("RepositoryImpl") || className.endsWith(".GenericRepository")) {
+                return element.toString();
+            }
+        }
+        String poolPackage = ConnectionPool.class.getPackageName();
+        for (StackTraceElement element : trace) {
+            String className = element.getClassName();
+            if (!className.startsWith(poolPackage) && !className.startsWith("java.")
+                    && !className.startsWith("jdk.") && !className.contains("$Proxy")) {
+                return element.toString();
+            }
+        }
+        return "origen desconocido";
+    }
+
+    /**
+     * Manejador del proxy entregado a cada llamador.
+     * close() es idempotente y, tras él, cualquier otro uso falla en lugar de tocar una conexión ajena.
+     */
+    private class LeasedConnectionHandler implements InvocationHandler {
+
+        private final Connection physical;
+        // Caché de sentencias de la conexión física; null si db.statementCacheSize es 0
+        private final StatementCache statements;
+        private final long borrowedAtNanos = System.nanoTime();
+        private final String borrowerThread = Thread.currentThread().getName();
+        // Traza del préstamo, solo si db.logAbandoned para no pagar su coste en cada préstamo
+        private final Throwable borrowTrace;
+        private volatile boolean returned = false;
+        // Préstamo excluido de la reclamación de abandonadas (recorridos en streaming)
+        private volatile boolean reclaimExempt = false;
+        // Motivo por el que el pool retiró la conexión al llamador; null si la devolvió él
+        private volatile String revokedReason;
+
+        LeasedConnectionHandler(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.borrowTrace = removeAbandoned && logAbandoned
+                    ? new Throwable("Conexión prestada aquí") : null;
+        }
+
+        /**
+         * Retira la conexión al llamador si aún no la devolvió.
+         *
+         * @param reason Mensaje del error que verá el llamador si sigue usándola
+         * @return true si este hilo debe descartar la conexión
+         */
+        synchronized boolean revoke(String reason) {
+            if (returned) {
+                return false;
+            }
+            returned = true;
+            revokedReason = reason;
+            return true;
+        }
+
+        String callSite() {
+            return borrowTrace != null ? findCallSite(borrowTrace.getStackTrace()) : "(active db.logAbandoned para ver el origen)";
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (revokedReason != null ? ", reclamada" : returned ? ", devuelta" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException(revokedReason != null ? revokedReason : "La conexión ya fue devuelta al pool");
+            }
+
+            if (statements != null && "prepareStatement".equals(name) && isCacheable(args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return statements.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Solo se cachean prepareStatement(String) y prepareStatement(String, int autoGeneratedKeys).
+         */
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.kilombo.crm.infrastructure.database;
+
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Lectura de las propiedades numéricas db.* de la configuración.
+ * Un valor ausente o vacío toma el valor por defecto; uno inválido, además, se registra.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class PropertyReader {
+
+    private static final Logger logger = Logger.getLogger(PropertyReader.class.getName());
+
+    private PropertyReader() {
+    }
+
+    static int readInt(Properties properties, String key, int defaultValue) {
+        return (int) readLong(properties, key, defaultValue);
+    }
+
+    static long readLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Valor inválido para " + key + ": '" + value + "', usando " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.kilombo.crm.infrastructure.database;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enrutador de lecturas hacia una réplica opcional.
+ * Las lecturas van a la réplica solo si su retraso de replicación no supera db.replica.maxLag
+ * segundos y no hubo una escritura reciente (ventana de lectura tras escritura del mismo tamaño);
+ * en cualquier otro caso, o si la réplica falla, se usa el servidor principal.
+ * El retraso se comprueba y el pool de la réplica se crea en un hilo en segundo plano cada
+ * db.replica.lagCheckInterval; hasta la primera comprobación correcta las lecturas van al principal,
+ * de modo que una réplica inalcanzable nunca bloquea a quien lee.
+ * Un servidor que no informa de estado de replicación no se considera réplica, salvo que
+ * db.replica.allowStandalone lo permita (servidores independientes de pruebas).
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = Logger.getLogger(ReplicaRouter.class.getName());
+
+    private static final long DEFAULT_MAX_LAG_S = 5;
+    private static final long DEFAULT_LAG_CHECK_INTERVAL_MS = 5000;
+    private static final long MIN_LAG_CHECK_INTERVAL_MS = 100;
+    private static final int LOGIN_TIMEOUT_S = 5;
+
+    // Consultas de estado de replicación: MySQL 8.0.22+ y, como alternativa, versiones anteriores y MariaDB
+    private static final String[][] LAG_QUERIES = {
+        {"SHOW REPLICA STATUS", "Seconds_Behind_Source"},
+        {"SHOW SLAVE STATUS", "Seconds_Behind_Master"}
+    };
+
+    /**
+     * Crea el pool de conexiones de un destino de réplica.
+     */
+    @FunctionalInterface
+    interface PoolFactory {
+        ConnectionPool create(String url, String username, String password);
+    }
+
+    private final PoolFactory poolFactory;
+    private final long maxLagSeconds;
+    private final long readAfterWriteNanos;
+    private final long lagCheckIntervalMs;
+    private final boolean allowStandalone;
+
+    private volatile String url;
+    private volatile String username;
+    private volatile String password;
+    // Se incrementa en cada cambio de destino; descarta comprobaciones del destino anterior
+    private volatile long epoch;
+    private volatile ConnectionPool pool;
+    private volatile List<String> warmupStatements = Collections.emptyList();
+    private ScheduledExecutorService checker;
+
+    // Resultado de la última comprobación de retraso
+    private volatile boolean replicaUsable = false;
+    private volatile long lastLagSeconds = -1;
+
+    private volatile long lastWriteNanos;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    /**
+     * Crea el enrutador, inicialmente sin réplica.
+     *
+     * @param properties Propiedades del pool (db.*) usadas también para el pool de la réplica
+     * @param validator Validación de conexiones libres del pool de la réplica
+     */
+    public ReplicaRouter(Properties properties, ConnectionPool.ConnectionValidator validator) {
+        this(properties, (replicaUrl, replicaUsername, replicaPassword) -> new ConnectionPool(() -> {
+            DriverManager.setLoginTimeout(LOGIN_TIMEOUT_S);
+            return DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword);
+        }, validator, properties), null);
+    }
+
+    /**
+     * Crea el enrutador con una fábrica de pools y un planificador de comprobaciones propios.
+     *
+     * @param properties Propiedades db.replica.*
+     * @param poolFactory Fábrica del pool de la réplica
+     * @param checker Planificador de las comprobaciones de retraso; null para crear uno al configurar la réplica
+     */
+    ReplicaRouter(Properties properties, PoolFactory poolFactory, ScheduledExecutorService checker) {
+        this.poolFactory = poolFactory;
+        this.checker = checker;
+        this.maxLagSeconds = Math.max(0, PropertyReader.readLong(properties, "db.replica.maxLag", DEFAULT_MAX_LAG_S));
+        this.readAfterWriteNanos = TimeUnit.SECONDS.toNanos(maxLagSeconds);
+        this.lagCheckIntervalMs = Math.max(MIN_LAG_CHECK_INTERVAL_MS,
+                PropertyReader.readLong(properties, "db.replica.lagCheckInterval", DEFAULT_LAG_CHECK_INTERVAL_MS));
+        this.allowStandalone = Boolean.parseBoolean(properties.getProperty("db.replica.allowStandalone", "false").trim());
+        this.lastWriteNanos = System.nanoTime() - readAfterWriteNanos;
+    }
+
+    /**
+     * Cambia el destino de la réplica. El pool anterior se retira con drenaje y el nuevo
+     * se crea y comprueba en segundo plano; mientras tanto las lecturas van al principal.
+     *
+     * @param replicaUrl URL de la réplica, o null para desactivarla
+     * @param replicaUsername Usuario de la réplica
+     * @param replicaPassword Contraseña de la réplica
+     * @param drainTimeoutMs Plazo de drenaje del pool anterior
+     */
+    public void configure(String replicaUrl, String replicaUsername, String replicaPassword, long drainTimeoutMs) {
+        ConnectionPool retired;
+        synchronized (this) {
+            if (Objects.equals(url, replicaUrl) && Objects.equals(username, replicaUsername)
+                    && Objects.equals(password, replicaPassword)) {
+                return;
+            }
+            url = replicaUrl;
+            username = replicaUsername;
+            password = replicaPassword;
+            epoch++;
+            retired = pool;
+            pool = null;
+            replicaUsable = false;
+            lastLagSeconds = -1;
+            if (replicaUrl != null) {
+                startChecker();
+            }
+        }
+
+        if (retired != null) {
+            retired.drain(drainTimeoutMs);
+        }
+        if (replicaUrl != null) {
+            logger.info("Réplica de lectura configurada: " + replicaUrl);
+        }
+    }
+
+    /**
+     * Indica qué sentencias se preparan al crear el pool de la réplica.
+     *
+     * @param statements SQL de las primeras pantallas
+     */
+    public void setWarmupStatements(List<String> statements) {
+        warmupStatements = statements;
+    }
+
+    /**
+     * Indica si hay una réplica configurada.
+     */
+    public boolean isEnabled() {
+        return url != null;
+    }
+
+    /**
+     * Obtiene una conexión para una lectura que tolera datos ligeramente desfasados.
+     * No abre conexiones nuevas a la réplica ni comprueba su retraso: usa el resultado
+     * de la última comprobación en segundo plano.
+     *
+     * @param primary Proveedor de conexiones del servidor principal
+     * @return Conexión a la réplica si es utilizable; en otro caso, al servidor principal
+     */
+    public Connection borrowForRead(Supplier<Connection> primary) {
+        ConnectionPool current = pool;
+        if (!isEnabled() || System.nanoTime() - lastWriteNanos < readAfterWriteNanos || !replicaUsable
+                || current == null || current.isClosed()) {
+            primaryReads.increment();
+            return primary.get();
+        }
+
+        try {
+            Connection connection = current.borrow();
+            replicaReads.increment();
+            return connection;
+        } catch (DatabaseException e) {
+            // La siguiente comprobación en segundo plano decidirá si vuelve a usarse
+            logger.log(Level.WARNING, "Réplica no disponible, leyendo del servidor principal: " + e.getMessage(), e);
+            replicaUsable = false;
+            primaryReads.increment();
+            return primary.get();
+        }
+    }
+
+    /**
+     * Registra una escritura en el servidor principal: durante db.replica.maxLag segundos
+     * las lecturas irán al principal para que quien escribió vea sus propios cambios.
+     */
+    public void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Cierra el pool de la réplica; la siguiente comprobación en segundo plano lo recreará.
+     */
+    public void close() {
+        ConnectionPool current;
+        synchronized (this) {
+            current = pool;
+            pool = null;
+            replicaUsable = false;
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Describe el estado de la réplica para la interfaz.
+     *
+     * @return Texto con destino, retraso y reparto de lecturas
+     */
+    public String getStatus() {
+        if (!isEnabled()) {
+            return "Réplica de lectura: (ninguna)";
+        }
+        return "Réplica de lectura: " + (replicaUsable ? "en uso" : "no utilizable")
+                + (lastLagSeconds >= 0 ? ", retraso " + lastLagSeconds + " s" : "")
+                + " (máx. " + maxLagSeconds + " s); lecturas réplica/principal: "
+                + replicaReads.sum() + "/" + primaryReads.sum();
+    }
+
+    /**
+     * Arranca, si no existe, la comprobación periódica en segundo plano y pide una inmediata.
+     */
+    private void startChecker() {
+        if (checker == null) {
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kilombo-replica-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checker.scheduleWithFixedDelay(this::refresh, lagCheckIntervalMs, lagCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        checker.execute(this::refresh);
+    }
+
+    /**
+     * Crea el pool de la réplica si hace falta y comprueba su retraso. Se ejecuta en el hilo
+     * de comprobación; el resultado se descarta si el destino cambió mientras tanto.
+     */
+    void refresh() {
+        long checkEpoch = epoch;
+        String targetUrl = url;
+        if (targetUrl == null) {
+            return;
+        }
+        try {
+            ConnectionPool current = pool;
+            if (current == null || current.isClosed()) {
+                current = createPool(targetUrl, username, password);
+                synchronized (this) {
+                    if (checkEpoch != epoch) {
+                        current.close();
+                        return;
+                    }
+                    pool = current;
+                }
+            }
+            boolean usable = checkLag(current);
+            if (checkEpoch == epoch) {
+                replicaUsable = usable;
+            }
+        } catch (DatabaseException e) {
+            logger.log(Level.WARNING, "No se pudo conectar con la réplica: " + e.getMessage(), e);
+            if (checkEpoch == epoch) {
+                replicaUsable = false;
+                lastLagSeconds = -1;
+            }
+        } catch (RuntimeException e) {
+            // Un fallo inesperado no debe cancelar las comprobaciones siguientes
+            logger.log(Level.SEVERE, "Error al comprobar la réplica: " + e.getMessage(), e);
+            replicaUsable = false;
+        }
+    }
+
+    private ConnectionPool createPool(String targetUrl, String targetUsername, String targetPassword) {
+        ConnectionPool created = poolFactory.create(targetUrl, targetUsername, targetPassword);
+        try {
+            created.prefill();
+        } catch (DatabaseException e) {
+            created.close();
+            throw e;
+        }
+        created.warmUpStatements(warmupStatements);
+        return created;
+    }
+
+    private boolean checkLag(ConnectionPool current) {
+        try (Connection connection = current.borrow();
+             Statement stmt = connection.createStatement()) {
+            Long lag = readLagSeconds(stmt);
+            if (lag == null) {
+                logger.warning("La réplica no está replicando o no informa de su estado (retraso desconocido); "
+                        + "las lecturas irán al servidor principal");
+                lastLagSeconds = -1;
+                return false;
+            }
+            lastLagSeconds = lag;
+            if (lag > maxLagSeconds) {
+                logger.warning("Retraso de la réplica (" + lag + " s) superior a db.replica.maxLag (" + maxLagSeconds
+                        + " s); las lecturas irán al servidor principal");
+                return false;
+            }
+            return true;
+        } catch (SQLException | DatabaseException e) {
+            logger.log(Level.WARNING, "No se pudo comprobar el retraso de la réplica: " + e.getMessage(), e);
+            lastLagSeconds = -1;
+            return false;
+        }
+    }
+
+    /**
+     * Lee el retraso de replicación en segundos.
+     *
+     * @return Retraso; null si la replicación está detenida o el servidor no es una réplica
+     *         (0 en este último caso si db.replica.allowStandalone está activo)
+     */
+    private Long readLagSeconds(Statement stmt) throws SQLException {
+        SQLException lastError = null;
+        for (String[] query : LAG_QUERIES) {
+            try (ResultSet rs = stmt.executeQuery(query[0])) {
+                if (!rs.next()) {
+                    return allowStandalone ? 0L : null;
+                }
+                long lag = rs.getLong(query[1]);
+                return rs.wasNull() ? null : lag;
+            } catch (SQLException e) {
+                lastError = e;
+            }
+        }
+        throw lastError;
+    }
+}
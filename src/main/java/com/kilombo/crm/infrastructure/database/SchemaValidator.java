@@ -0,0 +1,226 @@
+package com.kilombo.crm.infrastructure.database;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Validador del esquema de la base de datos con caché por época de configuración.
+ * La estructura de tablas se valida una sola vez por combinación URL/usuario;
+ * las comprobaciones de integridad (COUNT(*) completos) se ejecutan en segundo plano
+ * para no penalizar a quien pidió la conexión.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class SchemaValidator {
+
+    private static final Logger logger = Logger.getLogger(SchemaValidator.class.getName());
+
+    private final int queryTimeoutSeconds;
+
+    // Clave (URL|usuario) del último esquema validado; null obliga a validar de nuevo
+    private volatile String validatedKey;
+    private volatile String lastIntegrityReport = "Integridad referencial aún no comprobada";
+
+    private final ExecutorService integrityExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kilombo-schema-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor del validador.
+     *
+     * @param queryTimeoutSeconds Timeout de las consultas de validación en segundos
+     */
+    public SchemaValidator(int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    /**
+     * Valida la estructura del esquema si aún no se ha hecho para la clave indicada.
+     * Tras la primera validación de una época programa la comprobación de integridad en segundo plano.
+     *
+     * @param connection Conexión recién establecida
+     * @param key Clave de la configuración (URL y usuario)
+     * @param connectionSupplier Proveedor de conexiones para la comprobación en segundo plano
+     * @throws DatabaseException si el esquema no es correcto
+     */
+    public void ensureValidated(Connection connection, String key, Supplier<Connection> connectionSupplier) {
+        if (key.equals(validatedKey)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (key.equals(validatedKey)) {
+                return;
+            }
+            validateStructure(connection);
+            validatedKey = key;
+        }
+
+        scheduleIntegrityCheck(connectionSupplier);
+    }
+
+    /**
+     * Descarta la validación en caché; la siguiente conexión física volverá a validar.
+     */
+    public void invalidate() {
+        validatedKey = null;
+    }
+
+    /**
+     * Fuerza una validación completa (estructura e integridad) de forma síncrona.
+     *
+     * @param connection Conexión a usar
+     * @param key Clave de la configuración (URL y usuario)
+     * @return Informe de la comprobación de integridad
+     * @throws DatabaseException si el esquema no es correcto
+     */
+    public String revalidate(Connection connection, String key) {
+        synchronized (this) {
+            validatedKey = null;
+            validateStructure(connection);
+            validatedKey = key;
+        }
+        return checkIntegrity(connection);
+    }
+
+    /**
+     * Indica si hay una validación vigente para la clave indicada.
+     *
+     * @param key Clave de la configuración
+     * @return true si el esquema ya está validado para esa clave
+     */
+    public boolean isValidated(String key) {
+        return key.equals(validatedKey);
+    }
+
+    /**
+     * Obtiene el resultado de la última comprobación de integridad.
+     *
+     * @return Informe legible de la última comprobación
+     */
+    public String getLastIntegrityReport() {
+        return lastIntegrityReport;
+    }
+
+    /**
+     * Verifica que las tablas existen y tienen las columnas esperadas.
+     *
+     * @throws DatabaseException si la validación falla
+     */
+    private void validateStructure(Connection connection) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setQueryTimeout(queryTimeoutSeconds);
+
+            validateTableStructure(stmt, "clientes", "id", "nombre", "apellido", "email", "telefono");
+            validateTableStructure(stmt, "pedidos", "id", "id_cliente", "fecha", "total");
+
+            logger.info("Esquema de base de datos validado correctamente");
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al validar esquema de BD: " + e.getMessage(), e);
+            throw new DatabaseException(
+                "La base de datos no tiene el esquema correcto o está corrupta: " + e.getMessage(), e
+            );
+        }
+    }
+
+    /**
+     * Valida que una tabla tiene las columnas esperadas.
+     *
+     * @param stmt Statement para ejecutar consultas
+     * @param tableName Nombre de la tabla
+     * @param expectedColumns Columnas esperadas
+     * @throws SQLException si la validación falla
+     */
+    private void validateTableStructure(Statement stmt, String tableName, String... expectedColumns) throws SQLException {
+        // En MySQL, verificamos la estructura consultando INFORMATION_SCHEMA
+        String query = "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+                       "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + tableName + "' ORDER BY ORDINAL_POSITION";
+
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            Set<String> actualColumns = new HashSet<>();
+            while (rs.next()) {
+                actualColumns.add(rs.getString(1).toLowerCase());
+            }
+
+            for (String expected : expectedColumns) {
+                if (!actualColumns.contains(expected.toLowerCase())) {
+                    throw new SQLException("Columna '" + expected + "' no encontrada en tabla '" + tableName + "'");
+                }
+            }
+
+            logger.fine("Estructura de tabla '" + tableName + "' validada correctamente");
+        }
+    }
+
+    /**
+     * Programa la comprobación de integridad en el hilo de fondo.
+     */
+    private void scheduleIntegrityCheck(Supplier<Connection> connectionSupplier) {
+        integrityExecutor.execute(() -> {
+            try (Connection connection = connectionSupplier.get()) {
+                checkIntegrity(connection);
+            } catch (SQLException | DatabaseException e) {
+                logger.log(Level.WARNING, "No se pudo completar la comprobación de integridad en segundo plano: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Comprueba la integridad referencial básica entre tablas.
+     * No lanza excepción ante datos inconsistentes, solo advierte.
+     *
+     * @return Informe de la comprobación
+     */
+    private String checkIntegrity(Connection connection) {
+        StringBuilder report = new StringBuilder();
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setQueryTimeout(queryTimeoutSeconds);
+
+            // Verificar que no hay pedidos huérfanos (sin cliente)
+            String orphanQuery = "SELECT COUNT(*) FROM pedidos p LEFT JOIN clientes c ON p.id_cliente = c.id WHERE c.id IS NULL";
+            try (ResultSet rs = stmt.executeQuery(orphanQuery)) {
+                int orphanCount = rs.next() ? rs.getInt(1) : 0;
+                if (orphanCount > 0) {
+                    logger.warning("Encontrados " + orphanCount + " pedidos huérfanos (sin cliente asociado)");
+                }
+                report.append("Pedidos huérfanos: ").append(orphanCount).append("\n");
+            }
+
+            // Verificar que los datos básicos son consistentes
+            String consistencyQuery = "SELECT COUNT(*) FROM clientes WHERE nombre IS NULL OR nombre = ''";
+            try (ResultSet rs = stmt.executeQuery(consistencyQuery)) {
+                int invalidCount = rs.next() ? rs.getInt(1) : 0;
+                if (invalidCount > 0) {
+                    logger.warning("Encontrados " + invalidCount + " clientes con nombre inválido");
+                }
+                report.append("Clientes con nombre inválido: ").append(invalidCount);
+            }
+
+            logger.fine("Integridad referencial validada");
+
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error al comprobar integridad referencial: " + e.getMessage(), e);
+            report.setLength(0);
+            report.append("Error al comprobar integridad: ").append(e.getMessage());
+        }
+
+        lastIntegrityReport = report.toString();
+        return lastIntegrityReport;
+    }
+}
@@ -0,0 +1,275 @@
+package com.kilombo.crm.infrastructure.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física del pool.
+ * Con useServerPrepStmts=true el servidor compila cada sentencia una sola vez por conexión:
+ * close() sobre la sentencia entregada la devuelve a la caché en lugar de liberarla en el servidor.
+ * Solo se cachean prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys); si la misma
+ * sentencia ya está en uso en la conexión se entrega una sin cachear.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class StatementCache {
+
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    /**
+     * Contadores compartidos por todas las cachés de un pool.
+     */
+    static final class Statistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        long getHits() {
+            return hits.sum();
+        }
+
+        long getMisses() {
+            return misses.sum();
+        }
+
+        long getEvictions() {
+            return evictions.sum();
+        }
+    }
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Statistics statistics;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * @param physical Conexión física propietaria de las sentencias
+     * @param maxSize Máximo de sentencias retenidas (db.statementCacheSize)
+     * @param statistics Contadores del pool
+     */
+    StatementCache(Connection physical, int maxSize, Statistics statistics) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.statistics = statistics;
+        // Orden de acceso: la primera entrada es la menos usada recientemente
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Prepara una sentencia reutilizando la cacheada si está libre.
+     *
+     * @param owner Conexión que verá el llamador en {@link PreparedStatement#getConnection()}
+     * @param sql Texto SQL
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} o {@link Statement#NO_GENERATED_KEYS}
+     * @return Sentencia cuyo close() la devuelve a la caché
+     */
+    synchronized PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.inUse) {
+                statistics.hits.increment();
+                entry.inUse = true;
+                return entry.handOut(owner);
+            }
+            // Uso anidado de la misma sentencia: no compartir su estado
+            statistics.misses.increment();
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        statistics.misses.increment();
+        entry = new Entry(key, physical.prepareStatement(sql, autoGeneratedKeys));
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.handOut(owner);
+    }
+
+    /**
+     * Prepara por adelantado las sentencias indicadas sin entregarlas.
+     *
+     * @param statements SQL a precalentar
+     * @return Sentencias preparadas nuevas
+     */
+    synchronized int warmUp(Iterable<String> statements) {
+        int prepared = 0;
+        for (String sql : statements) {
+            String key = Statement.NO_GENERATED_KEYS + ":" + sql;
+            if (entries.containsKey(key)) {
+                continue;
+            }
+            if (entries.size() >= maxSize) {
+                break;
+            }
+            try {
+                entries.put(key, new Entry(key, physical.prepareStatement(sql, Statement.NO_GENERATED_KEYS)));
+                prepared++;
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "No se pudo precalentar la sentencia '" + sql + "': " + e.getMessage(), e);
+            }
+        }
+        return prepared;
+    }
+
+    /**
+     * Descarta las sentencias que el llamador no cerró antes de devolver la conexión,
+     * ya que su estado es desconocido.
+     */
+    synchronized void releaseAbandoned() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.inUse) {
+                iterator.remove();
+                entry.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * Expulsa las sentencias menos usadas por encima de db.statementCacheSize.
+     * Las que están en uso se cierran al devolverse.
+     */
+    private void evictOverflow() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        List<Entry> evicted = new ArrayList<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            entry.evicted = true;
+            evicted.add(entry);
+        }
+        for (Entry entry : evicted) {
+            statistics.evictions.increment();
+            if (!entry.inUse) {
+                entry.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * Devuelve a la caché la sentencia de una entrada, restaurando su estado.
+     */
+    private synchronized void giveBack(Entry entry) {
+        entry.inUse = false;
+        if (entry.evicted) {
+            entry.closePhysical();
+            return;
+        }
+        try {
+            ResultSet current = entry.statement.getResultSet();
+            if (current != null) {
+                current.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.clearWarnings();
+            entry.statement.setMaxRows(0);
+            entry.statement.setFetchSize(0);
+            entry.statement.setQueryTimeout(0);
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Sentencia descartada de la caché: " + e.getMessage(), e);
+            entries.remove(entry.key);
+            entry.closePhysical();
+        }
+    }
+
+    /**
+     * Sentencia física retenida en la caché.
+     */
+    private final class Entry {
+
+        private final String key;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        Entry(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        PreparedStatement handOut(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(this, owner));
+        }
+
+        void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Error al cerrar sentencia cacheada: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Manejador de la sentencia entregada: close() la devuelve a la caché y, tras él,
+     * cualquier otro uso falla como con una sentencia cerrada.
+     */
+    private final class CachedStatementHandler implements InvocationHandler {
+
+        private final Entry entry;
+        private final Connection owner;
+        private boolean closed = false;
+
+        CachedStatementHandler(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedPreparedStatement[" + entry.statement + (closed ? ", cerrada" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("La sentencia preparada ya fue cerrada");
+            }
+
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
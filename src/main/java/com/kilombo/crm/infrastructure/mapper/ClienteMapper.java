@@ -13,21 +13,53 @@ import java.sql.SQLException;
  * @version 1.0
  */
 public class ClienteMapper {
+
+    // Columnas leídas, en el orden de los índices devueltos por columnIndexes
+    private static final String[] COLUMNS = {"id", "nombre", "apellido", "email", "telefono"};
+    private static final int ID = 0;
+    private static final int NOMBRE = 1;
+    private static final int APELLIDO = 2;
+    private static final int EMAIL = 3;
+    private static final int TELEFONO = 4;
     
     /**
      * Convierte un ResultSet en una entidad Cliente.
+     * Para recorrer muchas filas es preferible {@link #fromResultSet(ResultSet, int[])}.
      * 
      * @param rs ResultSet con los datos del cliente
      * @return Cliente mapeado desde el ResultSet
      * @throws SQLException si ocurre un error al leer el ResultSet
      */
     public static Cliente fromResultSet(ResultSet rs) throws SQLException {
+        return fromResultSet(rs, columnIndexes(rs));
+    }
+
+    /**
+     * Resuelve una vez los índices de las columnas de cliente de un resultado.
+     *
+     * @param rs ResultSet a recorrer
+     * @return Índices para {@link #fromResultSet(ResultSet, int[])}
+     * @throws SQLException si falta alguna columna
+     */
+    public static int[] columnIndexes(ResultSet rs) throws SQLException {
+        return ColumnIndexes.resolve(rs, COLUMNS);
+    }
+
+    /**
+     * Convierte la fila actual en una entidad Cliente leyendo las columnas por índice.
+     *
+     * @param rs ResultSet con los datos del cliente
+     * @param columns Índices obtenidos con {@link #columnIndexes(ResultSet)} para este ResultSet
+     * @return Cliente mapeado desde el ResultSet
+     * @throws SQLException si ocurre un error al leer el ResultSet
+     */
+    public static Cliente fromResultSet(ResultSet rs, int[] columns) throws SQLException {
         Cliente cliente = new Cliente();
-        cliente.setId(rs.getInt("id"));
-        cliente.setNombre(rs.getString("nombre"));
-        cliente.setApellido(rs.getString("apellido"));
-        cliente.setEmail(rs.getString("email"));
-        cliente.setTelefono(rs.getString("telefono"));
+        cliente.setId(rs.getInt(columns[ID]));
+        cliente.setNombre(rs.getString(columns[NOMBRE]));
+        cliente.setApellido(rs.getString(columns[APELLIDO]));
+        cliente.setEmail(rs.getString(columns[EMAIL]));
+        cliente.setTelefono(rs.getString(columns[TELEFONO]));
         return cliente;
     }
     
@@ -0,0 +1,46 @@
+package com.kilombo.crm.infrastructure.mapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Resolución de índices de columna a partir de los metadatos de un ResultSet.
+ * Se hace una vez por resultado; después cada fila se lee por índice, sin la búsqueda
+ * de la etiqueta (insensible a mayúsculas) que hace el driver en cada getXxx(String).
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class ColumnIndexes {
+
+    private ColumnIndexes() {
+    }
+
+    /**
+     * Obtiene el índice de cada etiqueta. Si una etiqueta se repite en el resultado
+     * se toma la primera aparición, igual que {@link ResultSet#findColumn(String)}.
+     *
+     * @param rs ResultSet cuyas columnas se buscan
+     * @param labels Etiquetas de columna
+     * @return Índices (1-based) en el mismo orden que las etiquetas
+     * @throws SQLException si falta alguna columna o no se pueden leer los metadatos
+     */
+    public static int[] resolve(ResultSet rs, String... labels) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        int[] indexes = new int[labels.length];
+
+        for (int i = 0; i < labels.length; i++) {
+            for (int column = 1; column <= columnCount && indexes[i] == 0; column++) {
+                if (labels[i].equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                    indexes[i] = column;
+                }
+            }
+            if (indexes[i] == 0) {
+                throw new SQLException("Columna no encontrada en el resultado: " + labels[i]);
+            }
+        }
+        return indexes;
+    }
+}
@@ -15,25 +15,69 @@ import java.sql.SQLException;
  */
 public class DetallePedidoMapper {
 
+    // Columnas leídas, en el orden de los índices devueltos por columnIndexes
+    private static final String[] COLUMNS = {"id", "id_pedido", "tipo_producto", "descripcion", "cantidad",
+            "costo_unitario", "precio_unitario", "subtotal", "ganancia_bruta"};
+    private static final int ID = 0;
+    private static final int ID_PEDIDO = 1;
+    private static final int TIPO_PRODUCTO = 2;
+    private static final int DESCRIPCION = 3;
+    private static final int CANTIDAD = 4;
+    private static final int COSTO_UNITARIO = 5;
+    private static final int PRECIO_UNITARIO = 6;
+    private static final int SUBTOTAL = 7;
+    private static final int GANANCIA_BRUTA = 8;
+
     /**
      * Mapea un ResultSet a un objeto DetallePedido.
+     * Para recorrer muchas filas es preferible {@link #fromResultSet(ResultSet, int[])}.
      *
      * @param rs ResultSet con los datos del detalle de pedido
      * @return DetallePedido mapeado, o null si hay error
      * @throws SQLException si ocurre un error al acceder al ResultSet
      */
     public static DetallePedido fromResultSet(ResultSet rs) throws SQLException {
+        int[] columns;
+        try {
+            columns = columnIndexes(rs);
+        } catch (SQLException e) {
+            System.err.println("Error mapeando DetallePedido desde ResultSet: " + e.getMessage());
+            return null;
+        }
+        return fromResultSet(rs, columns);
+    }
+
+    /**
+     * Resuelve una vez los índices de las columnas de detalle de un resultado.
+     *
+     * @param rs ResultSet a recorrer
+     * @return Índices para {@link #fromResultSet(ResultSet, int[])}
+     * @throws SQLException si falta alguna columna
+     */
+    public static int[] columnIndexes(ResultSet rs) throws SQLException {
+        return ColumnIndexes.resolve(rs, COLUMNS);
+    }
+
+    /**
+     * Mapea la fila actual a un objeto DetallePedido leyendo las columnas por índice.
+     *
+     * @param rs ResultSet con los datos del detalle de pedido
+     * @param columns Índices obtenidos con {@link #columnIndexes(ResultSet)} para este ResultSet
+     * @return DetallePedido mapeado, o null si hay error
+     * @throws SQLException si ocurre un error al acceder al ResultSet
+     */
+    public static DetallePedido fromResultSet(ResultSet rs, int[] columns) throws SQLException {
         try {
             DetallePedido detalle = new DetallePedido();
-            detalle.setId(rs.getInt("id"));
-            detalle.setIdPedido(rs.getInt("id_pedido"));
-            detalle.setTipoProducto(rs.getString("tipo_producto"));
-            detalle.setDescripcion(rs.getString("descripcion"));
-            detalle.setCantidad(rs.getInt("cantidad"));
-            detalle.setCostoUnitario(rs.getBigDecimal("costo_unitario"));
-            detalle.setPrecioUnitario(rs.getBigDecimal("precio_unitario"));
-            detalle.setSubtotal(rs.getBigDecimal("subtotal"));
-            detalle.setGananciaBruta(rs.getBigDecimal("ganancia_bruta"));
+            detalle.setId(rs.getInt(columns[ID]));
+            detalle.setIdPedido(rs.getInt(columns[ID_PEDIDO]));
+            detalle.setTipoProducto(rs.getString(columns[TIPO_PRODUCTO]));
+            detalle.setDescripcion(rs.getString(columns[DESCRIPCION]));
+            detalle.setCantidad(rs.getInt(columns[CANTIDAD]));
+            detalle.setCostoUnitario(rs.getBigDecimal(columns[COSTO_UNITARIO]));
+            detalle.setPrecioUnitario(rs.getBigDecimal(columns[PRECIO_UNITARIO]));
+            detalle.setSubtotal(rs.getBigDecimal(columns[SUBTOTAL]));
+            detalle.setGananciaBruta(rs.getBigDecimal(columns[GANANCIA_BRUTA]));
             return detalle;
         } catch (SQLException e) {
             // Log del error y retorno de null para manejo en capas superiores
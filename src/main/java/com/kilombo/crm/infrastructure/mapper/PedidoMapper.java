@@ -14,26 +14,57 @@ import java.sql.SQLException;
  * @version 1.0
  */
 public class PedidoMapper {
+
+    // Columnas leídas, en el orden de los índices devueltos por columnIndexes
+    private static final String[] COLUMNS = {"id", "id_cliente", "fecha", "total"};
+    private static final int ID = 0;
+    private static final int ID_CLIENTE = 1;
+    private static final int FECHA = 2;
+    private static final int TOTAL = 3;
     
     /**
      * Convierte un ResultSet en una entidad Pedido.
+     * Para recorrer muchas filas es preferible {@link #fromResultSet(ResultSet, int[])}.
      * 
      * @param rs ResultSet con los datos del pedido
      * @return Pedido mapeado desde el ResultSet
      * @throws SQLException si ocurre un error al leer el ResultSet
      */
     public static Pedido fromResultSet(ResultSet rs) throws SQLException {
+        return fromResultSet(rs, columnIndexes(rs));
+    }
+
+    /**
+     * Resuelve una vez los índices de las columnas de pedido de un resultado.
+     *
+     * @param rs ResultSet a recorrer
+     * @return Índices para {@link #fromResultSet(ResultSet, int[])}
+     * @throws SQLException si falta alguna columna
+     */
+    public static int[] columnIndexes(ResultSet rs) throws SQLException {
+        return ColumnIndexes.resolve(rs, COLUMNS);
+    }
+
+    /**
+     * Convierte la fila actual en una entidad Pedido leyendo las columnas por índice.
+     *
+     * @param rs ResultSet con los datos del pedido
+     * @param columns Índices obtenidos con {@link #columnIndexes(ResultSet)} para este ResultSet
+     * @return Pedido mapeado desde el ResultSet
+     * @throws SQLException si ocurre un error al leer el ResultSet
+     */
+    public static Pedido fromResultSet(ResultSet rs, int[] columns) throws SQLException {
         Pedido pedido = new Pedido();
-        pedido.setId(rs.getInt("id"));
-        pedido.setIdCliente(rs.getInt("id_cliente"));
+        pedido.setId(rs.getInt(columns[ID]));
+        pedido.setIdCliente(rs.getInt(columns[ID_CLIENTE]));
         
         // Convertir java.sql.Date a java.time.LocalDate
-        Date sqlDate = rs.getDate("fecha");
+        Date sqlDate = rs.getDate(columns[FECHA]);
         if (sqlDate != null) {
             pedido.setFecha(sqlDate.toLocalDate());
         }
         
-        pedido.setTotal(rs.getDouble("total"));
+        pedido.setTotal(rs.getDouble(columns[TOTAL]));
         return pedido;
     }
     
@@ -0,0 +1,324 @@
+package com.kilombo.crm.infrastructure.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de acceso a base de datos: estado del pool, espera al pedir conexión
+ * y latencia por método de repositorio.
+ * Todos los registros usan contadores sin bloqueos para no penalizar las consultas.
+ * Los mismos datos se publican por JMX bajo el dominio {@code com.kilombo.crm}.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class DatabaseMetrics implements DatabaseMetricsMXBean {
+
+    private static final Logger logger = Logger.getLogger(DatabaseMetrics.class.getName());
+    private static final String JMX_DOMAIN = "com.kilombo.crm";
+
+    private static DatabaseMetrics instance;
+
+    /**
+     * Estado instantáneo de un pool de conexiones.
+     */
+    public interface PoolStatistics {
+        int getActiveCount();
+
+        int getIdleCount();
+
+        int getWaitingCount();
+
+        int getMaxActive();
+
+        long getStatementCacheHits();
+
+        long getStatementCacheMisses();
+    }
+
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final Map<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+    private volatile Supplier<? extends PoolStatistics> poolSupplier = () -> null;
+
+    private DatabaseMetrics() {
+        registerMBean(this, DatabaseMetricsMXBean.class, "type=DatabaseMetrics");
+    }
+
+    /**
+     * Obtiene la instancia única de las métricas (Singleton).
+     *
+     * @return Instancia de DatabaseMetrics
+     */
+    public static DatabaseMetrics getInstance() {
+        if (instance == null) {
+            synchronized (DatabaseMetrics.class) {
+                if (instance == null) {
+                    instance = new DatabaseMetrics();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica de dónde leer el estado del pool vigente (el pool se recrea al cambiar la configuración).
+     *
+     * @param supplier Proveedor del pool actual; puede devolver null si no hay pool
+     */
+    public void bindPool(Supplier<? extends PoolStatistics> supplier) {
+        this.poolSupplier = supplier;
+    }
+
+    /**
+     * Registra el tiempo que un llamador esperó para obtener conexión.
+     *
+     * @param nanos Espera en nanosegundos
+     */
+    public void recordBorrowWait(long nanos) {
+        borrowWait.record(nanos);
+    }
+
+    /**
+     * Registra un préstamo que agotó db.maxWait sin obtener conexión.
+     */
+    public void recordBorrowTimeout() {
+        borrowTimeouts.increment();
+    }
+
+    /**
+     * Registra la duración de una llamada a un método de repositorio.
+     *
+     * @param method Nombre con la forma Repositorio.método
+     * @param nanos Duración en nanosegundos
+     * @param failed true si la llamada terminó con excepción
+     */
+    public void recordMethod(String method, long nanos, boolean failed) {
+        MethodMetrics metrics = methodMetrics.get(method);
+        if (metrics == null) {
+            metrics = methodMetrics.computeIfAbsent(method, this::createMethodMetrics);
+        }
+        metrics.latency.record(nanos);
+        if (failed) {
+            metrics.errors.increment();
+        }
+    }
+
+    /**
+     * Envuelve un repositorio para medir la latencia de cada método de su interfaz.
+     *
+     * @param repositoryInterface Interfaz del repositorio
+     * @param repository Implementación a medir
+     * @param <T> Tipo de la interfaz
+     * @return Repositorio instrumentado
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(Class<T> repositoryInterface, T repository) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        return (T) Proxy.newProxyInstance(
+                repositoryInterface.getClassLoader(),
+                new Class<?>[]{repositoryInterface},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(repository, args);
+                    }
+                    long start = System.nanoTime();
+                    boolean failed = false;
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException e) {
+                        failed = true;
+                        throw e.getCause();
+                    } finally {
+                        recordMethod(prefix + method.getName(), System.nanoTime() - start, failed);
+                    }
+                });
+    }
+
+    /**
+     * Genera un resumen legible de todas las métricas para mostrar en la interfaz.
+     *
+     * @return Texto con el estado del pool y las latencias por método
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Pool: ").append(getActiveConnections()).append(" activas, ")
+               .append(getIdleConnections()).append(" libres, ")
+               .append(getWaitingThreads()).append(" en espera (máx. ").append(getMaxActive()).append(")\n");
+        summary.append(String.format("Espera de conexión: %d préstamos, %d agotados, p50=%s p95=%s p99=%s máx=%s%n",
+                getBorrowCount(), getBorrowTimeouts(),
+                formatMicros(getBorrowWaitP50Micros()), formatMicros(getBorrowWaitP95Micros()),
+                formatMicros(getBorrowWaitP99Micros()), formatMicros(getBorrowWaitMaxMicros())));
+        long statementHits = getStatementCacheHits();
+        long statementMisses = getStatementCacheMisses();
+        long statementLookups = statementHits + statementMisses;
+        summary.append(String.format("Caché de sentencias: %d aciertos, %d fallos (%.0f%% aciertos)%n",
+                statementHits, statementMisses,
+                statementLookups == 0 ? 0.0 : statementHits * 100.0 / statementLookups));
+
+        List<String> methods = new ArrayList<>(methodMetrics.keySet());
+        if (methods.isEmpty()) {
+            summary.append("\nSin llamadas a repositorios registradas");
+            return summary.toString();
+        }
+
+        methods.sort(null);
+        summary.append(String.format("%n%-40s %8s %6s %9s %9s %9s%n", "Método", "Llamadas", "Error", "p50", "p95", "p99"));
+        for (String method : methods) {
+            MethodMetrics metrics = methodMetrics.get(method);
+            summary.append(String.format("%-40s %8d %6d %9s %9s %9s%n", method,
+                    metrics.getCount(), metrics.getErrorCount(),
+                    formatMicros(metrics.getP50Micros()), formatMicros(metrics.getP95Micros()),
+                    formatMicros(metrics.getP99Micros())));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getActiveCount() : 0;
+    }
+
+    @Override
+    public int getIdleConnections() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getIdleCount() : 0;
+    }
+
+    @Override
+    public int getWaitingThreads() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getWaitingCount() : 0;
+    }
+
+    @Override
+    public int getMaxActive() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getMaxActive() : 0;
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getStatementCacheHits() : 0;
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        PoolStatistics pool = poolSupplier.get();
+        return pool != null ? pool.getStatementCacheMisses() : 0;
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowWait.getCount();
+    }
+
+    @Override
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.sum();
+    }
+
+    @Override
+    public long getBorrowWaitP50Micros() {
+        return borrowWait.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getBorrowWaitP95Micros() {
+        return borrowWait.getPercentileMicros(95);
+    }
+
+    @Override
+    public long getBorrowWaitP99Micros() {
+        return borrowWait.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getBorrowWaitMaxMicros() {
+        return borrowWait.getMaxMicros();
+    }
+
+    private MethodMetrics createMethodMetrics(String method) {
+        MethodMetrics metrics = new MethodMetrics();
+        registerMBean(metrics, RepositoryMethodMetricsMXBean.class, "type=RepositoryMethod,name=" + ObjectName.quote(method));
+        return metrics;
+    }
+
+    private static <T> void registerMBean(T implementation, Class<T> mxbeanInterface, String properties) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(implementation, mxbeanInterface, true), name);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "No se pudieron publicar las métricas por JMX: " + e.getMessage(), e);
+        }
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "µs";
+        }
+        return String.format("%.1fms", micros / 1000.0);
+    }
+
+    /**
+     * Métricas de un método de repositorio.
+     */
+    private static final class MethodMetrics implements RepositoryMethodMetricsMXBean {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        @Override
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getMeanMicros() {
+            return latency.getMeanMicros();
+        }
+
+        @Override
+        public long getP50Micros() {
+            return latency.getPercentileMicros(50);
+        }
+
+        @Override
+        public long getP95Micros() {
+            return latency.getPercentileMicros(95);
+        }
+
+        @Override
+        public long getP99Micros() {
+            return latency.getPercentileMicros(99);
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return latency.getMaxMicros();
+        }
+    }
+}
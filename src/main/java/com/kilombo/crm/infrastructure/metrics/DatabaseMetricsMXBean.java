@@ -0,0 +1,35 @@
+package com.kilombo.crm.infrastructure.metrics;
+
+/**
+ * Vista JMX de las métricas del pool de conexiones.
+ * Registrada como {@code com.kilombo.crm:type=DatabaseMetrics}.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public interface DatabaseMetricsMXBean {
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getWaitingThreads();
+
+    int getMaxActive();
+
+    long getBorrowCount();
+
+    long getBorrowTimeouts();
+
+    long getBorrowWaitP50Micros();
+
+    long getBorrowWaitP95Micros();
+
+    long getBorrowWaitP99Micros();
+
+    long getBorrowWaitMaxMicros();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+}
@@ -0,0 +1,25 @@
+package com.kilombo.crm.infrastructure.metrics;
+
+/**
+ * Vista JMX de la latencia de un método de repositorio.
+ * Registrada como {@code com.kilombo.crm:type=RepositoryMethod,name=<Repositorio>.<método>}.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public interface RepositoryMethodMetricsMXBean {
+
+    long getCount();
+
+    long getErrorCount();
+
+    long getMeanMicros();
+
+    long getP50Micros();
+
+    long getP95Micros();
+
+    long getP99Micros();
+
+    long getMaxMicros();
+}
@@ -3,7 +3,7 @@ package com.kilombo.crm.infrastructure.repository;
 import com.kilombo.crm.domain.exception.DatabaseException;
 
 import java.sql.SQLException;
-import java.util.function.Supplier;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -68,9 +68,32 @@ public abstract class BaseRepository {
      * @throws DatabaseException si ocurre un error de base de datos
      */
     protected <T> T executeWithIntegrityErrorHandling(DatabaseOperation<T> operation, String operationName, String entityInfo) {
+        return executeWithIntegrityErrorHandling(operation, operationName, entityInfo, null);
+    }
+
+    /**
+     * Ejecuta una operación de base de datos traduciendo las violaciones de restricciones (SQLState 23xxx)
+     * con la función indicada. Permite intentar la escritura directamente y dejar que la base de datos
+     * detecte los duplicados, sin una consulta previa de comprobación.
+     *
+     * @param operation Operación a ejecutar
+     * @param operationName Nombre descriptivo de la operación
+     * @param entityInfo Información de la entidad para logging detallado
+     * @param integrityViolation Excepción a lanzar ante una violación de integridad; null para DatabaseException
+     * @param <T> Tipo de retorno
+     * @return Resultado de la operación
+     * @throws DatabaseException si ocurre un error de base de datos
+     */
+    protected <T> T executeWithIntegrityErrorHandling(DatabaseOperation<T> operation, String operationName, String entityInfo,
+                                                      Function<SQLException, ? extends RuntimeException> integrityViolation) {
         try {
             return operation.execute();
         } catch (SQLException e) {
+            if (integrityViolation != null && e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                logger.log(Level.WARNING, "Violación de integridad en " + operationName + " (" + entityInfo + "): " + e.getMessage());
+                throw integrityViolation.apply(e);
+            }
+
             logger.log(Level.SEVERE, "Error SQL en " + operationName + " (" + entityInfo + "): " + e.getMessage(), e);
 
             // Distinguir tipos específicos de errores SQL
@@ -1,7 +1,9 @@
 package com.kilombo.crm.infrastructure.repository;
 
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
 import com.kilombo.crm.domain.exception.ClienteNotFoundException;
 import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.domain.exception.ValidationException;
 import com.kilombo.crm.domain.model.Cliente;
 import com.kilombo.crm.domain.repository.ClienteRepository;
 import com.kilombo.crm.infrastructure.database.ConexionBD;
@@ -9,8 +11,12 @@ import com.kilombo.crm.infrastructure.mapper.ClienteMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 /**
@@ -22,6 +28,9 @@ import java.util.logging.Level;
  * @version 3.0
  */
 public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepository {
+
+    // Código de error de MySQL para clave duplicada
+    private static final int ER_DUP_ENTRY = 1062;
     
     @Override
     public Cliente save(Cliente cliente) {
@@ -30,9 +39,9 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }
 
         return executeWithIntegrityErrorHandling(() -> {
-            String sql = "INSERT INTO clientes (nombre, apellido, email, telefono) VALUES (?, ?, ?, ?)";
+            String sql = SqlStatement.CLIENTE_INSERT.getSql();
 
-            try (Connection conn = ConexionBD.getInstance().getConnection();
+            try (Connection conn = ConexionBD.getInstance().getWriteConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
                 ClienteMapper.toStatement(stmt, cliente);
@@ -57,7 +66,17 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
 
                 return cliente;
             }
-        }, "guardar cliente", cliente.getEmail());
+        }, "guardar cliente", cliente.getEmail(), e -> violacionIntegridad(cliente, e));
+    }
+
+    /**
+     * Traduce una violación de restricción al guardar un cliente: el único índice único es el email.
+     */
+    private static ValidationException violacionIntegridad(Cliente cliente, SQLException e) {
+        if (e.getErrorCode() == ER_DUP_ENTRY) {
+            return new ValidationException("Ya existe un cliente con el email: " + cliente.getEmail(), e);
+        }
+        return new ValidationException("Los datos del cliente no son válidos: " + e.getMessage(), e);
     }
     
     @Override
@@ -68,7 +87,7 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }
 
         return executeWithErrorHandling(() -> {
-            String sql = "SELECT id, nombre, apellido, email, telefono FROM clientes WHERE id = ?";
+            String sql = SqlStatement.CLIENTE_FIND_BY_ID.getSql();
 
             try (Connection conn = ConexionBD.getInstance().getConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -93,21 +112,57 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }, "buscar cliente por ID " + id);
     }
     
+    @Override
+    public Map<Integer, Cliente> findByIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Integer> validos = InList.distinctValidIds(ids);
+        if (validos.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return executeWithErrorHandling(() -> {
+            Map<Integer, Cliente> clientes = new HashMap<>(validos.size() * 4 / 3 + 1);
+
+            try (Connection conn = ConexionBD.getInstance().getConnection()) {
+                for (List<Integer> chunk : InList.chunks(validos)) {
+                    String sql = SqlStatement.CLIENTE_FIND_BY_IDS.getSql(InList.paddedSize(chunk.size()));
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        InList.bind(stmt, 1, chunk);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            int[] columnas = ClienteMapper.columnIndexes(rs);
+                            while (rs.next()) {
+                                Cliente cliente = ClienteMapper.fromResultSet(rs, columnas);
+                                clientes.put(cliente.getId(), cliente);
+                            }
+                        }
+                    }
+                }
+            }
+
+            logger.fine("Encontrados " + clientes.size() + " de " + validos.size() + " clientes por ID");
+            return clientes;
+        }, "buscar clientes por ID");
+    }
+
     @Override
     public List<Cliente> findAll() {
         return executeWithErrorHandling(() -> {
-            String sql = "SELECT id, nombre, apellido, email, telefono FROM clientes ORDER BY apellido, nombre";
+            String sql = SqlStatement.CLIENTE_FIND_ALL.getSql();
             List<Cliente> clientes = new ArrayList<>();
 
-            try (Connection conn = ConexionBD.getInstance().getConnection();
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql);
                   ResultSet rs = stmt.executeQuery()) {
 
                 logger.info("Ejecutando consulta para obtener todos los clientes");
 
                 int count = 0;
+                int[] columnas = ClienteMapper.columnIndexes(rs);
                 while (rs.next()) {
-                    Cliente cliente = ClienteMapper.fromResultSet(rs);
+                    Cliente cliente = ClienteMapper.fromResultSet(rs, columnas);
                     if (cliente != null) {
                         clientes.add(cliente);
                         count++;
@@ -121,6 +176,225 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
             }
         }, "obtener lista de clientes");
     }
+
+    @Override
+    public List<Cliente> search(String term, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El número máximo de resultados debe ser mayor que cero");
+        }
+        if (term == null || term.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String termino = term.trim();
+        String prefijo = escapeLike(termino) + "%";
+        String palabras = toBooleanPrefixQuery(termino);
+
+        return executeWithErrorHandling(() -> {
+            String sql = SqlStatement.CLIENTE_SEARCH.getSql();
+            List<Cliente> clientes = new ArrayList<>();
+
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, prefijo);
+                stmt.setInt(2, limit);
+                stmt.setString(3, prefijo);
+                stmt.setInt(4, limit);
+                stmt.setString(5, prefijo);
+                stmt.setInt(6, limit);
+                stmt.setString(7, palabras);
+                stmt.setString(8, palabras);
+                stmt.setInt(9, limit);
+                stmt.setInt(10, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int[] columnas = ClienteMapper.columnIndexes(rs);
+                    while (rs.next()) {
+                        clientes.add(ClienteMapper.fromResultSet(rs, columnas));
+                    }
+                }
+
+                logger.fine("Búsqueda '" + termino + "': " + clientes.size() + " clientes");
+                return clientes;
+            }
+        }, "buscar clientes");
+    }
+
+    /**
+     * Escapa los comodines de LIKE para buscar el término literalmente.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Convierte el término en una consulta FULLTEXT en modo booleano: cada palabra es obligatoria
+     * y se busca como prefijo. Se eliminan los operadores del modo booleano.
+     */
+    private static String toBooleanPrefixQuery(String value) {
+        StringBuilder query = new StringBuilder();
+        for (String palabra : value.replaceAll("[+\\-<>()~*\"@]", " ").trim().split("\\s+")) {
+            if (!palabra.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(palabra).append('*');
+            }
+        }
+        return query.toString();
+    }
+
+    @Override
+    public long forEach(Consumer<? super Cliente> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("La acción no puede ser null");
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection()) {
+            logger.info("Recorriendo en streaming todos los clientes");
+            long count = StreamingReader.forEach(conn, SqlStatement.CLIENTE_STREAM_ALL.getSql(), ClienteMapper::columnIndexes,
+                    ClienteMapper::fromResultSet, action);
+            logger.info("Recorridos " + count + " clientes");
+            return count;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al recorrer clientes: " + e.getMessage(), e);
+            throw new DatabaseException("Error al recorrer clientes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long count() {
+        return executeWithErrorHandling(() -> {
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(SqlStatement.CLIENTE_COUNT.getSql());
+                 ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }, "contar clientes");
+    }
+
+    @Override
+    public long estimateCount() {
+        long estimate = executeWithErrorHandling(() -> TableStatistics.estimateRows("clientes"), "estimar número de clientes");
+        return estimate >= 0 ? estimate : count();
+    }
+
+    @Override
+    public List<Cliente> findPage(Cliente afterKey, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        if (afterKey != null && (afterKey.getId() == null || afterKey.getApellido() == null || afterKey.getNombre() == null)) {
+            throw new IllegalArgumentException("El cliente de referencia debe tener ID, nombre y apellido");
+        }
+
+        return executeWithErrorHandling(() -> {
+            String sql = afterKey == null
+                    ? SqlStatement.CLIENTE_FIND_PAGE_FIRST.getSql()
+                    : SqlStatement.CLIENTE_FIND_PAGE_AFTER.getSql();
+            List<Cliente> clientes = new ArrayList<>(limit);
+
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (afterKey != null) {
+                    stmt.setString(index++, afterKey.getApellido());
+                    stmt.setString(index++, afterKey.getNombre());
+                    stmt.setInt(index++, afterKey.getId());
+                }
+                stmt.setInt(index, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int[] columnas = ClienteMapper.columnIndexes(rs);
+                    while (rs.next()) {
+                        clientes.add(ClienteMapper.fromResultSet(rs, columnas));
+                    }
+                }
+
+                logger.fine("Página de " + clientes.size() + " clientes" + (afterKey != null ? " tras ID " + afterKey.getId() : ""));
+                return clientes;
+            }
+        }, "obtener página de clientes");
+    }
+
+    @Override
+    public List<ClienteResumenDTO> findResumenPage(ClienteResumenDTO afterKey, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        if (afterKey != null && (afterKey.getId() == null || afterKey.getApellido() == null || afterKey.getNombre() == null)) {
+            throw new IllegalArgumentException("El cliente de referencia debe tener ID, nombre y apellido");
+        }
+
+        return executeWithErrorHandling(() -> {
+            String sql = afterKey == null
+                    ? SqlStatement.CLIENTE_RESUMEN_PAGE_FIRST.getSql()
+                    : SqlStatement.CLIENTE_RESUMEN_PAGE_AFTER.getSql();
+
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (afterKey != null) {
+                    stmt.setString(index++, afterKey.getApellido());
+                    stmt.setString(index++, afterKey.getNombre());
+                    stmt.setInt(index++, afterKey.getId());
+                }
+                stmt.setInt(index, limit);
+
+                List<ClienteResumenDTO> resumenes = readResumenes(stmt, limit);
+                logger.fine("Página de " + resumenes.size() + " resúmenes de clientes"
+                        + (afterKey != null ? " tras ID " + afterKey.getId() : ""));
+                return resumenes;
+            }
+        }, "obtener página de resúmenes de clientes");
+    }
+
+    @Override
+    public List<ClienteResumenDTO> findResumenByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El número máximo de resultados debe ser mayor que cero");
+        }
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return findResumenPage(null, limit);
+        }
+
+        String prefijo = escapeLike(prefix.trim()) + "%";
+
+        return executeWithErrorHandling(() -> {
+            String sql = SqlStatement.CLIENTE_RESUMEN_BY_PREFIX.getSql();
+
+            try (Connection conn = ConexionBD.getInstance().getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, prefijo);
+                stmt.setInt(2, limit);
+                stmt.setString(3, prefijo);
+                stmt.setInt(4, limit);
+                stmt.setInt(5, limit);
+
+                List<ClienteResumenDTO> resumenes = readResumenes(stmt, limit);
+                logger.fine("Prefijo '" + prefix + "': " + resumenes.size() + " resúmenes de clientes");
+                return resumenes;
+            }
+        }, "buscar resúmenes de clientes");
+    }
+
+    /**
+     * Lee las filas (id, nombre, apellido) de una consulta de resúmenes.
+     */
+    private static List<ClienteResumenDTO> readResumenes(PreparedStatement stmt, int limit) throws SQLException {
+        List<ClienteResumenDTO> resumenes = new ArrayList<>(limit);
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                resumenes.add(new ClienteResumenDTO(rs.getInt(1), rs.getString(2), rs.getString(3)));
+            }
+        }
+        return resumenes;
+    }
     
     @Override
     public void update(Cliente cliente) {
@@ -128,15 +402,12 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
             throw new IllegalArgumentException("El cliente debe tener un ID para ser actualizado");
         }
 
-        // Verificar que el cliente existe
-        if (!findById(cliente.getId()).isPresent()) {
-            throw new ClienteNotFoundException(cliente.getId());
-        }
+        // Un único UPDATE: el cliente inexistente se detecta por las filas encontradas
+        // y el email duplicado por el índice único
+        int affectedRows = executeWithIntegrityErrorHandling(() -> {
+            String sql = SqlStatement.CLIENTE_UPDATE.getSql();
 
-        executeWithRowValidation(() -> {
-            String sql = "UPDATE clientes SET nombre = ?, apellido = ?, email = ?, telefono = ? WHERE id = ?";
-
-            try (Connection conn = ConexionBD.getInstance().getConnection();
+            try (Connection conn = ConexionBD.getInstance().getWriteConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 ClienteMapper.toStatement(stmt, cliente);
@@ -144,7 +415,11 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
 
                 return stmt.executeUpdate();
             }
-        }, "actualizar cliente ID " + cliente.getId(), 1);
+        }, "actualizar cliente", "ID " + cliente.getId(), e -> violacionIntegridad(cliente, e));
+
+        if (affectedRows == 0) {
+            throw new ClienteNotFoundException(cliente.getId());
+        }
     }
     
     @Override
@@ -155,9 +430,9 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }
 
         executeWithRowValidation(() -> {
-            String sql = "DELETE FROM clientes WHERE id = ?";
+            String sql = SqlStatement.CLIENTE_DELETE.getSql();
 
-            try (Connection conn = ConexionBD.getInstance().getConnection();
+            try (Connection conn = ConexionBD.getInstance().getWriteConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setInt(1, id);
@@ -174,7 +449,7 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }
 
         return executeWithErrorHandling(() -> {
-            String sql = "SELECT COUNT(*) FROM clientes WHERE email = ?";
+            String sql = SqlStatement.CLIENTE_EXISTS_BY_EMAIL.getSql();
 
             try (Connection conn = ConexionBD.getInstance().getConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -208,7 +483,7 @@ public class ClienteRepositoryImpl extends BaseRepository implements ClienteRepo
         }
 
         return executeWithErrorHandling(() -> {
-            String sql = "SELECT COUNT(*) FROM clientes WHERE email = ? AND id != ?";
+            String sql = SqlStatement.CLIENTE_EXISTS_BY_EMAIL_AND_ID_NOT.getSql();
 
             try (Connection conn = ConexionBD.getInstance().getConnection();
                   PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -6,10 +6,15 @@ import com.kilombo.crm.domain.repository.DetallePedidoRepository;
 import com.kilombo.crm.infrastructure.database.ConexionBD;
 import com.kilombo.crm.infrastructure.mapper.DetallePedidoMapper;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,9 +36,9 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             throw new IllegalArgumentException("El detalle de pedido no puede ser null");
         }
 
-        String sql = "INSERT INTO detalles_pedido (id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = SqlStatement.DETALLE_INSERT.getSql();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             DetallePedidoMapper.toStatement(stmt, detallePedido);
@@ -67,9 +72,130 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
         }
     }
 
+    @Override
+    public List<DetallePedido> saveAll(List<DetallePedido> detalles) {
+        if (detalles == null) {
+            throw new IllegalArgumentException("La lista de detalles de pedido no puede ser null");
+        }
+        if (detalles.isEmpty()) {
+            return detalles;
+        }
+        for (DetallePedido detalle : detalles) {
+            if (detalle == null) {
+                throw new IllegalArgumentException("El detalle de pedido no puede ser null");
+            }
+            if (detalle.getId() != null) {
+                throw new IllegalArgumentException("El detalle de pedido ya tiene ID " + detalle.getId() + "; use update");
+            }
+            detalle.validar();
+        }
+
+        // Columnas calculadas previas, para restaurarlas si la transacción se deshace
+        int n = detalles.size();
+        BigDecimal[] subtotalesOriginales = new BigDecimal[n];
+        BigDecimal[] gananciasOriginales = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            subtotalesOriginales[i] = detalles.get(i).getSubtotal();
+            gananciasOriginales[i] = detalles.get(i).getGananciaBruta();
+        }
+
+        // Con rewriteBatchedStatements=true el driver envía el lote como un INSERT de varias filas
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertBatch(conn, detalles);
+                loadGeneratedColumns(conn, detalles);
+                conn.commit();
+                logger.info("Guardados " + detalles.size() + " detalles de pedido en un lote");
+                return detalles;
+            } catch (SQLException | RuntimeException e) {
+                rollback(conn, e);
+                for (int i = 0; i < n; i++) {
+                    DetallePedido detalle = detalles.get(i);
+                    detalle.setId(null);
+                    detalle.setSubtotal(subtotalesOriginales[i]);
+                    detalle.setGananciaBruta(gananciasOriginales[i]);
+                }
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al guardar lote de " + detalles.size() + " detalles de pedido: " + e.getMessage(), e);
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new DatabaseException("Error de integridad al guardar los detalles del pedido (pedido inexistente): " + e.getMessage(), e);
+            }
+            throw new DatabaseException("Error al guardar los detalles del pedido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deshace la transacción en curso tras un fallo. Si el rollback también falla, su error
+     * se añade como suprimido a la causa original para no ocultarla.
+     * También lo usa el guardado conjunto de pedido y detalles.
+     */
+    static void rollback(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "No se pudo deshacer la transacción: " + e.getMessage(), e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Inserta los detalles con un solo executeBatch y asigna los IDs generados en orden.
+     * No confirma la transacción: también la usa el guardado conjunto de pedido y detalles.
+     */
+    static void insertBatch(Connection conn, List<DetallePedido> detalles) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlStatement.DETALLE_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+            for (DetallePedido detalle : detalles) {
+                DetallePedidoMapper.toStatement(stmt, detalle);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                int index = 0;
+                while (generatedKeys.next() && index < detalles.size()) {
+                    detalles.get(index++).setId(generatedKeys.getInt(1));
+                }
+                if (index != detalles.size()) {
+                    throw new DatabaseException("Se obtuvieron " + index + " IDs generados para " + detalles.size() + " detalles del pedido");
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee las columnas calculadas por la base de datos (subtotal y ganancia bruta),
+     * con una consulta por bloque de {@link InList#MAX_SIZE} detalles.
+     */
+    static void loadGeneratedColumns(Connection conn, List<DetallePedido> detalles) throws SQLException {
+        Map<Integer, DetallePedido> porId = new HashMap<>(detalles.size() * 2);
+        for (DetallePedido detalle : detalles) {
+            porId.put(detalle.getId(), detalle);
+        }
+
+        for (List<Integer> chunk : InList.chunks(new ArrayList<>(porId.keySet()))) {
+            String sql = SqlStatement.DETALLE_GENERATED_COLUMNS_BY_IDS.getSql(InList.paddedSize(chunk.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                InList.bind(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        DetallePedido detalle = porId.get(rs.getInt("id"));
+                        if (detalle != null) {
+                            detalle.setSubtotal(rs.getBigDecimal("subtotal"));
+                            detalle.setGananciaBruta(rs.getBigDecimal("ganancia_bruta"));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public Optional<DetallePedido> findById(Integer id) {
-        String sql = "SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido WHERE id = ?";
+        String sql = SqlStatement.DETALLE_FIND_BY_ID.getSql();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -91,18 +217,19 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
 
     @Override
     public List<DetallePedido> findAll() {
-        String sql = "SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido ORDER BY id_pedido";
+        String sql = SqlStatement.DETALLE_FIND_ALL.getSql();
         List<DetallePedido> detalles = new ArrayList<>();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             logger.info("Ejecutando consulta para obtener todos los detalles de pedido");
 
             int count = 0;
+            int[] columnas = DetallePedidoMapper.columnIndexes(rs);
             while (rs.next()) {
-                DetallePedido detalle = DetallePedidoMapper.fromResultSet(rs);
+                DetallePedido detalle = DetallePedidoMapper.fromResultSet(rs, columnas);
                 if (detalle != null) {
                     detalles.add(detalle);
                     count++;
@@ -123,6 +250,25 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
         }
     }
 
+    @Override
+    public long forEach(Consumer<? super DetallePedido> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("La acción no puede ser null");
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection()) {
+            logger.info("Recorriendo en streaming todos los detalles de pedido");
+            long count = StreamingReader.forEach(conn, SqlStatement.DETALLE_STREAM_ALL.getSql(), DetallePedidoMapper::columnIndexes,
+                    DetallePedidoMapper::fromResultSet, action);
+            logger.info("Recorridos " + count + " detalles de pedido");
+            return count;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al recorrer detalles de pedido: " + e.getMessage(), e);
+            throw new DatabaseException("Error al recorrer detalles de pedido: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public List<DetallePedido> findByPedidoId(Integer idPedido) {
         if (idPedido == null || idPedido <= 0) {
@@ -130,7 +276,7 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             return new ArrayList<>();
         }
 
-        String sql = "SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido WHERE id_pedido = ? ORDER BY subtotal DESC";
+        String sql = SqlStatement.DETALLE_FIND_BY_PEDIDO.getSql();
         List<DetallePedido> detalles = new ArrayList<>();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
@@ -141,8 +287,9 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 int count = 0;
+                int[] columnas = DetallePedidoMapper.columnIndexes(rs);
                 while (rs.next()) {
-                    DetallePedido detalle = DetallePedidoMapper.fromResultSet(rs);
+                    DetallePedido detalle = DetallePedidoMapper.fromResultSet(rs, columnas);
                     if (detalle != null) {
                         detalles.add(detalle);
                         count++;
@@ -175,9 +322,9 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             throw new DatabaseException("Detalle de pedido con ID " + detallePedido.getId() + " no encontrado");
         }
 
-        String sql = "UPDATE detalles_pedido SET id_pedido = ?, tipo_producto = ?, descripcion = ?, cantidad = ?, costo_unitario = ?, precio_unitario = ? WHERE id = ?";
+        String sql = SqlStatement.DETALLE_UPDATE.getSql();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             DetallePedidoMapper.toStatement(stmt, detallePedido);
@@ -201,9 +348,9 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             throw new DatabaseException("Detalle de pedido con ID " + id + " no encontrado");
         }
 
-        String sql = "DELETE FROM detalles_pedido WHERE id = ?";
+        String sql = SqlStatement.DETALLE_DELETE.getSql();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
@@ -226,7 +373,7 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             return Optional.empty();
         }
 
-        String sql = "SELECT tipo_producto FROM detalles_pedido WHERE id_pedido = ? ORDER BY subtotal DESC LIMIT 1";
+        String sql = SqlStatement.DETALLE_PRINCIPAL_PRODUCT.getSql();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -252,4 +399,37 @@ public class DetallePedidoRepositoryImpl implements DetallePedidoRepository {
             throw new DatabaseException("Error inesperado al encontrar producto principal del pedido: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public Map<Integer, String> findPrincipalProductsByPedidoIds(Collection<Integer> idsPedidos) {
+        if (idsPedidos == null || idsPedidos.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Integer> validos = InList.distinctValidIds(idsPedidos);
+        Map<Integer, String> productos = new HashMap<>(validos.size() * 4 / 3 + 1);
+        if (validos.isEmpty()) {
+            return productos;
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getConnection()) {
+            for (List<Integer> chunk : InList.chunks(validos)) {
+                String sql = SqlStatement.DETALLE_PRINCIPAL_PRODUCTS_BY_PEDIDOS.getSql(InList.paddedSize(chunk.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bind(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            productos.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al encontrar productos principales de " + validos.size() + " pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al encontrar productos principales de los pedidos: " + e.getMessage(), e);
+        }
+
+        logger.fine("Productos principales encontrados para " + productos.size() + " de " + validos.size() + " pedidos");
+        return productos;
+    }
 }
\ No newline at end of file
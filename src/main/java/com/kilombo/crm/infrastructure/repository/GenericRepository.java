@@ -44,7 +44,7 @@ public class GenericRepository {
         List<String> tables = new ArrayList<>();
         String query = "SHOW TABLES";
 
-        try (Connection conn = conexionBD.getConnection();
+        try (Connection conn = conexionBD.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -73,7 +73,7 @@ public class GenericRepository {
         List<Map<String, Object>> result = new ArrayList<>();
         String query = "SELECT * FROM " + tableName;
 
-        try (Connection conn = conexionBD.getConnection();
+        try (Connection conn = conexionBD.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -122,7 +122,7 @@ public class GenericRepository {
         List<Map<String, Object>> columns = new ArrayList<>();
         String query = "DESCRIBE " + tableName;
 
-        try (Connection conn = conexionBD.getConnection();
+        try (Connection conn = conexionBD.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -218,7 +218,7 @@ public class GenericRepository {
     public int getTableRowCount(String tableName) throws DatabaseException {
         String query = "SELECT COUNT(*) FROM " + tableName;
 
-        try (Connection conn = conexionBD.getConnection();
+        try (Connection conn = conexionBD.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -0,0 +1,80 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Utilidades para consultas con listas IN de IDs.
+ * Las listas se parten en bloques de como máximo {@link #MAX_SIZE} elementos y cada bloque
+ * se rellena hasta la siguiente potencia de dos repitiendo su último ID, de modo que la caché
+ * de sentencias solo ve unas pocas variantes del SQL.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class InList {
+
+    // Máximo de IDs por consulta IN (potencia de dos)
+    static final int MAX_SIZE = 512;
+
+    private InList() {
+    }
+
+    /**
+     * Elimina los IDs repetidos, null y no positivos, conservando el orden.
+     *
+     * @param ids IDs recibidos
+     * @return Lista de IDs válidos y distintos
+     */
+    static List<Integer> distinctValidIds(Collection<Integer> ids) {
+        List<Integer> validos = new ArrayList<>(new LinkedHashSet<>(ids));
+        validos.removeIf(id -> id == null || id <= 0);
+        return validos;
+    }
+
+    /**
+     * Parte la lista en bloques de como máximo {@link #MAX_SIZE} IDs.
+     *
+     * @param ids IDs válidos
+     * @return Bloques consecutivos (vistas de la lista original)
+     */
+    static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Calcula cuántos marcadores tendrá la lista IN de un bloque.
+     *
+     * @param count IDs del bloque
+     * @return La potencia de dos igual o inmediatamente superior
+     */
+    static int paddedSize(int count) {
+        int size = Integer.highestOneBit(count);
+        return size < count ? size << 1 : size;
+    }
+
+    /**
+     * Asigna los IDs del bloque a los marcadores, rellenando con el último ID.
+     *
+     * @param stmt Sentencia preparada con {@link #paddedSize(int)} marcadores a partir de startIndex
+     * @param startIndex Índice del primer marcador (1-based)
+     * @param chunk IDs del bloque
+     * @return Índice del siguiente marcador libre
+     * @throws SQLException si falla la asignación
+     */
+    static int bind(PreparedStatement stmt, int startIndex, List<Integer> chunk) throws SQLException {
+        int size = paddedSize(chunk.size());
+        for (int i = 0; i < size; i++) {
+            stmt.setInt(startIndex + i, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+        return startIndex + size;
+    }
+}
@@ -1,17 +1,29 @@
 package com.kilombo.crm.infrastructure.repository;
 
+import com.kilombo.crm.application.dto.EstadisticasClienteDTO;
 import com.kilombo.crm.application.dto.InformeBI_DTO;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
+import com.kilombo.crm.application.dto.PedidoDTO;
 import com.kilombo.crm.domain.exception.DatabaseException;
 import com.kilombo.crm.domain.exception.PedidoNotFoundException;
+import com.kilombo.crm.domain.exception.ValidationException;
+import com.kilombo.crm.domain.model.DetallePedido;
 import com.kilombo.crm.domain.model.Pedido;
+import com.kilombo.crm.domain.model.PedidoConDetalles;
 import com.kilombo.crm.domain.repository.PedidoRepository;
 import com.kilombo.crm.infrastructure.database.ConexionBD;
+import com.kilombo.crm.infrastructure.mapper.ColumnIndexes;
 import com.kilombo.crm.infrastructure.mapper.PedidoMapper;
 
 import java.sql.*;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,6 +38,11 @@ import java.util.logging.Logger;
 public class PedidoRepositoryImpl implements PedidoRepository {
 
     private static final Logger logger = Logger.getLogger(PedidoRepositoryImpl.class.getName());
+
+    // Columnas adicionales de las consultas de pedidos unidas con clientes y con detalles
+    private static final String[] CLIENTE_COLUMNS = {"nombre", "apellido"};
+    private static final String[] DETALLE_COLUMNS = {"id_detalle", "tipo_producto", "descripcion", "cantidad",
+            "costo_unitario", "precio_unitario", "subtotal", "ganancia_bruta"};
     
     @Override
     public Pedido save(Pedido pedido) {
@@ -33,9 +50,9 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             throw new IllegalArgumentException("El pedido no puede ser null");
         }
 
-        String sql = "INSERT INTO pedidos (id_cliente, fecha, total) VALUES (?, ?, ?)";
+        String sql = SqlStatement.PEDIDO_INSERT.getSql();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             PedidoMapper.toStatement(stmt, pedido);
@@ -79,9 +96,112 @@ public class PedidoRepositoryImpl implements PedidoRepository {
         }
     }
     
+    @Override
+    public Pedido saveWithDetalles(Pedido pedido, List<DetallePedido> detalles) {
+        if (pedido == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        if (detalles == null || detalles.isEmpty()) {
+            throw new ValidationException("El pedido debe tener al menos un detalle");
+        }
+        pedido.validar();
+
+        // Estado previo de las entradas, para restaurarlo si la transacción se deshace
+        Double totalOriginal = pedido.getTotal();
+        int n = detalles.size();
+        Integer[] idsOriginales = new Integer[n];
+        Integer[] idsPedidoOriginales = new Integer[n];
+        BigDecimal[] subtotalesOriginales = new BigDecimal[n];
+        BigDecimal[] gananciasOriginales = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            DetallePedido detalle = detalles.get(i);
+            idsOriginales[i] = detalle.getId();
+            idsPedidoOriginales[i] = detalle.getIdPedido();
+            subtotalesOriginales[i] = detalle.getSubtotal();
+            gananciasOriginales[i] = detalle.getGananciaBruta();
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertPedido(conn, pedido);
+                for (DetallePedido detalle : detalles) {
+                    detalle.setIdPedido(pedido.getId());
+                    detalle.validar();
+                }
+                DetallePedidoRepositoryImpl.insertBatch(conn, detalles);
+                DetallePedidoRepositoryImpl.loadGeneratedColumns(conn, detalles);
+                recalcularTotal(conn, pedido, detalles);
+
+                // Una única confirmación para el pedido completo
+                conn.commit();
+                logger.info("Pedido guardado con ID " + pedido.getId() + " y " + detalles.size()
+                        + " detalles, total " + pedido.getTotal());
+                return pedido;
+
+            } catch (SQLException | RuntimeException e) {
+                DetallePedidoRepositoryImpl.rollback(conn, e);
+                pedido.setId(null);
+                pedido.setTotal(totalOriginal);
+                for (int i = 0; i < n; i++) {
+                    DetallePedido detalle = detalles.get(i);
+                    detalle.setId(idsOriginales[i]);
+                    detalle.setIdPedido(idsPedidoOriginales[i]);
+                    detalle.setSubtotal(subtotalesOriginales[i]);
+                    detalle.setGananciaBruta(gananciasOriginales[i]);
+                }
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al guardar pedido con detalles para cliente " + pedido.getIdCliente() + ": " + e.getMessage(), e);
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new DatabaseException("Error de integridad al guardar pedido (cliente inexistente): " + e.getMessage(), e);
+            }
+            throw new DatabaseException("Error al guardar el pedido con sus detalles: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inserta la fila del pedido en la transacción en curso y asigna su ID generado.
+     */
+    private void insertPedido(Connection conn, Pedido pedido) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlStatement.PEDIDO_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+            PedidoMapper.toStatement(stmt, pedido);
+            if (stmt.executeUpdate() == 0) {
+                throw new DatabaseException("No se pudo guardar el pedido, ninguna fila afectada");
+            }
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new DatabaseException("No se pudo obtener el ID generado del pedido");
+                }
+                pedido.setId(generatedKeys.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * Recalcula pedidos.total a partir de los subtotales ya guardados y lo refleja en la entidad.
+     */
+    private void recalcularTotal(Connection conn, Pedido pedido, List<DetallePedido> detalles) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlStatement.PEDIDO_UPDATE_TOTAL_FROM_DETALLES.getSql())) {
+            stmt.setInt(1, pedido.getId());
+            stmt.setInt(2, pedido.getId());
+            stmt.executeUpdate();
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (DetallePedido detalle : detalles) {
+            if (detalle.getSubtotal() != null) {
+                total = total.add(detalle.getSubtotal());
+            }
+        }
+        pedido.setTotal(total.doubleValue());
+    }
+
     @Override
     public Optional<Pedido> findById(Integer id) {
-        String sql = "SELECT id, id_cliente, fecha, total FROM pedidos WHERE id = ?";
+        String sql = SqlStatement.PEDIDO_FIND_BY_ID.getSql();
         
         try (Connection conn = ConexionBD.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -100,21 +220,94 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             throw new DatabaseException("Error al buscar el pedido con ID " + id + ": " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public Optional<NotificacionPedidoDTO> findNotificacionByPedidoId(Integer idPedido) {
+        String sql = SqlStatement.PEDIDO_NOTIFICACION_BY_ID.getSql();
+
+        try (Connection conn = ConexionBD.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idPedido);
+            stmt.setInt(2, idPedido);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(toNotificacion(rs));
+                }
+                return Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error al obtener los datos de notificación del pedido " + idPedido + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<Integer, NotificacionPedidoDTO> findNotificacionesByPedidoIds(Collection<Integer> idsPedidos) {
+        if (idsPedidos == null || idsPedidos.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Integer> validos = InList.distinctValidIds(idsPedidos);
+        Map<Integer, NotificacionPedidoDTO> notificaciones = new HashMap<>(validos.size() * 4 / 3 + 1);
+        if (validos.isEmpty()) {
+            return notificaciones;
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getConnection()) {
+            for (List<Integer> chunk : InList.chunks(validos)) {
+                String sql = SqlStatement.PEDIDO_NOTIFICACION_BY_IDS.getSql(InList.paddedSize(chunk.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    // La lista IN aparece dos veces: en los detalles y en los pedidos
+                    InList.bind(stmt, InList.bind(stmt, 1, chunk), chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            NotificacionPedidoDTO notificacion = toNotificacion(rs);
+                            notificaciones.put(notificacion.getIdPedido(), notificacion);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al obtener datos de notificación de " + validos.size() + " pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al obtener los datos de notificación de los pedidos: " + e.getMessage(), e);
+        }
+
+        logger.fine("Datos de notificación obtenidos para " + notificaciones.size() + " de " + validos.size() + " pedidos");
+        return notificaciones;
+    }
+
+    /**
+     * Construye los datos de notificación de una fila de {@link SqlStatement#PEDIDO_NOTIFICACION_BY_ID}.
+     */
+    private static NotificacionPedidoDTO toNotificacion(ResultSet rs) throws SQLException {
+        return new NotificacionPedidoDTO(
+                rs.getInt("id"),
+                rs.getInt("id_cliente"),
+                rs.getString("estado"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("email"),
+                rs.getString("telefono"),
+                rs.getString("tipo_producto"));
+    }
     
     @Override
     public List<Pedido> findAll() {
-        String sql = "SELECT id, id_cliente, fecha, total FROM pedidos ORDER BY fecha DESC";
+        String sql = SqlStatement.PEDIDO_FIND_ALL.getSql();
         List<Pedido> pedidos = new ArrayList<>();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             logger.info("Ejecutando consulta para obtener todos los pedidos");
 
             int count = 0;
+            int[] columnas = PedidoMapper.columnIndexes(rs);
             while (rs.next()) {
-                Pedido pedido = PedidoMapper.fromResultSet(rs);
+                Pedido pedido = PedidoMapper.fromResultSet(rs, columnas);
                 if (pedido != null) {
                     pedidos.add(pedido);
                     count++;
@@ -134,7 +327,205 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             throw new DatabaseException("Error inesperado al obtener la lista de pedidos: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public long forEach(Consumer<? super Pedido> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("La acción no puede ser null");
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection()) {
+            logger.info("Recorriendo en streaming todos los pedidos");
+            long count = StreamingReader.forEach(conn, SqlStatement.PEDIDO_STREAM_ALL.getSql(), PedidoMapper::columnIndexes,
+                    PedidoMapper::fromResultSet, action);
+            logger.info("Recorridos " + count + " pedidos");
+            return count;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al recorrer pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al recorrer pedidos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long forEachWithDetalles(Consumer<? super PedidoConDetalles> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("La acción no puede ser null");
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
+             PreparedStatement stmt = StreamingReader.prepare(conn, SqlStatement.PEDIDO_STREAM_WITH_DETALLES.getSql());
+             ResultSet rs = stmt.executeQuery()) {
+
+            logger.info("Recorriendo en streaming todos los pedidos con sus detalles");
+            int[] columnasPedido = PedidoMapper.columnIndexes(rs);
+            int[] columnasDetalle = ColumnIndexes.resolve(rs, DETALLE_COLUMNS);
+            long count = 0;
+            Pedido actual = null;
+            List<DetallePedido> detalles = new ArrayList<>();
+
+            while (rs.next()) {
+                int idPedido = rs.getInt(columnasPedido[0]);
+                if (actual == null || actual.getId() != idPedido) {
+                    // Primera fila de otro pedido: se entrega el anterior ya completo
+                    if (actual != null) {
+                        action.accept(new PedidoConDetalles(actual, detalles));
+                        count++;
+                        detalles = new ArrayList<>();
+                    }
+                    actual = PedidoMapper.fromResultSet(rs, columnasPedido);
+                }
+
+                rs.getInt(columnasDetalle[0]);
+                if (!rs.wasNull()) {
+                    detalles.add(toDetalle(rs, columnasDetalle, idPedido));
+                }
+            }
+            if (actual != null) {
+                action.accept(new PedidoConDetalles(actual, detalles));
+                count++;
+            }
+
+            logger.info("Recorridos " + count + " pedidos con sus detalles");
+            return count;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al recorrer pedidos con detalles: " + e.getMessage(), e);
+            throw new DatabaseException("Error al recorrer pedidos con detalles: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Construye el detalle de una fila de {@link SqlStatement#PEDIDO_STREAM_WITH_DETALLES},
+     * donde la columna id es la del pedido y la del detalle es id_detalle.
+     *
+     * @param columns Índices de {@link #DETALLE_COLUMNS} en el resultado
+     */
+    private static DetallePedido toDetalle(ResultSet rs, int[] columns, int idPedido) throws SQLException {
+        DetallePedido detalle = new DetallePedido();
+        detalle.setId(rs.getInt(columns[0]));
+        detalle.setIdPedido(idPedido);
+        detalle.setTipoProducto(rs.getString(columns[1]));
+        detalle.setDescripcion(rs.getString(columns[2]));
+        detalle.setCantidad(rs.getInt(columns[3]));
+        detalle.setCostoUnitario(rs.getBigDecimal(columns[4]));
+        detalle.setPrecioUnitario(rs.getBigDecimal(columns[5]));
+        detalle.setSubtotal(rs.getBigDecimal(columns[6]));
+        detalle.setGananciaBruta(rs.getBigDecimal(columns[7]));
+        return detalle;
+    }
     
+    @Override
+    public List<PedidoDTO> findAllWithNombreCliente() {
+        String sql = SqlStatement.PEDIDO_FIND_ALL_WITH_CLIENTE.getSql();
+        List<PedidoDTO> pedidos = new ArrayList<>();
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            logger.info("Ejecutando consulta para obtener todos los pedidos con su cliente");
+
+            int[] columnas = PedidoMapper.columnIndexes(rs);
+            int[] columnasCliente = ColumnIndexes.resolve(rs, CLIENTE_COLUMNS);
+            while (rs.next()) {
+                pedidos.add(toPedidoConCliente(rs, columnas, columnasCliente));
+            }
+
+            logger.info("Se encontraron " + pedidos.size() + " pedidos");
+            return pedidos;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al obtener lista de pedidos con cliente: " + e.getMessage(), e);
+            throw new DatabaseException("Error al obtener la lista de pedidos: " + e.getMessage(), e);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al obtener lista de pedidos con cliente: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al obtener la lista de pedidos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long count() {
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SqlStatement.PEDIDO_COUNT.getSql());
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al contar pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al contar pedidos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long estimateCount() {
+        try {
+            long estimate = TableStatistics.estimateRows("pedidos");
+            return estimate >= 0 ? estimate : count();
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al estimar número de pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al estimar número de pedidos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<PedidoDTO> findPage(PedidoDTO afterKey, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        if (afterKey != null && (afterKey.getId() == null || afterKey.getFecha() == null)) {
+            throw new IllegalArgumentException("El pedido de referencia debe tener ID y fecha");
+        }
+
+        String sql = afterKey == null
+                ? SqlStatement.PEDIDO_FIND_PAGE_FIRST.getSql()
+                : SqlStatement.PEDIDO_FIND_PAGE_AFTER.getSql();
+        List<PedidoDTO> pedidos = new ArrayList<>(limit);
+
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (afterKey != null) {
+                stmt.setDate(index++, Date.valueOf(afterKey.getFecha()));
+                stmt.setInt(index++, afterKey.getId());
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] columnas = PedidoMapper.columnIndexes(rs);
+                int[] columnasCliente = ColumnIndexes.resolve(rs, CLIENTE_COLUMNS);
+                while (rs.next()) {
+                    pedidos.add(toPedidoConCliente(rs, columnas, columnasCliente));
+                }
+            }
+
+            logger.fine("Página de " + pedidos.size() + " pedidos" + (afterKey != null ? " tras ID " + afterKey.getId() : ""));
+            return pedidos;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al obtener página de pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error al obtener la página de pedidos: " + e.getMessage(), e);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado al obtener página de pedidos: " + e.getMessage(), e);
+            throw new DatabaseException("Error inesperado al obtener la página de pedidos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Construye el DTO de una fila de pedido unida con clientes (columnas nombre y apellido).
+     *
+     * @param columns Índices de las columnas de pedido
+     * @param clienteColumns Índices de {@link #CLIENTE_COLUMNS}
+     */
+    private static PedidoDTO toPedidoConCliente(ResultSet rs, int[] columns, int[] clienteColumns) throws SQLException {
+        PedidoDTO dto = PedidoDTO.fromEntity(PedidoMapper.fromResultSet(rs, columns));
+        String nombre = rs.getString(clienteColumns[0]);
+        dto.setNombreCliente(nombre != null ? nombre + " " + rs.getString(clienteColumns[1]) : "Cliente desconocido");
+        return dto;
+    }
+
     @Override
     public List<Pedido> findByClienteId(Integer idCliente) {
         if (idCliente == null || idCliente <= 0) {
@@ -142,7 +533,7 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             return new ArrayList<>();
         }
 
-        String sql = "SELECT id, id_cliente, fecha, total FROM pedidos WHERE id_cliente = ? ORDER BY fecha DESC";
+        String sql = SqlStatement.PEDIDO_FIND_BY_CLIENTE.getSql();
         List<Pedido> pedidos = new ArrayList<>();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
@@ -153,8 +544,9 @@ public class PedidoRepositoryImpl implements PedidoRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 int count = 0;
+                int[] columnas = PedidoMapper.columnIndexes(rs);
                 while (rs.next()) {
-                    Pedido pedido = PedidoMapper.fromResultSet(rs);
+                    Pedido pedido = PedidoMapper.fromResultSet(rs, columnas);
                     if (pedido != null) {
                         pedidos.add(pedido);
                         count++;
@@ -187,9 +579,9 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             throw new PedidoNotFoundException(pedido.getId());
         }
         
-        String sql = "UPDATE pedidos SET id_cliente = ?, fecha = ?, total = ? WHERE id = ?";
+        String sql = SqlStatement.PEDIDO_UPDATE.getSql();
         
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             PedidoMapper.toStatement(stmt, pedido);
@@ -213,9 +605,9 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             throw new PedidoNotFoundException(id);
         }
         
-        String sql = "DELETE FROM pedidos WHERE id = ?";
+        String sql = SqlStatement.PEDIDO_DELETE.getSql();
         
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -238,7 +630,7 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             return 0;
         }
 
-        String sql = "SELECT COUNT(*) FROM pedidos WHERE id_cliente = ?";
+        String sql = SqlStatement.PEDIDO_COUNT_BY_CLIENTE.getSql();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -272,7 +664,7 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             return 0.0;
         }
 
-        String sql = "SELECT COALESCE(SUM(total), 0) FROM pedidos WHERE id_cliente = ?";
+        String sql = SqlStatement.PEDIDO_SUM_TOTAL_BY_CLIENTE.getSql();
 
         try (Connection conn = ConexionBD.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -299,6 +691,74 @@ public class PedidoRepositoryImpl implements PedidoRepository {
         }
     }
 
+    @Override
+    public EstadisticasClienteDTO findEstadisticasByClienteId(Integer idCliente) {
+        if (idCliente == null || idCliente <= 0) {
+            logger.warning("ID de cliente inválido para obtener estadísticas: " + idCliente);
+            return EstadisticasClienteDTO.SIN_PEDIDOS;
+        }
+
+        String sql = SqlStatement.PEDIDO_STATS_BY_CLIENTE.getSql();
+
+        try (Connection conn = ConexionBD.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idCliente);
+            logger.fine("Obteniendo estadísticas de pedidos para cliente ID: " + idCliente);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    EstadisticasClienteDTO estadisticas = new EstadisticasClienteDTO(rs.getInt(1), rs.getDouble(2));
+                    logger.fine("Cliente ID " + idCliente + ": " + estadisticas);
+                    return estadisticas;
+                }
+                logger.warning("No se pudo obtener resultado de estadísticas para cliente ID: " + idCliente);
+                return EstadisticasClienteDTO.SIN_PEDIDOS;
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al obtener estadísticas del cliente " + idCliente + ": " + e.getMessage(), e);
+            throw new DatabaseException("Error al obtener estadísticas del cliente: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<Integer, EstadisticasClienteDTO> findEstadisticasByClienteIds(Collection<Integer> idsClientes) {
+        if (idsClientes == null || idsClientes.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Integer> validos = InList.distinctValidIds(idsClientes);
+        Map<Integer, EstadisticasClienteDTO> estadisticas = new HashMap<>(validos.size() * 4 / 3 + 1);
+        if (validos.isEmpty()) {
+            return estadisticas;
+        }
+
+        try (Connection conn = ConexionBD.getInstance().getConnection()) {
+            for (List<Integer> chunk : InList.chunks(validos)) {
+                String sql = SqlStatement.PEDIDO_STATS_BY_CLIENTES.getSql(InList.paddedSize(chunk.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bind(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            estadisticas.put(rs.getInt(1), new EstadisticasClienteDTO(rs.getInt(2), rs.getDouble(3)));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error SQL al obtener estadísticas de " + validos.size() + " clientes: " + e.getMessage(), e);
+            throw new DatabaseException("Error al obtener estadísticas de los clientes: " + e.getMessage(), e);
+        }
+
+        // Los clientes sin pedidos no aparecen en el GROUP BY
+        for (Integer id : validos) {
+            estadisticas.putIfAbsent(id, EstadisticasClienteDTO.SIN_PEDIDOS);
+        }
+        logger.fine("Estadísticas obtenidas para " + validos.size() + " clientes");
+        return estadisticas;
+    }
+
     @Override
     public List<InformeBI_DTO> findTopClientsByGrossProfit(int limit) {
         if (limit <= 0) {
@@ -306,15 +766,11 @@ public class PedidoRepositoryImpl implements PedidoRepository {
             return new ArrayList<>();
         }
 
-        String sql = "SELECT c.nombre, c.apellido, SUM(dp.ganancia_bruta) AS GananciaTotal " +
-                     "FROM clientes c JOIN pedidos p ON c.id = p.id_cliente " +
-                     "JOIN detalles_pedido dp ON p.id = dp.id_pedido " +
-                     "WHERE p.estado = 'COMPLETADO' " +
-                     "GROUP BY c.id ORDER BY GananciaTotal DESC LIMIT ?";
+        String sql = SqlStatement.PEDIDO_TOP_CLIENTS_BY_GROSS_PROFIT.getSql();
 
         List<InformeBI_DTO> informes = new ArrayList<>();
 
-        try (Connection conn = ConexionBD.getInstance().getConnection();
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limit);
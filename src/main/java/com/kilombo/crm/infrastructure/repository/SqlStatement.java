@@ -0,0 +1,164 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registro central de las sentencias SQL de los repositorios de clientes, pedidos y detalles.
+ * Usar siempre el mismo texto permite que la caché de sentencias preparadas de cada conexión
+ * del pool las reutilice; las marcadas como de arranque se preparan al crear el pool para que
+ * las primeras pantallas no paguen el análisis en el servidor.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public enum SqlStatement {
+
+    // Clientes
+    CLIENTE_INSERT("INSERT INTO clientes (nombre, apellido, email, telefono) VALUES (?, ?, ?, ?)", false),
+    CLIENTE_FIND_BY_ID("SELECT id, nombre, apellido, email, telefono FROM clientes WHERE id = ?", true),
+    CLIENTE_FIND_BY_IDS("SELECT id, nombre, apellido, email, telefono FROM clientes WHERE id IN (%s)", false),
+    CLIENTE_FIND_ALL("SELECT id, nombre, apellido, email, telefono FROM clientes ORDER BY apellido, nombre", true),
+    CLIENTE_FIND_PAGE_FIRST("SELECT id, nombre, apellido, email, telefono FROM clientes ORDER BY apellido, nombre, id LIMIT ?", true),
+    CLIENTE_FIND_PAGE_AFTER("SELECT id, nombre, apellido, email, telefono FROM clientes " +
+            "WHERE (apellido, nombre, id) > (?, ?, ?) ORDER BY apellido, nombre, id LIMIT ?", false),
+    // Proyecciones (id, nombre, apellido) para listas de selección, cubiertas por idx_apellido_nombre e idx_nombre_apellido
+    CLIENTE_RESUMEN_PAGE_FIRST("SELECT id, nombre, apellido FROM clientes ORDER BY apellido, nombre, id LIMIT ?", true),
+    CLIENTE_RESUMEN_PAGE_AFTER("SELECT id, nombre, apellido FROM clientes " +
+            "WHERE (apellido, nombre, id) > (?, ?, ?) ORDER BY apellido, nombre, id LIMIT ?", false),
+    CLIENTE_RESUMEN_BY_PREFIX("(SELECT id, nombre, apellido FROM clientes WHERE apellido LIKE ? ORDER BY apellido, nombre, id LIMIT ?) " +
+            "UNION (SELECT id, nombre, apellido FROM clientes WHERE nombre LIKE ? ORDER BY nombre, apellido, id LIMIT ?) " +
+            "ORDER BY apellido, nombre, id LIMIT ?", false),
+    CLIENTE_STREAM_ALL("SELECT id, nombre, apellido, email, telefono FROM clientes ORDER BY id", false),
+    // Coincidencias por prefijo (índices B-tree) primero y después por palabras (FULLTEXT), cada rama acotada
+    // y ordenada antes de su LIMIT por el mismo índice que la resuelve
+    CLIENTE_SEARCH("SELECT id, nombre, apellido, email, telefono, MAX(prioridad) AS prioridad, MAX(relevancia) AS relevancia FROM (" +
+            "(SELECT id, nombre, apellido, email, telefono, 2 AS prioridad, 0 AS relevancia FROM clientes WHERE apellido LIKE ? ORDER BY apellido, nombre, id LIMIT ?) " +
+            "UNION ALL (SELECT id, nombre, apellido, email, telefono, 2, 0 FROM clientes WHERE nombre LIKE ? ORDER BY nombre, apellido, id LIMIT ?) " +
+            "UNION ALL (SELECT id, nombre, apellido, email, telefono, 2, 0 FROM clientes WHERE email LIKE ? ORDER BY email LIMIT ?) " +
+            "UNION ALL (SELECT id, nombre, apellido, email, telefono, 1, MATCH(nombre, apellido, email) AGAINST (? IN BOOLEAN MODE) AS puntuacion " +
+            "FROM clientes WHERE MATCH(nombre, apellido, email) AGAINST (? IN BOOLEAN MODE) ORDER BY puntuacion DESC LIMIT ?)" +
+            ") coincidencias GROUP BY id, nombre, apellido, email, telefono " +
+            "ORDER BY prioridad DESC, relevancia DESC, apellido, nombre, id LIMIT ?", false),
+    CLIENTE_UPDATE("UPDATE clientes SET nombre = ?, apellido = ?, email = ?, telefono = ? WHERE id = ?", false),
+    CLIENTE_DELETE("DELETE FROM clientes WHERE id = ?", false),
+    CLIENTE_COUNT("SELECT COUNT(*) FROM clientes", false),
+    CLIENTE_EXISTS_BY_EMAIL("SELECT COUNT(*) FROM clientes WHERE email = ?", false),
+    CLIENTE_EXISTS_BY_EMAIL_AND_ID_NOT("SELECT COUNT(*) FROM clientes WHERE email = ? AND id != ?", false),
+
+    // Pedidos
+    PEDIDO_INSERT("INSERT INTO pedidos (id_cliente, fecha, total) VALUES (?, ?, ?)", false),
+    PEDIDO_FIND_BY_ID("SELECT id, id_cliente, fecha, total FROM pedidos WHERE id = ?", false),
+    PEDIDO_FIND_ALL("SELECT id, id_cliente, fecha, total FROM pedidos ORDER BY fecha DESC", true),
+    PEDIDO_FIND_ALL_WITH_CLIENTE("SELECT p.id, p.id_cliente, p.fecha, p.total, c.nombre, c.apellido " +
+            "FROM pedidos p LEFT JOIN clientes c ON c.id = p.id_cliente ORDER BY p.fecha DESC", true),
+    PEDIDO_FIND_PAGE_FIRST("SELECT p.id, p.id_cliente, p.fecha, p.total, c.nombre, c.apellido " +
+            "FROM pedidos p LEFT JOIN clientes c ON c.id = p.id_cliente ORDER BY p.fecha DESC, p.id DESC LIMIT ?", true),
+    PEDIDO_FIND_PAGE_AFTER("SELECT p.id, p.id_cliente, p.fecha, p.total, c.nombre, c.apellido " +
+            "FROM pedidos p LEFT JOIN clientes c ON c.id = p.id_cliente " +
+            "WHERE (p.fecha, p.id) < (?, ?) ORDER BY p.fecha DESC, p.id DESC LIMIT ?", false),
+    PEDIDO_FIND_BY_CLIENTE("SELECT id, id_cliente, fecha, total FROM pedidos WHERE id_cliente = ? ORDER BY fecha DESC", true),
+    PEDIDO_STREAM_ALL("SELECT id, id_cliente, fecha, total FROM pedidos ORDER BY id", false),
+    // Filas de un mismo pedido consecutivas; los pedidos sin detalles aparecen con columnas de detalle NULL
+    PEDIDO_STREAM_WITH_DETALLES("SELECT p.id, p.id_cliente, p.fecha, p.total, d.id AS id_detalle, d.tipo_producto, " +
+            "d.descripcion, d.cantidad, d.costo_unitario, d.precio_unitario, d.subtotal, d.ganancia_bruta " +
+            "FROM pedidos p LEFT JOIN detalles_pedido d ON d.id_pedido = p.id ORDER BY p.id, d.id", false),
+    PEDIDO_UPDATE("UPDATE pedidos SET id_cliente = ?, fecha = ?, total = ? WHERE id = ?", false),
+    PEDIDO_DELETE("DELETE FROM pedidos WHERE id = ?", false),
+    PEDIDO_UPDATE_TOTAL_FROM_DETALLES("UPDATE pedidos SET total = (SELECT COALESCE(SUM(subtotal), 0) FROM detalles_pedido WHERE id_pedido = ?) WHERE id = ?", false),
+    PEDIDO_COUNT("SELECT COUNT(*) FROM pedidos", false),
+    PEDIDO_COUNT_BY_CLIENTE("SELECT COUNT(*) FROM pedidos WHERE id_cliente = ?", false),
+    PEDIDO_SUM_TOTAL_BY_CLIENTE("SELECT COALESCE(SUM(total), 0) FROM pedidos WHERE id_cliente = ?", false),
+    PEDIDO_STATS_BY_CLIENTE("SELECT COUNT(*), COALESCE(SUM(total), 0) FROM pedidos WHERE id_cliente = ?", false),
+    PEDIDO_STATS_BY_CLIENTES("SELECT id_cliente, COUNT(*), COALESCE(SUM(total), 0) FROM pedidos " +
+            "WHERE id_cliente IN (%s) GROUP BY id_cliente", false),
+    // Pedido, contacto del cliente y producto principal (detalle de mayor subtotal) en una sola consulta
+    PEDIDO_NOTIFICACION_BY_ID("SELECT p.id, p.id_cliente, p.estado, c.nombre, c.apellido, c.email, c.telefono, dp.tipo_producto " +
+            "FROM pedidos p LEFT JOIN clientes c ON c.id = p.id_cliente " +
+            "LEFT JOIN (SELECT id_pedido, tipo_producto, " +
+            "ROW_NUMBER() OVER (PARTITION BY id_pedido ORDER BY subtotal DESC, id) AS orden " +
+            "FROM detalles_pedido WHERE id_pedido = ?) dp ON dp.id_pedido = p.id AND dp.orden = 1 " +
+            "WHERE p.id = ?", false),
+    PEDIDO_NOTIFICACION_BY_IDS("SELECT p.id, p.id_cliente, p.estado, c.nombre, c.apellido, c.email, c.telefono, dp.tipo_producto " +
+            "FROM pedidos p LEFT JOIN clientes c ON c.id = p.id_cliente " +
+            "LEFT JOIN (SELECT id_pedido, tipo_producto, " +
+            "ROW_NUMBER() OVER (PARTITION BY id_pedido ORDER BY subtotal DESC, id) AS orden " +
+            "FROM detalles_pedido WHERE id_pedido IN (%1$s)) dp ON dp.id_pedido = p.id AND dp.orden = 1 " +
+            "WHERE p.id IN (%1$s)", false),
+    PEDIDO_TOP_CLIENTS_BY_GROSS_PROFIT("SELECT c.nombre, c.apellido, SUM(dp.ganancia_bruta) AS GananciaTotal " +
+            "FROM clientes c JOIN pedidos p ON c.id = p.id_cliente " +
+            "JOIN detalles_pedido dp ON p.id = dp.id_pedido " +
+            "WHERE p.estado = 'COMPLETADO' " +
+            "GROUP BY c.id ORDER BY GananciaTotal DESC LIMIT ?", true),
+
+    // Detalles de pedido
+    DETALLE_INSERT("INSERT INTO detalles_pedido (id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario) VALUES (?, ?, ?, ?, ?, ?)", false),
+    DETALLE_FIND_BY_ID("SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido WHERE id = ?", false),
+    DETALLE_FIND_ALL("SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido ORDER BY id_pedido", false),
+    DETALLE_FIND_BY_PEDIDO("SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido WHERE id_pedido = ? ORDER BY subtotal DESC", true),
+    DETALLE_STREAM_ALL("SELECT id, id_pedido, tipo_producto, descripcion, cantidad, costo_unitario, precio_unitario, subtotal, ganancia_bruta FROM detalles_pedido ORDER BY id", false),
+    DETALLE_UPDATE("UPDATE detalles_pedido SET id_pedido = ?, tipo_producto = ?, descripcion = ?, cantidad = ?, costo_unitario = ?, precio_unitario = ? WHERE id = ?", false),
+    DETALLE_DELETE("DELETE FROM detalles_pedido WHERE id = ?", false),
+    DETALLE_PRINCIPAL_PRODUCT("SELECT tipo_producto FROM detalles_pedido WHERE id_pedido = ? ORDER BY subtotal DESC, id LIMIT 1", true),
+    DETALLE_PRINCIPAL_PRODUCTS_BY_PEDIDOS("SELECT id_pedido, tipo_producto FROM (" +
+            "SELECT id_pedido, tipo_producto, ROW_NUMBER() OVER (PARTITION BY id_pedido ORDER BY subtotal DESC, id) AS orden " +
+            "FROM detalles_pedido WHERE id_pedido IN (%s)) principales WHERE orden = 1", false),
+    DETALLE_GENERATED_COLUMNS_BY_IDS("SELECT id, subtotal, ganancia_bruta FROM detalles_pedido WHERE id IN (%s)", false),
+
+    // Estadísticas
+    TABLE_ROWS_ESTIMATE("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", false);
+
+    private final String sql;
+    private final boolean warmup;
+
+    SqlStatement(String sql, boolean warmup) {
+        this.sql = sql;
+        this.warmup = warmup;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Completa una sentencia con lista IN, como {@link #DETALLE_GENERATED_COLUMNS_BY_IDS}.
+     * Las sentencias que repiten la lista usan {@code %1$s} en cada aparición.
+     * Cada tamaño de lista produce un texto distinto, que la caché de sentencias trata por separado.
+     *
+     * @param size Número de parámetros de la lista IN
+     * @return SQL con tantos marcadores como se indique
+     */
+    public String getSql(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("La lista IN debe tener al menos un elemento");
+        }
+        StringBuilder placeholders = new StringBuilder("?");
+        for (int i = 1; i < size; i++) {
+            placeholders.append(", ?");
+        }
+        return String.format(sql, placeholders);
+    }
+
+    /**
+     * @return true si la sentencia se prepara al arrancar el pool
+     */
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Obtiene el texto de las sentencias que se preparan al arrancar.
+     *
+     * @return Lista inmutable de SQL
+     */
+    public static List<String> getWarmupStatements() {
+        List<String> statements = new ArrayList<>();
+        for (SqlStatement statement : values()) {
+            if (statement.warmup) {
+                statements.add(statement.sql);
+            }
+        }
+        return Collections.unmodifiableList(statements);
+    }
+}
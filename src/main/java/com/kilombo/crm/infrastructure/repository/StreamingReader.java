@@ -0,0 +1,85 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import com.kilombo.crm.infrastructure.database.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Lectura fila a fila de consultas grandes con resultados en streaming de MySQL.
+ * Con una sentencia de solo avance, solo lectura y fetchSize Integer.MIN_VALUE, Connector/J
+ * no carga el resultado completo en memoria: cada fila se lee del socket, se convierte y se entrega.
+ * Mientras dura el recorrido la conexión no admite otras consultas y queda excluida de la
+ * reclamación de conexiones abandonadas del pool, ya que una exportación puede superar db.removeAbandonedTimeout.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class StreamingReader {
+
+    /**
+     * Resolución de los índices de columna, una vez por resultado.
+     */
+    @FunctionalInterface
+    interface ColumnResolver {
+        int[] resolve(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Conversión de la fila actual del ResultSet en un objeto, leyendo las columnas por índice.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs, int[] columns) throws SQLException;
+    }
+
+    private StreamingReader() {
+    }
+
+    /**
+     * Ejecuta la consulta en streaming y entrega cada fila convertida a la acción.
+     *
+     * @param conn Conexión dedicada al recorrido
+     * @param sql Consulta a recorrer
+     * @param resolver Resolución de los índices de columna que recibe el mapper
+     * @param mapper Conversión de cada fila
+     * @param action Acción por fila; una excepción suya detiene el recorrido
+     * @param <T> Tipo de los objetos entregados
+     * @return Número de filas entregadas
+     * @throws SQLException si falla la consulta o la lectura
+     */
+    static <T> long forEach(Connection conn, String sql, ColumnResolver resolver, RowMapper<T> mapper,
+                            Consumer<? super T> action) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, sql);
+             ResultSet rs = stmt.executeQuery()) {
+            int[] columns = resolver.resolve(rs);
+            long rows = 0;
+            while (rs.next()) {
+                action.accept(mapper.map(rs, columns));
+                rows++;
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Prepara una sentencia de streaming. No pasa por la caché de sentencias del pool,
+     * que solo cachea prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys).
+     * Excluye la conexión de la reclamación de abandonadas, también cuando el llamador
+     * recorre el resultado por su cuenta en lugar de usar {@link #forEach}.
+     *
+     * @param conn Conexión dedicada al recorrido
+     * @param sql Consulta a recorrer
+     * @return Sentencia de solo avance y solo lectura con fetchSize de streaming
+     * @throws SQLException si no se puede preparar
+     */
+    static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        ConnectionPool.exemptFromAbandonedReclaim(conn);
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+}
@@ -0,0 +1,43 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import com.kilombo.crm.infrastructure.database.ConexionBD;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Estimaciones de tamaño de tabla a partir de las estadísticas de InnoDB.
+ * TABLE_ROWS se obtiene por muestreo y MySQL 8 la guarda en caché
+ * (information_schema_stats_expiry), así que solo sirve como orden de magnitud.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class TableStatistics {
+
+    private TableStatistics() {
+    }
+
+    /**
+     * Estima el número de filas de una tabla del esquema actual.
+     *
+     * @param table Nombre de la tabla
+     * @return Filas estimadas, o -1 si la estadística no está disponible
+     * @throws SQLException si falla la consulta
+     */
+    static long estimateRows(String table) throws SQLException {
+        try (Connection conn = ConexionBD.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SqlStatement.TABLE_ROWS_ESTIMATE.getSql())) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    long rows = rs.getLong(1);
+                    return rs.wasNull() ? -1 : rows;
+                }
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.kilombo.crm.presentation;
+
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
+import com.kilombo.crm.application.service.ClienteService;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Selector de clientes para los formularios y filtros de pedidos.
+ * En lugar de cargar todos los clientes, muestra como máximo {@value #LIMITE} resultados
+ * cuyo apellido o nombre empieza por el texto escrito en el campo de búsqueda.
+ * La búsqueda se lanza al dejar de escribir y se ejecuta en el {@link DatabaseExecutor}.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public class ClienteSelector extends JPanel {
+
+    private static final Logger logger = Logger.getLogger(ClienteSelector.class.getName());
+
+    // Clientes máximos en la lista desplegable
+    static final int LIMITE = 50;
+
+    // Espera tras la última pulsación antes de consultar la base de datos
+    private static final int RETARDO_BUSQUEDA_MS = 300;
+
+    // Elemento de la opción sin cliente (por ejemplo, "Todos los clientes")
+    private static final ClienteResumenDTO SIN_CLIENTE = new ClienteResumenDTO(null, null, null);
+
+    private final ClienteService clienteService;
+    private final String opcionSinCliente;
+    private final JTextField txtBuscar;
+    private final JComboBox<ClienteResumenDTO> cmbClientes;
+    private final Timer retardo;
+
+    private Consumer<ClienteResumenDTO> alSeleccionar;
+    // Identifica la última búsqueda para descartar respuestas de textos anteriores
+    private int busquedaActual = 0;
+    // Evita notificar la selección mientras se reemplazan los resultados
+    private boolean actualizando = false;
+
+    /**
+     * Constructor del selector. Carga los primeros clientes al crearse.
+     *
+     * @param clienteService Servicio de clientes
+     * @param opcionSinCliente Texto de la opción sin cliente, o null si siempre debe elegirse uno
+     */
+    public ClienteSelector(ClienteService clienteService, String opcionSinCliente) {
+        super(new BorderLayout(5, 0));
+        this.clienteService = clienteService;
+        this.opcionSinCliente = opcionSinCliente;
+
+        txtBuscar = new JTextField(10);
+        txtBuscar.setToolTipText("Escriba el inicio del apellido o del nombre");
+        cmbClientes = new JComboBox<>();
+        cmbClientes.setPrototypeDisplayValue(new ClienteResumenDTO(0, "XXXXXXXXXXXX", "XXXXXXXXXXXX"));
+        cmbClientes.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object texto = SIN_CLIENTE.equals(value) ? opcionSinCliente : value;
+                return super.getListCellRendererComponent(list, texto, index, isSelected, cellHasFocus);
+            }
+        });
+        cmbClientes.addActionListener(e -> {
+            if (!actualizando && alSeleccionar != null) {
+                alSeleccionar.accept(getClienteSeleccionado());
+            }
+        });
+
+        retardo = new Timer(RETARDO_BUSQUEDA_MS, e -> buscar());
+        retardo.setRepeats(false);
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                retardo.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                retardo.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                retardo.restart();
+            }
+        });
+        txtBuscar.addActionListener(e -> {
+            retardo.stop();
+            buscar();
+        });
+
+        add(txtBuscar, BorderLayout.WEST);
+        add(cmbClientes, BorderLayout.CENTER);
+
+        if (opcionSinCliente != null) {
+            cmbClientes.addItem(SIN_CLIENTE);
+        }
+        buscar();
+    }
+
+    /**
+     * Consulta los clientes que empiezan por el texto escrito y reemplaza los resultados.
+     */
+    private void buscar() {
+        String prefijo = txtBuscar.getText().trim();
+        int busqueda = ++busquedaActual;
+
+        DatabaseExecutor.getInstance().submit(() -> clienteService.buscarResumenesClientes(prefijo, LIMITE),
+            clientes -> {
+                if (busqueda != busquedaActual) {
+                    return; // Llegó antes la respuesta de un texto posterior
+                }
+                mostrarResultados(clientes);
+            },
+            e -> {
+                logger.log(Level.WARNING, "Error al buscar clientes: " + e.getMessage(), e);
+                JOptionPane.showMessageDialog(this, "Error al buscar clientes: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+
+    /**
+     * Reemplaza los clientes de la lista conservando la selección actual, que se mantiene
+     * visible aunque no esté entre los resultados.
+     *
+     * @param clientes Clientes encontrados
+     */
+    private void mostrarResultados(List<ClienteResumenDTO> clientes) {
+        ClienteResumenDTO seleccionado = (ClienteResumenDTO) cmbClientes.getSelectedItem();
+        actualizando = true;
+        try {
+            cmbClientes.removeAllItems();
+            if (opcionSinCliente != null) {
+                cmbClientes.addItem(SIN_CLIENTE);
+            }
+            if (seleccionado != null && !SIN_CLIENTE.equals(seleccionado) && !clientes.contains(seleccionado)) {
+                cmbClientes.addItem(seleccionado);
+            }
+            for (ClienteResumenDTO cliente : clientes) {
+                cmbClientes.addItem(cliente);
+            }
+            if (seleccionado != null) {
+                cmbClientes.setSelectedItem(seleccionado);
+            }
+        } finally {
+            actualizando = false;
+        }
+    }
+
+    /**
+     * Selecciona un cliente, añadiéndolo a la lista si no está entre los resultados actuales.
+     * Notifica la selección como si la hubiera hecho el usuario.
+     *
+     * @param cliente Cliente a seleccionar
+     */
+    public void seleccionar(ClienteResumenDTO cliente) {
+        if (((DefaultComboBoxModel<ClienteResumenDTO>) cmbClientes.getModel()).getIndexOf(cliente) < 0) {
+            cmbClientes.insertItemAt(cliente, opcionSinCliente != null ? 1 : 0);
+        }
+        cmbClientes.setSelectedItem(cliente);
+    }
+
+    /**
+     * Obtiene el cliente seleccionado.
+     *
+     * @return Cliente seleccionado, o null si no hay ninguno o está elegida la opción sin cliente
+     */
+    public ClienteResumenDTO getClienteSeleccionado() {
+        ClienteResumenDTO cliente = (ClienteResumenDTO) cmbClientes.getSelectedItem();
+        return cliente == null || cliente.getId() == null ? null : cliente;
+    }
+
+    /**
+     * Establece la acción a ejecutar cuando cambia la selección.
+     * No se invoca al reemplazar los resultados de una búsqueda.
+     *
+     * @param alSeleccionar Recibe el cliente seleccionado, o null para la opción sin cliente
+     */
+    public void setAlSeleccionar(Consumer<ClienteResumenDTO> alSeleccionar) {
+        this.alSeleccionar = alSeleccionar;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        txtBuscar.setEnabled(enabled);
+        cmbClientes.setEnabled(enabled);
+    }
+
+    @Override
+    public boolean requestFocusInWindow() {
+        return txtBuscar.requestFocusInWindow();
+    }
+}
@@ -0,0 +1,172 @@
+package com.kilombo.crm.presentation;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ejecutor único para todo el acceso a base de datos desde la interfaz Swing.
+ * Las tareas se ejecutan fuera del EDT y su resultado (o error) se entrega en el EDT,
+ * de modo que ninguna llamada JDBC bloquea la interfaz ni el ForkJoinPool común.
+ * En Java 21 o superior usa un hilo virtual por tarea; en Java 17 recurre a un número
+ * acotado de hilos de plataforma. En ambos casos la concurrencia real hacia la base de datos
+ * la limita el pool de conexiones (db.maxActive).
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+public final class DatabaseExecutor {
+
+    private static final Logger logger = Logger.getLogger(DatabaseExecutor.class.getName());
+
+    private static final int PLATFORM_THREADS = 8;
+    private static final long PLATFORM_KEEPALIVE_S = 60;
+
+    private static DatabaseExecutor instance;
+
+    /**
+     * Acción de base de datos sin resultado.
+     */
+    @FunctionalInterface
+    public interface DatabaseAction {
+        void run() throws Exception;
+    }
+
+    private final ExecutorService executor;
+
+    private DatabaseExecutor() {
+        this.executor = createExecutor();
+    }
+
+    /**
+     * Obtiene la instancia única del ejecutor (Singleton).
+     *
+     * @return Instancia de DatabaseExecutor
+     */
+    public static DatabaseExecutor getInstance() {
+        if (instance == null) {
+            synchronized (DatabaseExecutor.class) {
+                if (instance == null) {
+                    instance = new DatabaseExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Ejecuta una consulta fuera del EDT y entrega su resultado en el EDT.
+     *
+     * @param task Trabajo de base de datos
+     * @param onSuccess Recibe el resultado en el EDT; puede ser null
+     * @param onError Recibe el error en el EDT; puede ser null (solo se registra)
+     * @param <T> Tipo del resultado
+     * @return Futuro que se completa en el EDT después de invocar onSuccess u onError
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, Consumer<? super T> onSuccess,
+                                           Consumer<? super Exception> onError) {
+        CompletableFuture<T> delivered = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T result;
+                try {
+                    result = task.call();
+                } catch (Exception e) {
+                    SwingUtilities.invokeLater(() -> deliverError(delivered, e, onError));
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> deliverResult(delivered, result, onSuccess));
+            });
+        } catch (RejectedExecutionException e) {
+            SwingUtilities.invokeLater(() -> deliverError(delivered, e, onError));
+        }
+        return delivered;
+    }
+
+    /**
+     * Ejecuta una acción sin resultado fuera del EDT y avisa en el EDT al terminar.
+     *
+     * @param action Trabajo de base de datos
+     * @param onSuccess Se ejecuta en el EDT si la acción termina bien; puede ser null
+     * @param onError Recibe el error en el EDT; puede ser null (solo se registra)
+     * @return Futuro que se completa en el EDT después de invocar onSuccess u onError
+     */
+    public CompletableFuture<Void> execute(DatabaseAction action, Runnable onSuccess,
+                                           Consumer<? super Exception> onError) {
+        return submit(() -> {
+            action.run();
+            return null;
+        }, onSuccess != null ? result -> onSuccess.run() : null, onError);
+    }
+
+    /**
+     * Detiene el ejecutor al cerrar la aplicación; las tareas en curso terminan por su cuenta.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> void deliverResult(CompletableFuture<T> delivered, T result, Consumer<? super T> onSuccess) {
+        try {
+            if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+            delivered.complete(result);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error al mostrar el resultado de una tarea de base de datos: " + e.getMessage(), e);
+            delivered.completeExceptionally(e);
+        }
+    }
+
+    private static void deliverError(CompletableFuture<?> delivered, Exception error, Consumer<? super Exception> onError) {
+        try {
+            if (onError != null) {
+                onError.accept(error);
+            } else {
+                logger.log(Level.SEVERE, "Error en tarea de base de datos: " + error.getMessage(), error);
+            }
+        } finally {
+            delivered.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Crea el ejecutor de hilos virtuales si la JVM lo ofrece (Java 21+); si no, uno acotado
+     * de hilos de plataforma. Se localiza por reflexión porque el proyecto compila para Java 17.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService virtualExecutor = (ExecutorService) factory.invoke(null);
+            logger.info("Ejecutor de base de datos con hilos virtuales");
+            return virtualExecutor;
+        } catch (NoSuchMethodException e) {
+            logger.info("Hilos virtuales no disponibles; ejecutor de base de datos con " + PLATFORM_THREADS + " hilos");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.log(Level.WARNING, "No se pudo crear el ejecutor de hilos virtuales: " + e.getMessage(), e);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor platformExecutor = new ThreadPoolExecutor(
+                PLATFORM_THREADS, PLATFORM_THREADS, PLATFORM_KEEPALIVE_S, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kilombo-db-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        platformExecutor.allowCoreThreadTimeOut(true);
+        return platformExecutor;
+    }
+}
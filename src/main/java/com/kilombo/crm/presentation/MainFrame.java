@@ -3,12 +3,12 @@ package com.kilombo.crm.presentation;
 import com.kilombo.crm.application.service.ClienteService;
 import com.kilombo.crm.application.service.PedidoService;
 import com.kilombo.crm.domain.repository.ClienteRepository;
-import com.kilombo.crm.domain.repository.DetallePedidoRepository;
 import com.kilombo.crm.domain.repository.PedidoRepository;
 import com.kilombo.crm.infrastructure.database.ConexionBD;
+import com.kilombo.crm.infrastructure.metrics.DatabaseMetrics;
 import com.kilombo.crm.infrastructure.repository.ClienteRepositoryImpl;
-import com.kilombo.crm.infrastructure.repository.DetallePedidoRepositoryImpl;
 import com.kilombo.crm.infrastructure.repository.PedidoRepositoryImpl;
+import com.kilombo.crm.infrastructure.repository.SqlStatement;
 import com.kilombo.crm.application.service.InformeService;
 import com.kilombo.crm.presentation.panel.*;
 
@@ -16,6 +16,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Ventana principal de la aplicación KilomboCRM.
@@ -66,10 +67,13 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
      * Inicializa los servicios de la aplicación.
      */
     private void initServices() {
-        // Crear repositorios
-        ClienteRepositoryImpl clienteRepository = new ClienteRepositoryImpl();
-        PedidoRepositoryImpl pedidoRepository = new PedidoRepositoryImpl();
-        DetallePedidoRepositoryImpl detallePedidoRepository = new DetallePedidoRepositoryImpl();
+        // Precalentar la caché de sentencias con las consultas de las primeras pantallas
+        ConexionBD.getInstance().setWarmupStatements(SqlStatement.getWarmupStatements());
+
+        // Crear repositorios (instrumentados para las métricas de latencia)
+        DatabaseMetrics metrics = DatabaseMetrics.getInstance();
+        ClienteRepository clienteRepository = metrics.instrument(ClienteRepository.class, new ClienteRepositoryImpl());
+        PedidoRepository pedidoRepository = metrics.instrument(PedidoRepository.class, new PedidoRepositoryImpl());
 
         // Crear servicios
         clienteService = new ClienteService(clienteRepository);
@@ -84,15 +88,14 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
         setLayout(new BorderLayout());
 
         // Crear paneles de contenido
-        clientePanel = new ClientePanel(clienteService);
+        clientePanel = new ClientePanel(clienteService, pedidoService);
         dashboardBIPanel = new DashboardBIPanel(informeService);
 
-        // Crear repositorios para WhatsApp
-        ClienteRepositoryImpl clienteRepository = new ClienteRepositoryImpl();
-        PedidoRepositoryImpl pedidoRepository = new PedidoRepositoryImpl();
-        DetallePedidoRepositoryImpl detallePedidoRepository = new DetallePedidoRepositoryImpl();
+        // Crear repositorio para WhatsApp y email
+        PedidoRepository pedidoRepository = DatabaseMetrics.getInstance()
+                .instrument(PedidoRepository.class, new PedidoRepositoryImpl());
 
-        pedidoPanel = new PedidoPanel(pedidoService, clienteService, pedidoRepository, clienteRepository, detallePedidoRepository);
+        pedidoPanel = new PedidoPanel(pedidoService, clienteService, pedidoRepository);
         configuracionPanel = new ConfiguracionPanel();
         additionalTablePanel = new AdditionalTablePanel();
 
@@ -225,10 +228,8 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
         txtBuscar.setToolTipText("Buscar por nombre, apellido o email");
         JButton btnBuscar = new JButton("🔍 Buscar");
         btnBuscar.setFont(new Font("Arial", Font.PLAIN, 8));
-        btnBuscar.addActionListener(e -> {
-            // TODO: Implementar búsqueda en ClientePanel
-            JOptionPane.showMessageDialog(this, "Funcionalidad de búsqueda próximamente", "Información", JOptionPane.INFORMATION_MESSAGE);
-        });
+        btnBuscar.addActionListener(e -> clientePanel.buscarClientes(txtBuscar.getText()));
+        txtBuscar.addActionListener(e -> clientePanel.buscarClientes(txtBuscar.getText()));
 
         actionPanel.add(btnNuevoCliente);
         actionPanel.add(Box.createHorizontalStrut(10));
@@ -367,7 +368,24 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
         
         JLabel lblEstado = new JLabel(" KilomboCRM v1.0 - Listo");
         lblEstado.setFont(lblEstado.getFont().deriveFont(Font.PLAIN, 11f));
-        
+
+        // Reflejar al instante la caída y recuperación de la base de datos
+        ConexionBD.getInstance().addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                boolean sinConexion = Boolean.TRUE.equals(evt.getNewValue());
+                SwingUtilities.invokeLater(() -> {
+                    if (sinConexion) {
+                        lblEstado.setText(" KilomboCRM v1.0 - Modo sin conexión: base de datos no disponible, reintentando...");
+                        lblEstado.setForeground(Color.RED);
+                    } else {
+                        lblEstado.setText(" KilomboCRM v1.0 - Listo");
+                        lblEstado.setForeground(Color.BLACK);
+                    }
+                });
+            }
+        });
+
         barraEstado.add(lblEstado, BorderLayout.WEST);
         
         add(barraEstado, BorderLayout.SOUTH);
@@ -387,25 +405,29 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
      * Actualiza todos los datos de la aplicación.
      */
     private void actualizarTodo() {
-        clientePanel.cargarClientes();
-        pedidoPanel.cargarPedidos();
-        dashboardBIPanel.refrescarDatos();
-        JOptionPane.showMessageDialog(
-            this,
-            "Datos actualizados correctamente",
-            "Actualizar",
-            JOptionPane.INFORMATION_MESSAGE
-        );
+        // Las cargas se completan en el EDT; cada panel muestra sus propios errores
+        CompletableFuture.allOf(
+            clientePanel.cargarClientesAsync(),
+            pedidoPanel.cargarPedidos(),
+            dashboardBIPanel.refrescarDatos()
+        ).whenComplete((result, error) -> {
+            if (error == null) {
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Datos actualizados correctamente",
+                    "Actualizar",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+            }
+        });
     }
     
     /**
      * Verifica la conexión a la base de datos.
      */
     private void verificarConexion() {
-        try {
-            ConexionBD conexion = ConexionBD.getInstance();
-            boolean conectado = conexion.testConnection();
-            
+        ConexionBD conexion = ConexionBD.getInstance();
+        DatabaseExecutor.getInstance().submit(conexion::testConnection, conectado -> {
             if (conectado) {
                 JOptionPane.showMessageDialog(
                     this,
@@ -423,14 +445,12 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
                     JOptionPane.ERROR_MESSAGE
                 );
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(
-                this,
-                "Error al verificar la conexión:\n" + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE
-            );
-        }
+        }, e -> JOptionPane.showMessageDialog(
+            this,
+            "Error al verificar la conexión:\n" + e.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE
+        ));
     }
     
     /**
@@ -478,6 +498,7 @@ public class MainFrame extends JFrame implements NavigationPanel.NavigationListe
         if (confirmacion == JOptionPane.YES_OPTION) {
             // Cerrar conexión a la base de datos
             try {
+                DatabaseExecutor.getInstance().shutdown();
                 ConexionBD.getInstance().closeConnection();
             } catch (Exception e) {
                 System.err.println("Error al cerrar conexión: " + e.getMessage());
@@ -4,6 +4,7 @@ import com.kilombo.crm.application.dto.PedidoDTO;
 import com.kilombo.crm.application.service.EmailServiceImpl;
 import com.kilombo.crm.application.service.WhatsAppServiceImpl;
 import com.kilombo.crm.domain.exception.ValidationException;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 
 import javax.swing.*;
 import java.awt.*;
@@ -199,22 +200,29 @@ public class MessageConfirmationDialog extends JDialog {
     }
 
     private void enviarPorWhatsApp() {
-        try {
-            logger.info("Generando URL de WhatsApp para pedido ID: " + pedido.getId());
-            String whatsappUrl = whatsAppService.generateWhatsAppUrl(pedido.getId());
-
-            logger.info("Abriendo WhatsApp Web con URL: " + whatsappUrl);
-            Desktop.getDesktop().browse(URI.create(whatsappUrl));
-
-            JOptionPane.showMessageDialog(
-                this,
-                "Se ha abierto WhatsApp Web con el mensaje preparado.\n" +
-                "Revisa el contenido y envíalo manualmente.",
-                "WhatsApp Preparado",
-                JOptionPane.INFORMATION_MESSAGE
-            );
+        logger.info("Generando URL de WhatsApp para pedido ID: " + pedido.getId());
+
+        // La URL se genera con datos de la base de datos: fuera del EDT
+        DatabaseExecutor.getInstance().submit(() -> whatsAppService.generateWhatsAppUrl(pedido.getId()), whatsappUrl -> {
+            try {
+                logger.info("Abriendo WhatsApp Web con URL: " + whatsappUrl);
+                Desktop.getDesktop().browse(URI.create(whatsappUrl));
+
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Se ha abierto WhatsApp Web con el mensaje preparado.\n" +
+                    "Revisa el contenido y envíalo manualmente.",
+                    "WhatsApp Preparado",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+            } catch (Exception e) {
+                mostrarErrorWhatsApp(e);
+            }
+        }, this::mostrarErrorWhatsApp);
+    }
 
-        } catch (ValidationException e) {
+    private void mostrarErrorWhatsApp(Exception e) {
+        if (e instanceof ValidationException) {
             logger.warning("Error de validación en WhatsApp: " + e.getMessage());
             JOptionPane.showMessageDialog(
                 this,
@@ -222,7 +230,7 @@ public class MessageConfirmationDialog extends JDialog {
                 "Error de Validación",
                 JOptionPane.WARNING_MESSAGE
             );
-        } catch (Exception e) {
+        } else {
             logger.log(Level.SEVERE, "Error al abrir WhatsApp: " + e.getMessage(), e);
             JOptionPane.showMessageDialog(
                 this,
@@ -1,7 +1,9 @@
 package com.kilombo.crm.presentation.dialog;
 
-import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
 import com.kilombo.crm.application.dto.PedidoDTO;
+import com.kilombo.crm.application.service.ClienteService;
+import com.kilombo.crm.presentation.ClienteSelector;
 import javax.swing.*;
 import javax.swing.text.NumberFormatter;
 import java.awt.*;
@@ -10,7 +12,6 @@ import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.List;
 
 /**
  * Diálogo modal para crear o editar un pedido.
@@ -21,14 +22,15 @@ import java.util.List;
  */
 public class PedidoDialog extends JDialog {
     
-    private JComboBox<ClienteComboItem> cmbCliente;
+    private ClienteSelector selectorCliente;
     private JSpinner spnFecha;
     private JFormattedTextField txtTotal;
     private JButton btnGuardar;
     private JButton btnCancelar;
     
     private PedidoDTO pedido;
-    private List<ClienteDTO> clientes;
+    private final ClienteService clienteService;
+    private final ClienteResumenDTO clienteActual;
     private boolean confirmado = false;
     
     /**
@@ -36,12 +38,15 @@ public class PedidoDialog extends JDialog {
      * 
      * @param parent Ventana padre
      * @param pedido Pedido a editar, o null para crear uno nuevo
-     * @param clientes Lista de clientes disponibles
+     * @param clienteActual Cliente del pedido a editar, o null para crear uno nuevo
+     * @param clienteService Servicio de clientes para buscar en el selector
      */
-    public PedidoDialog(Frame parent, PedidoDTO pedido, List<ClienteDTO> clientes) {
+    public PedidoDialog(Frame parent, PedidoDTO pedido, ClienteResumenDTO clienteActual,
+                        ClienteService clienteService) {
         super(parent, pedido == null ? "Nuevo Pedido" : "Editar Pedido", true);
         this.pedido = pedido;
-        this.clientes = clientes;
+        this.clienteActual = clienteActual;
+        this.clienteService = clienteService;
         
         initComponents();
         
@@ -76,9 +81,8 @@ public class PedidoDialog extends JDialog {
         gbc.gridx = 1;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.weightx = 1.0;
-        cmbCliente = new JComboBox<>();
-        cargarClientes();
-        panelFormulario.add(cmbCliente, gbc);
+        selectorCliente = new ClienteSelector(clienteService, null);
+        panelFormulario.add(selectorCliente, gbc);
         
         // Fecha
         gbc.gridx = 0;
@@ -159,35 +163,14 @@ public class PedidoDialog extends JDialog {
         );
     }
     
-    /**
-     * Carga los clientes en el combo box.
-     */
-    private void cargarClientes() {
-        cmbCliente.removeAllItems();
-        
-        if (clientes == null || clientes.isEmpty()) {
-            cmbCliente.addItem(new ClienteComboItem(null, "No hay clientes disponibles"));
-            cmbCliente.setEnabled(false);
-            return;
-        }
-        
-        for (ClienteDTO cliente : clientes) {
-            cmbCliente.addItem(new ClienteComboItem(cliente.getId(), cliente.getNombreCompleto()));
-        }
-    }
-    
     /**
      * Carga los datos del pedido en el formulario.
      */
     private void cargarDatos() {
         if (pedido != null) {
             // Seleccionar cliente
-            for (int i = 0; i < cmbCliente.getItemCount(); i++) {
-                ClienteComboItem item = cmbCliente.getItemAt(i);
-                if (item.getId() != null && item.getId().equals(pedido.getIdCliente())) {
-                    cmbCliente.setSelectedIndex(i);
-                    break;
-                }
+            if (clienteActual != null) {
+                selectorCliente.seleccionar(clienteActual);
             }
             
             // Establecer fecha
@@ -210,10 +193,9 @@ public class PedidoDialog extends JDialog {
      */
     private boolean validarDatos() {
         // Validar cliente
-        ClienteComboItem clienteSeleccionado = (ClienteComboItem) cmbCliente.getSelectedItem();
-        if (clienteSeleccionado == null || clienteSeleccionado.getId() == null) {
+        if (selectorCliente.getClienteSeleccionado() == null) {
             mostrarError("Debe seleccionar un cliente");
-            cmbCliente.requestFocus();
+            selectorCliente.requestFocusInWindow();
             return false;
         }
         
@@ -256,9 +238,9 @@ public class PedidoDialog extends JDialog {
             pedido = new PedidoDTO();
         }
         
-        ClienteComboItem clienteSeleccionado = (ClienteComboItem) cmbCliente.getSelectedItem();
+        ClienteResumenDTO clienteSeleccionado = selectorCliente.getClienteSeleccionado();
         pedido.setIdCliente(clienteSeleccionado.getId());
-        pedido.setNombreCliente(clienteSeleccionado.getNombre());
+        pedido.setNombreCliente(clienteSeleccionado.getNombreCompleto());
         
         Date fechaSeleccionada = (Date) spnFecha.getValue();
         LocalDate fecha = fechaSeleccionada.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
@@ -310,30 +292,4 @@ public class PedidoDialog extends JDialog {
     public boolean isConfirmado() {
         return confirmado;
     }
-    
-    /**
-     * Clase interna para representar items del combo box de clientes.
-     */
-    private static class ClienteComboItem {
-        private final Integer id;
-        private final String nombre;
-        
-        public ClienteComboItem(Integer id, String nombre) {
-            this.id = id;
-            this.nombre = nombre;
-        }
-        
-        public Integer getId() {
-            return id;
-        }
-        
-        public String getNombre() {
-            return nombre;
-        }
-        
-        @Override
-        public String toString() {
-            return nombre;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package com.kilombo.crm.presentation.panel;
 
-import com.kilombo.crm.domain.exception.DatabaseException;
 import com.kilombo.crm.infrastructure.repository.GenericRepository;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 import com.kilombo.crm.presentation.table.GenericTableModel;
 
 import javax.swing.*;
@@ -176,40 +176,24 @@ public class AdditionalTablePanel extends JPanel {
      * Carga la lista de tablas disponibles en la base de datos.
      */
     private void loadTableList() {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                showProgress("Cargando lista de tablas...");
-                try {
-                    List<String> tables = genericRepository.getAllTables();
-                    SwingUtilities.invokeLater(() -> {
-                        tableSelector.removeAllItems();
-                        for (String tableName : tables) {
-                            tableSelector.addItem(tableName);
-                        }
-                        updateStatus("Lista de tablas actualizada: " + tables.size() + " tablas encontradas");
-                        txtTableInfo.setText("Tablas disponibles: " + tables.size() + "\n" +
-                                           "Seleccione una tabla para explorar sus datos.");
-                    });
-                } catch (DatabaseException e) {
-                    SwingUtilities.invokeLater(() -> {
-                        updateStatus("Error al cargar tablas: " + e.getMessage());
-                        JOptionPane.showMessageDialog(AdditionalTablePanel.this,
-                            "Error al cargar lista de tablas:\n" + e.getMessage(),
-                            "Error de Base de Datos",
-                            JOptionPane.ERROR_MESSAGE);
-                    });
-                }
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                hideProgress();
+        showProgress("Cargando lista de tablas...");
+        DatabaseExecutor.getInstance().submit(genericRepository::getAllTables, tables -> {
+            hideProgress();
+            tableSelector.removeAllItems();
+            for (String tableName : tables) {
+                tableSelector.addItem(tableName);
             }
-        };
-
-        worker.execute();
+            updateStatus("Lista de tablas actualizada: " + tables.size() + " tablas encontradas");
+            txtTableInfo.setText("Tablas disponibles: " + tables.size() + "\n" +
+                               "Seleccione una tabla para explorar sus datos.");
+        }, e -> {
+            hideProgress();
+            updateStatus("Error al cargar tablas: " + e.getMessage());
+            JOptionPane.showMessageDialog(AdditionalTablePanel.this,
+                "Error al cargar lista de tablas:\n" + e.getMessage(),
+                "Error de Base de Datos",
+                JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     /**
@@ -225,41 +209,25 @@ public class AdditionalTablePanel extends JPanel {
             return;
         }
 
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                showProgress("Cargando datos de tabla '" + selectedTable + "'...");
-                try {
-                    List<Map<String, Object>> data = genericRepository.findDynamicTableData(selectedTable);
-                    List<Map<String, Object>> columnsInfo = genericRepository.getTableColumnsInfo(selectedTable);
-                    int rowCount = genericRepository.getTableRowCount(selectedTable);
-
-                    SwingUtilities.invokeLater(() -> {
-                        tableModel.setData(data);
-                        adjustColumnWidths();
-                        updateTableInfo(selectedTable, data.size(), columnsInfo, rowCount);
-                        updateStatus("Tabla '" + selectedTable + "' cargada: " + data.size() + " filas");
-                    });
-
-                } catch (DatabaseException e) {
-                    SwingUtilities.invokeLater(() -> {
-                        updateStatus("Error al cargar tabla '" + selectedTable + "': " + e.getMessage());
-                        JOptionPane.showMessageDialog(AdditionalTablePanel.this,
-                            "Error al cargar datos de tabla '" + selectedTable + "':\n" + e.getMessage(),
-                            "Error de Base de Datos",
-                            JOptionPane.ERROR_MESSAGE);
-                    });
-                }
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                hideProgress();
-            }
-        };
-
-        worker.execute();
+        showProgress("Cargando datos de tabla '" + selectedTable + "'...");
+        DatabaseExecutor.getInstance().submit(() -> new TableSnapshot(
+                genericRepository.findDynamicTableData(selectedTable),
+                genericRepository.getTableColumnsInfo(selectedTable),
+                genericRepository.getTableRowCount(selectedTable)
+        ), snapshot -> {
+            hideProgress();
+            tableModel.setData(snapshot.data);
+            adjustColumnWidths();
+            updateTableInfo(selectedTable, snapshot.data.size(), snapshot.columnsInfo, snapshot.rowCount);
+            updateStatus("Tabla '" + selectedTable + "' cargada: " + snapshot.data.size() + " filas");
+        }, e -> {
+            hideProgress();
+            updateStatus("Error al cargar tabla '" + selectedTable + "': " + e.getMessage());
+            JOptionPane.showMessageDialog(AdditionalTablePanel.this,
+                "Error al cargar datos de tabla '" + selectedTable + "':\n" + e.getMessage(),
+                "Error de Base de Datos",
+                JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     /**
@@ -361,4 +329,19 @@ public class AdditionalTablePanel extends JPanel {
     public void refreshTableList() {
         loadTableList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Datos de una tabla leídos en el ejecutor de base de datos para mostrarlos en el EDT.
+     */
+    private static final class TableSnapshot {
+        private final List<Map<String, Object>> data;
+        private final List<Map<String, Object>> columnsInfo;
+        private final int rowCount;
+
+        TableSnapshot(List<Map<String, Object>> data, List<Map<String, Object>> columnsInfo, int rowCount) {
+            this.data = data;
+            this.columnsInfo = columnsInfo;
+            this.rowCount = rowCount;
+        }
+    }
+}
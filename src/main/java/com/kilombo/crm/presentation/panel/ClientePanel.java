@@ -2,16 +2,20 @@ package com.kilombo.crm.presentation.panel;
 
 import com.kilombo.crm.application.dto.ClienteDTO;
 import com.kilombo.crm.application.service.ClienteService;
+import com.kilombo.crm.application.service.PedidoService;
 import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 import com.kilombo.crm.presentation.dialog.ClienteDialog;
 import com.kilombo.crm.presentation.table.ClienteTableModel;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Panel principal para la gestión de clientes.
@@ -25,7 +29,11 @@ public class ClientePanel extends JPanel {
 
     private static final Logger logger = Logger.getLogger(ClientePanel.class.getName());
 
+    // Clientes por página; la tabla nunca carga la tabla completa de una vez
+    private static final int TAMANO_PAGINA = 200;
+
     private final ClienteService clienteService;
+    private final PedidoService pedidoService;
     private JTable table;
     private ClienteTableModel tableModel;
     private JButton btnAnadir;
@@ -33,17 +41,21 @@ public class ClientePanel extends JPanel {
     private JButton btnEliminar;
     private JButton btnActualizar;
     private JButton btnVerPedidos;
+    private JButton btnCargarMas;
     private JLabel lblTotal;
     private JLabel lblStatus;
     private boolean isLoading = false;
+    private boolean hayMasClientes = false;
     
     /**
      * Constructor del panel.
      * 
      * @param clienteService Servicio de clientes
+     * @param pedidoService Servicio de pedidos, para las estadísticas de cada cliente
      */
-    public ClientePanel(ClienteService clienteService) {
+    public ClientePanel(ClienteService clienteService, PedidoService pedidoService) {
         this.clienteService = clienteService;
+        this.pedidoService = pedidoService;
         initComponents();
         cargarClientes();
     }
@@ -96,6 +108,10 @@ public class ClientePanel extends JPanel {
         table.getColumnModel().getColumn(3).setCellRenderer(centerRenderer);
         table.getColumnModel().getColumn(4).setPreferredWidth(120); // Teléfono
         table.getColumnModel().getColumn(4).setCellRenderer(centerRenderer);
+        table.getColumnModel().getColumn(5).setPreferredWidth(70);  // Pedidos
+        table.getColumnModel().getColumn(5).setCellRenderer(centerRenderer);
+        table.getColumnModel().getColumn(6).setPreferredWidth(110); // Total gastado
+        table.getColumnModel().getColumn(6).setCellRenderer(centerRenderer);
         
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
@@ -130,12 +146,18 @@ public class ClientePanel extends JPanel {
         btnVerPedidos.setFont(new Font("Arial", Font.PLAIN, 12));
         btnVerPedidos.addActionListener(e -> verPedidos());
         btnVerPedidos.setEnabled(false);
+
+        btnCargarMas = new JButton("Cargar más");
+        btnCargarMas.setFont(new Font("Arial", Font.PLAIN, 12));
+        btnCargarMas.addActionListener(e -> cargarMasClientes());
+        btnCargarMas.setEnabled(false);
         
         panelBotones.add(btnAnadir);
         panelBotones.add(btnModificar);
         panelBotones.add(btnEliminar);
         panelBotones.add(btnActualizar);
         panelBotones.add(btnVerPedidos);
+        panelBotones.add(btnCargarMas);
         
         add(panelBotones, BorderLayout.SOUTH);
         
@@ -159,16 +181,72 @@ public class ClientePanel extends JPanel {
     }
     
     /**
-     * Carga los clientes desde el servicio y actualiza la tabla (síncrono).
+     * Carga los clientes desde el servicio y actualiza la tabla.
+     * La consulta se hace en el ejecutor de base de datos; la tabla se actualiza en el EDT.
      */
     public void cargarClientes() {
-        cargarClientesAsync().join(); // Esperar a que termine
+        cargarClientesAsync();
     }
 
     /**
-     * Carga los clientes de forma asíncrona con recuperación automática de errores.
+     * Carga la primera página de clientes de forma asíncrona con recuperación automática de errores.
+     *
+     * @return Futuro que se completa en el EDT cuando la tabla se ha actualizado
      */
-    public CompletableFuture<Void> cargarClientesAsync() {
+    public CompletableFuture<List<ClienteDTO>> cargarClientesAsync() {
+        return cargarPagina(null);
+    }
+
+    /**
+     * Muestra en la tabla los clientes que coinciden con el término; sin término, recarga el listado.
+     *
+     * @param termino Texto a buscar en nombre, apellido o email
+     */
+    public void buscarClientes(String termino) {
+        if (termino == null || termino.trim().isEmpty()) {
+            cargarClientesAsync();
+            return;
+        }
+        if (isLoading) {
+            return;
+        }
+
+        isLoading = true;
+        setStatus("Buscando clientes...", Color.BLUE);
+        setButtonsEnabled(false);
+
+        DatabaseExecutor.getInstance().submit(() -> clienteService.buscarClientes(termino), clientes -> {
+            hayMasClientes = false;
+            tableModel.setClientes(clientes);
+            cargarEstadisticas(clientes);
+            finalizarCarga();
+            lblTotal.setText("Resultados: " + clientes.size() + " cliente" + (clientes.size() != 1 ? "s" : ""));
+            setStatus(" ", Color.BLACK);
+        }, e -> {
+            finalizarCarga();
+            logger.log(Level.SEVERE, "Error al buscar clientes: " + e.getMessage(), e);
+            mostrarError("Error al buscar clientes: " + e.getMessage());
+            setStatus("Error en la búsqueda", Color.RED);
+        });
+    }
+
+    /**
+     * Añade a la tabla la página de clientes siguiente a la última cargada.
+     */
+    private void cargarMasClientes() {
+        int filas = tableModel.getRowCount();
+        if (hayMasClientes && filas > 0) {
+            cargarPagina(tableModel.getClienteAt(filas - 1));
+        }
+    }
+
+    /**
+     * Carga una página de clientes.
+     *
+     * @param despuesDe Último cliente mostrado, o null para recargar desde la primera página
+     * @return Futuro que se completa en el EDT cuando la tabla se ha actualizado
+     */
+    private CompletableFuture<List<ClienteDTO>> cargarPagina(ClienteDTO despuesDe) {
         if (isLoading) {
             logger.fine("Carga de clientes ya en progreso, ignorando solicitud");
             return CompletableFuture.completedFuture(null);
@@ -178,47 +256,67 @@ public class ClientePanel extends JPanel {
         setStatus("Cargando clientes...", Color.BLUE);
         setButtonsEnabled(false);
 
-        return CompletableFuture.runAsync(() -> {
-            try {
-                logger.info("Iniciando carga de clientes");
-                java.util.List<ClienteDTO> clientes = clienteService.listarClientes();
-
-                SwingUtilities.invokeLater(() -> {
-                    tableModel.setClientes(clientes);
-                    lblTotal.setText("Total: " + clientes.size() + " cliente" + (clientes.size() != 1 ? "s" : ""));
-                    setStatus("Clientes cargados correctamente", Color.GREEN);
-                    logger.info("Clientes cargados exitosamente: " + clientes.size());
-                });
+        return DatabaseExecutor.getInstance().submit(() -> {
+            logger.info("Iniciando carga de clientes");
+            return clienteService.listarClientesPagina(despuesDe, TAMANO_PAGINA);
+        }, clientes -> {
+            hayMasClientes = clientes.size() == TAMANO_PAGINA;
+            if (despuesDe == null) {
+                tableModel.setClientes(clientes);
+            } else {
+                tableModel.addClientes(clientes);
+            }
+            cargarEstadisticas(clientes);
+            finalizarCarga();
+            int total = tableModel.getRowCount();
+            lblTotal.setText((hayMasClientes ? "Mostrando: " : "Total: ") + total + " cliente" + (total != 1 ? "s" : ""));
+            setStatus("Clientes cargados correctamente", Color.GREEN);
+            logger.info("Clientes cargados exitosamente: " + clientes.size());
 
-            } catch (DatabaseException e) {
+            // Limpiar mensaje de estado después de 3 segundos
+            Timer timer = new Timer(3000, e -> setStatus(" ", Color.BLACK));
+            timer.setRepeats(false);
+            timer.start();
+        }, e -> {
+            finalizarCarga();
+            if (e instanceof DatabaseException) {
                 logger.log(Level.SEVERE, "Error de base de datos al cargar clientes: " + e.getMessage(), e);
-                SwingUtilities.invokeLater(() -> {
-                    mostrarErrorDetallado("Error de conexión a la base de datos",
-                        "No se pudo conectar a la base de datos. Verifique que el servidor esté ejecutándose.\n\nDetalles: " + e.getMessage(),
-                        () -> cargarClientesAsync()); // Reintento automático
-                });
-
-            } catch (Exception e) {
+                mostrarErrorDetallado("Error de conexión a la base de datos",
+                    "No se pudo conectar a la base de datos. Verifique que el servidor esté ejecutándose.\n\nDetalles: " + e.getMessage(),
+                    () -> cargarPagina(despuesDe)); // Reintento automático
+            } else {
                 logger.log(Level.SEVERE, "Error inesperado al cargar clientes: " + e.getMessage(), e);
-                SwingUtilities.invokeLater(() -> {
-                    mostrarErrorDetallado("Error inesperado",
-                        "Ocurrió un error inesperado al cargar los clientes.\n\nDetalles: " + e.getMessage(),
-                        () -> cargarClientesAsync()); // Reintento automático
-                });
+                mostrarErrorDetallado("Error inesperado",
+                    "Ocurrió un error inesperado al cargar los clientes.\n\nDetalles: " + e.getMessage(),
+                    () -> cargarPagina(despuesDe)); // Reintento automático
             }
-        }).whenComplete((result, throwable) -> {
-            SwingUtilities.invokeLater(() -> {
-                isLoading = false;
-                setButtonsEnabled(true);
-                if (throwable == null) {
-                    // Limpiar mensaje de estado después de 3 segundos
-                    Timer timer = new Timer(3000, e -> setStatus(" ", Color.BLACK));
-                    timer.setRepeats(false);
-                    timer.start();
-                }
-            });
         });
     }
+
+    /**
+     * Carga en segundo plano el número de pedidos y el total gastado de los clientes recién
+     * mostrados, con una sola consulta para toda la página. Un error solo deja las columnas vacías.
+     *
+     * @param clientes Clientes añadidos a la tabla
+     */
+    private void cargarEstadisticas(List<ClienteDTO> clientes) {
+        if (clientes.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = clientes.stream().map(ClienteDTO::getId).collect(Collectors.toList());
+
+        DatabaseExecutor.getInstance().submit(() -> pedidoService.obtenerEstadisticasClientes(ids),
+            tableModel::addEstadisticas,
+            e -> logger.log(Level.WARNING, "No se pudieron cargar las estadísticas de clientes: " + e.getMessage(), e));
+    }
+
+    /**
+     * Marca la carga como terminada y reactiva los botones.
+     */
+    private void finalizarCarga() {
+        isLoading = false;
+        setButtonsEnabled(true);
+    }
     
     /**
      * Abre el diálogo para añadir un nuevo cliente.
@@ -235,25 +333,18 @@ public class ClientePanel extends JPanel {
             setStatus("Creando cliente...", Color.BLUE);
             setButtonsEnabled(false);
 
-            CompletableFuture.runAsync(() -> {
-                try {
-                    logger.info("Creando nuevo cliente: " + nuevoCliente.getEmail());
-                    clienteService.crearCliente(nuevoCliente);
-
-                    SwingUtilities.invokeLater(() -> {
-                        cargarClientesAsync();
-                        mostrarInfo("Cliente creado exitosamente");
-                        setStatus("Cliente creado correctamente", Color.GREEN);
-                    });
-
-                } catch (Exception e) {
-                    logger.log(Level.SEVERE, "Error al crear cliente: " + e.getMessage(), e);
-                    SwingUtilities.invokeLater(() -> {
-                        mostrarError("Error al crear cliente: " + e.getMessage());
-                        setStatus("Error al crear cliente", Color.RED);
-                        setButtonsEnabled(true);
-                    });
-                }
+            DatabaseExecutor.getInstance().execute(() -> {
+                logger.info("Creando nuevo cliente: " + nuevoCliente.getEmail());
+                clienteService.crearCliente(nuevoCliente);
+            }, () -> {
+                cargarClientesAsync();
+                mostrarInfo("Cliente creado exitosamente");
+                setStatus("Cliente creado correctamente", Color.GREEN);
+            }, e -> {
+                logger.log(Level.SEVERE, "Error al crear cliente: " + e.getMessage(), e);
+                mostrarError("Error al crear cliente: " + e.getMessage());
+                setStatus("Error al crear cliente", Color.RED);
+                setButtonsEnabled(true);
             });
         }
     }
@@ -278,13 +369,13 @@ public class ClientePanel extends JPanel {
         
         ClienteDTO clienteModificado = dialog.getCliente();
         if (clienteModificado != null) {
-            try {
-                clienteService.actualizarCliente(clienteModificado);
-                cargarClientes();
-                mostrarInfo("Cliente actualizado exitosamente");
-            } catch (Exception e) {
-                mostrarError("Error al actualizar cliente: " + e.getMessage());
-            }
+            DatabaseExecutor.getInstance().execute(
+                () -> clienteService.actualizarCliente(clienteModificado),
+                () -> {
+                    cargarClientes();
+                    mostrarInfo("Cliente actualizado exitosamente");
+                },
+                e -> mostrarError("Error al actualizar cliente: " + e.getMessage()));
         }
     }
     
@@ -310,13 +401,13 @@ public class ClientePanel extends JPanel {
         );
         
         if (confirmacion == JOptionPane.YES_OPTION) {
-            try {
-                clienteService.eliminarCliente(clienteSeleccionado.getId());
-                cargarClientes();
-                mostrarInfo("Cliente eliminado exitosamente");
-            } catch (Exception e) {
-                mostrarError("Error al eliminar cliente: " + e.getMessage());
-            }
+            DatabaseExecutor.getInstance().execute(
+                () -> clienteService.eliminarCliente(clienteSeleccionado.getId()),
+                () -> {
+                    cargarClientes();
+                    mostrarInfo("Cliente eliminado exitosamente");
+                },
+                e -> mostrarError("Error al eliminar cliente: " + e.getMessage()));
         }
     }
     
@@ -411,6 +502,7 @@ public class ClientePanel extends JPanel {
         btnEliminar.setEnabled(enabled && table.getSelectedRow() != -1);
         btnActualizar.setEnabled(enabled);
         btnVerPedidos.setEnabled(enabled && table.getSelectedRow() != -1);
+        btnCargarMas.setEnabled(enabled && hayMasClientes);
     }
 
     /**
@@ -3,6 +3,8 @@ package com.kilombo.crm.presentation.panel;
 import com.kilombo.crm.infrastructure.database.ConexionBD;
 import com.kilombo.crm.infrastructure.database.ConfigurationManager;
 import com.kilombo.crm.infrastructure.database.ConnectionTestResult;
+import com.kilombo.crm.infrastructure.metrics.DatabaseMetrics;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 
 import javax.swing.*;
 import java.awt.*;
@@ -18,6 +20,8 @@ import java.awt.event.ActionListener;
  */
 public class ConfiguracionPanel extends JPanel {
 
+    private static final int METRICS_REFRESH_MS = 2000;
+
     private ConfigurationManager configManager;
     private ConexionBD conexionBD;
 
@@ -25,10 +29,13 @@ public class ConfiguracionPanel extends JPanel {
     private JTextField txtHost;
     private JTextField txtUsuario;
     private JPasswordField txtPassword;
+    private JTextField txtReplica;
     private JButton btnProbarConexion;
     private JButton btnGuardar;
     private JButton btnRestaurar;
+    private JButton btnRevalidar;
     private JTextArea txtResultado;
+    private JTextArea txtMetricas;
     private JProgressBar progressBar;
 
     /**
@@ -40,6 +47,7 @@ public class ConfiguracionPanel extends JPanel {
 
         initComponents();
         cargarConfiguracionActual();
+        iniciarRefrescoMetricas();
     }
 
     /**
@@ -103,9 +111,23 @@ public class ConfiguracionPanel extends JPanel {
         txtPassword = new JPasswordField(20);
         mainPanel.add(txtPassword, gbc);
 
-        // Botones
+        // Réplica de lectura (opcional)
         gbc.gridx = 0;
         gbc.gridy = 4;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.weightx = 0.0;
+        mainPanel.add(new JLabel("Réplica de lectura (opcional):"), gbc);
+
+        gbc.gridx = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 1.0;
+        txtReplica = new JTextField(20);
+        txtReplica.setToolTipText("Host o host:puerto de una réplica para listados e informes; vacío para no usarla");
+        mainPanel.add(txtReplica, gbc);
+
+        // Botones
+        gbc.gridx = 0;
+        gbc.gridy = 5;
         gbc.gridwidth = 2;
         gbc.fill = GridBagConstraints.NONE;
         gbc.anchor = GridBagConstraints.CENTER;
@@ -135,14 +157,23 @@ public class ConfiguracionPanel extends JPanel {
             }
         });
 
+        btnRevalidar = new JButton("Revalidar Esquema");
+        btnRevalidar.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                revalidarEsquema();
+            }
+        });
+
         panelBotones.add(btnProbarConexion);
         panelBotones.add(btnGuardar);
         panelBotones.add(btnRestaurar);
+        panelBotones.add(btnRevalidar);
         mainPanel.add(panelBotones, gbc);
 
         // Barra de progreso
         gbc.gridx = 0;
-        gbc.gridy = 5;
+        gbc.gridy = 6;
         gbc.gridwidth = 2;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         progressBar = new JProgressBar();
@@ -153,7 +184,7 @@ public class ConfiguracionPanel extends JPanel {
 
         // Área de resultados
         gbc.gridx = 0;
-        gbc.gridy = 6;
+        gbc.gridy = 7;
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weightx = 1.0;
         gbc.weighty = 1.0;
@@ -166,6 +197,15 @@ public class ConfiguracionPanel extends JPanel {
         scrollPane.setViewportView(txtResultado);
         mainPanel.add(scrollPane, gbc);
 
+        // Métricas de conexión y latencia, junto a la información de la conexión
+        gbc.gridy = 8;
+        txtMetricas = new JTextArea(10, 40);
+        txtMetricas.setEditable(false);
+        txtMetricas.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        JScrollPane metricasScrollPane = new JScrollPane(txtMetricas);
+        metricasScrollPane.setBorder(BorderFactory.createTitledBorder("Conexión y Métricas"));
+        mainPanel.add(metricasScrollPane, gbc);
+
         add(mainPanel, BorderLayout.CENTER);
 
         // Información adicional
@@ -176,7 +216,8 @@ public class ConfiguracionPanel extends JPanel {
             "Configuración de conexión a MySQL:\n\n" +
             "• Host: Dirección IP o nombre del servidor MySQL\n" +
             "• Usuario: Usuario de MySQL con permisos de conexión\n" +
-            "• Contraseña: Contraseña del usuario MySQL\n\n" +
+            "• Contraseña: Contraseña del usuario MySQL\n" +
+            "• Réplica: Servidor opcional para listados e informes (mismas credenciales)\n\n" +
             "Valores por defecto:\n" +
             "• Host: localhost\n" +
             "• Usuario: admin\n" +
@@ -199,9 +240,34 @@ public class ConfiguracionPanel extends JPanel {
         txtHost.setText(configManager.getHost());
         txtUsuario.setText(configManager.getUsername());
         txtPassword.setText(configManager.getPassword());
+        txtReplica.setText(configManager.getReplicaHost());
         txtResultado.setText("Configuración actual:\n" + configManager.getConfigurationInfo());
     }
 
+    /**
+     * Refresca periódicamente la información de conexión y las métricas mientras el panel está visible.
+     */
+    private void iniciarRefrescoMetricas() {
+        actualizarMetricas();
+        Timer timer = new Timer(METRICS_REFRESH_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (isShowing()) {
+                    actualizarMetricas();
+                }
+            }
+        });
+        timer.start();
+    }
+
+    /**
+     * Muestra la información de conexión y las métricas actuales.
+     */
+    private void actualizarMetricas() {
+        txtMetricas.setText(conexionBD.getConnectionInfo() + "\n\n" + DatabaseMetrics.getInstance().getSummary());
+        txtMetricas.setCaretPosition(0);
+    }
+
     /**
      * Prueba la conexión con los valores actuales de los campos.
      */
@@ -226,54 +292,73 @@ public class ConfiguracionPanel extends JPanel {
         btnProbarConexion.setEnabled(false);
         txtResultado.setText("Probando conexión...\n");
 
-        // Ejecutar en un hilo separado para no bloquear la UI
-        SwingWorker<ConnectionTestResult, Void> worker = new SwingWorker<ConnectionTestResult, Void>() {
-            @Override
-            protected ConnectionTestResult doInBackground() throws Exception {
-                return conexionBD.testConnectionWithConfig(host, usuario, password);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    ConnectionTestResult result = get();
-
-                    progressBar.setVisible(false);
-                    btnProbarConexion.setEnabled(true);
-
-                    if (result.isSuccess()) {
-                        txtResultado.setText("✅ CONEXIÓN EXITOSA\n\n" + result.getMessage());
-                        txtResultado.setBackground(new Color(200, 255, 200)); // Verde claro
-                    } else {
-                        txtResultado.setText("❌ ERROR DE CONEXIÓN\n\n" + result.getMessage());
-                        txtResultado.setBackground(new Color(255, 200, 200)); // Rojo claro
-
-                        // Mostrar diálogo de error detallado
-                        JOptionPane.showMessageDialog(
-                            ConfiguracionPanel.this,
-                            result.getMessage(),
-                            "Error de Conexión - " + getErrorTypeDescription(result.getErrorType()),
-                            JOptionPane.ERROR_MESSAGE
-                        );
-                    }
-
-                } catch (Exception e) {
-                    progressBar.setVisible(false);
-                    btnProbarConexion.setEnabled(true);
-                    txtResultado.setText("❌ ERROR INESPERADO\n\n" + e.getMessage());
-                    txtResultado.setBackground(new Color(255, 200, 200));
-
+        // Ejecutar en el ejecutor de base de datos para no bloquear la UI
+        DatabaseExecutor.getInstance().submit(
+            () -> conexionBD.testConnectionWithConfig(host, usuario, password),
+            result -> {
+                progressBar.setVisible(false);
+                btnProbarConexion.setEnabled(true);
+
+                if (result.isSuccess()) {
+                    txtResultado.setText("✅ CONEXIÓN EXITOSA\n\n" + result.getMessage());
+                    txtResultado.setBackground(new Color(200, 255, 200)); // Verde claro
+                } else {
+                    txtResultado.setText("❌ ERROR DE CONEXIÓN\n\n" + result.getMessage());
+                    txtResultado.setBackground(new Color(255, 200, 200)); // Rojo claro
+
+                    // Mostrar diálogo de error detallado
                     JOptionPane.showMessageDialog(
                         ConfiguracionPanel.this,
-                        "Error inesperado al probar la conexión:\n" + e.getMessage(),
-                        "Error",
+                        result.getMessage(),
+                        "Error de Conexión - " + getErrorTypeDescription(result.getErrorType()),
                         JOptionPane.ERROR_MESSAGE
                     );
                 }
-            }
-        };
+            },
+            e -> {
+                progressBar.setVisible(false);
+                btnProbarConexion.setEnabled(true);
+                txtResultado.setText("❌ ERROR INESPERADO\n\n" + e.getMessage());
+                txtResultado.setBackground(new Color(255, 200, 200));
+
+                JOptionPane.showMessageDialog(
+                    ConfiguracionPanel.this,
+                    "Error inesperado al probar la conexión:\n" + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+                );
+            });
+    }
 
-        worker.execute();
+    /**
+     * Vuelve a validar el esquema y la integridad de la base de datos configurada.
+     * La validación normalmente se hace una sola vez por configuración; esta acción la fuerza.
+     */
+    private void revalidarEsquema() {
+        progressBar.setVisible(true);
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Validando esquema...");
+        btnRevalidar.setEnabled(false);
+        txtResultado.setText("Validando esquema de la base de datos...\n");
+
+        DatabaseExecutor.getInstance().submit(conexionBD::revalidateSchema, informe -> {
+            finalizarRevalidacion();
+            txtResultado.setText("✅ ESQUEMA VALIDADO\n\n" + informe);
+            txtResultado.setBackground(new Color(200, 255, 200));
+        }, e -> {
+            finalizarRevalidacion();
+            txtResultado.setText("❌ ERROR DE VALIDACIÓN\n\n" + e.getMessage());
+            txtResultado.setBackground(new Color(255, 200, 200));
+        });
+    }
+
+    /**
+     * Restaura la barra de progreso y el botón tras revalidar el esquema.
+     */
+    private void finalizarRevalidacion() {
+        progressBar.setVisible(false);
+        progressBar.setString("Probando conexión...");
+        btnRevalidar.setEnabled(true);
     }
 
     /**
@@ -298,6 +383,7 @@ public class ConfiguracionPanel extends JPanel {
         configManager.setHost(host);
         configManager.setUsername(usuario);
         configManager.setPassword(password);
+        configManager.setReplicaHost(txtReplica.getText());
 
         // Guardar en archivo
         configManager.saveConfiguration();
@@ -335,6 +421,7 @@ public class ConfiguracionPanel extends JPanel {
             configManager.setHost("localhost");
             configManager.setUsername("admin");
             configManager.setPassword("admin");
+            configManager.setReplicaHost("");
             configManager.saveConfiguration();
 
             cargarConfiguracionActual();
@@ -3,6 +3,7 @@ package com.kilombo.crm.presentation.panel;
 import com.kilombo.crm.application.dto.InformeBI_DTO;
 import com.kilombo.crm.application.service.InformeService;
 import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -10,6 +11,7 @@ import java.awt.*;
 import java.text.NumberFormat;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -150,12 +152,16 @@ public class DashboardBIPanel extends JPanel {
         return card;
     }
 
-    private void cargarDatosBI() {
-        try {
-            logger.info("Cargando datos del Dashboard BI");
+    /**
+     * Consulta los datos en el ejecutor de base de datos y los muestra en el EDT.
+     *
+     * @return Futuro que se completa en el EDT cuando el dashboard se ha actualizado
+     */
+    private CompletableFuture<List<InformeBI_DTO>> cargarDatosBI() {
+        logger.info("Cargando datos del Dashboard BI");
 
+        return DatabaseExecutor.getInstance().submit(informeService::getTopRentableClients, topClientes -> {
             // Cargar Top Clientes
-            List<InformeBI_DTO> topClientes = informeService.getTopRentableClients();
             actualizarTablaTopClientes(topClientes);
 
             // Calcular ganancia total
@@ -171,14 +177,14 @@ public class DashboardBIPanel extends JPanel {
             lblPedidosEnProceso.setText("Calculando...");
 
             logger.info("Dashboard BI cargado exitosamente");
-
-        } catch (DatabaseException e) {
-            logger.log(Level.SEVERE, "Error de base de datos al cargar Dashboard BI: " + e.getMessage(), e);
-            mostrarErrorBD();
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error inesperado al cargar Dashboard BI: " + e.getMessage(), e);
+        }, e -> {
+            if (e instanceof DatabaseException) {
+                logger.log(Level.SEVERE, "Error de base de datos al cargar Dashboard BI: " + e.getMessage(), e);
+            } else {
+                logger.log(Level.SEVERE, "Error inesperado al cargar Dashboard BI: " + e.getMessage(), e);
+            }
             mostrarErrorBD();
-        }
+        });
     }
 
     private void actualizarTablaTopClientes(List<InformeBI_DTO> topClientes) {
@@ -220,8 +226,10 @@ public class DashboardBIPanel extends JPanel {
 
     /**
      * Método para refrescar los datos del dashboard
+     *
+     * @return Futuro que se completa en el EDT cuando el dashboard se ha actualizado
      */
-    public void refrescarDatos() {
-        cargarDatosBI();
+    public CompletableFuture<List<InformeBI_DTO>> refrescarDatos() {
+        return cargarDatosBI();
     }
 }
\ No newline at end of file
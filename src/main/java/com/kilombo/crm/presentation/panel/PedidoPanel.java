@@ -1,17 +1,18 @@
 package com.kilombo.crm.presentation.panel;
 
 import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
 import com.kilombo.crm.application.dto.PedidoDTO;
 import com.kilombo.crm.application.service.ClienteService;
 import com.kilombo.crm.application.service.EmailServiceImpl;
 import com.kilombo.crm.application.service.PedidoService;
 import com.kilombo.crm.application.service.WhatsAppServiceImpl;
 import com.kilombo.crm.domain.exception.ValidationException;
-import com.kilombo.crm.domain.model.Cliente;
 import com.kilombo.crm.domain.model.Pedido;
-import com.kilombo.crm.domain.repository.ClienteRepository;
-import com.kilombo.crm.domain.repository.DetallePedidoRepository;
 import com.kilombo.crm.domain.repository.PedidoRepository;
+import com.kilombo.crm.presentation.ClienteSelector;
+import com.kilombo.crm.presentation.DatabaseExecutor;
 import com.kilombo.crm.presentation.dialog.MessageConfirmationDialog;
 import com.kilombo.crm.presentation.dialog.PedidoDialog;
 import com.kilombo.crm.presentation.table.PedidoTableModel;
@@ -20,6 +21,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -33,6 +35,9 @@ public class PedidoPanel extends JPanel {
 
     private static final Logger logger = Logger.getLogger(PedidoPanel.class.getName());
 
+    // Pedidos por página en la vista sin filtro
+    private static final int TAMANO_PAGINA = 200;
+
     private final PedidoService pedidoService;
     private final ClienteService clienteService;
     private final WhatsAppServiceImpl whatsAppService;
@@ -44,28 +49,29 @@ public class PedidoPanel extends JPanel {
     private JButton btnEliminar;
     private JButton btnActualizar;
     private JButton btnMensajeSeguimiento;
-    private JComboBox<FiltroClienteItem> cmbFiltroCliente;
+    private JButton btnCargarMas;
+    private ClienteSelector selectorFiltroCliente;
     private JLabel lblTotal;
     private JLabel lblTotalImporte;
     
     private Integer clienteFiltroId = null;
+    // Identifica la última carga de pedidos para descartar respuestas de filtros anteriores
+    private int cargaPedidosActual = 0;
+    private boolean hayMasPedidos = false;
     
     /**
      * Constructor del panel.
      *
      * @param pedidoService Servicio de pedidos
      * @param clienteService Servicio de clientes
-     * @param pedidoRepository Repositorio de pedidos para WhatsApp
-     * @param clienteRepository Repositorio de clientes para WhatsApp
-     * @param detallePedidoRepository Repositorio de detalles para WhatsApp
+     * @param pedidoRepository Repositorio de pedidos para WhatsApp y email
      */
     public PedidoPanel(PedidoService pedidoService, ClienteService clienteService,
-                      PedidoRepository pedidoRepository, ClienteRepository clienteRepository,
-                      DetallePedidoRepository detallePedidoRepository) {
+                      PedidoRepository pedidoRepository) {
         this.pedidoService = pedidoService;
         this.clienteService = clienteService;
-        this.whatsAppService = new WhatsAppServiceImpl(pedidoRepository, clienteRepository, detallePedidoRepository);
-        this.emailService = new EmailServiceImpl(pedidoRepository, clienteRepository, detallePedidoRepository);
+        this.whatsAppService = new WhatsAppServiceImpl(pedidoRepository);
+        this.emailService = new EmailServiceImpl(pedidoRepository);
         initComponents();
         cargarPedidos();
     }
@@ -88,9 +94,9 @@ public class PedidoPanel extends JPanel {
         JPanel panelFiltro = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         panelFiltro.add(new JLabel("Filtrar por cliente:"));
         
-        cmbFiltroCliente = new JComboBox<>();
-        cmbFiltroCliente.addActionListener(e -> aplicarFiltro());
-        panelFiltro.add(cmbFiltroCliente);
+        selectorFiltroCliente = new ClienteSelector(clienteService, "Todos los clientes");
+        selectorFiltroCliente.setAlSeleccionar(this::aplicarFiltro);
+        panelFiltro.add(selectorFiltroCliente);
         
         panelSuperior.add(panelFiltro, BorderLayout.EAST);
         
@@ -150,11 +156,17 @@ public class PedidoPanel extends JPanel {
         btnMensajeSeguimiento.addActionListener(e -> enviarMensajes());
         btnMensajeSeguimiento.setEnabled(false);
 
+        btnCargarMas = new JButton("Cargar más");
+        btnCargarMas.setFont(new Font("Arial", Font.PLAIN, 12));
+        btnCargarMas.addActionListener(e -> cargarMasPedidos());
+        btnCargarMas.setEnabled(false);
+
         panelBotones.add(btnAnadir);
         panelBotones.add(btnModificar);
         panelBotones.add(btnEliminar);
         panelBotones.add(btnActualizar);
         panelBotones.add(btnMensajeSeguimiento);
+        panelBotones.add(btnCargarMas);
         
         panelInferior.add(panelBotones, BorderLayout.WEST);
         
@@ -194,95 +206,111 @@ public class PedidoPanel extends JPanel {
                 }
             }
         });
-        
-        // Cargar clientes en el filtro
-        cargarFiltroClientes();
     }
     
     /**
-     * Carga los clientes en el combo box de filtro.
+     * Aplica el filtro de cliente seleccionado.
+     *
+     * @param cliente Cliente seleccionado, o null para todos los clientes
      */
-    private void cargarFiltroClientes() {
-        cmbFiltroCliente.removeAllItems();
-        cmbFiltroCliente.addItem(new FiltroClienteItem(null, "Todos los clientes"));
-        
-        try {
-            List<ClienteDTO> clientes = clienteService.listarClientes();
-            for (ClienteDTO cliente : clientes) {
-                cmbFiltroCliente.addItem(new FiltroClienteItem(cliente.getId(), cliente.getNombreCompleto()));
-            }
-        } catch (Exception e) {
-            mostrarError("Error al cargar clientes: " + e.getMessage());
-        }
+    private void aplicarFiltro(ClienteResumenDTO cliente) {
+        clienteFiltroId = cliente == null ? null : cliente.getId();
+        cargarPedidos();
     }
     
     /**
-     * Aplica el filtro de cliente seleccionado.
+     * Carga los pedidos desde el servicio y actualiza la tabla.
+     * Sin filtro se carga solo la primera página; con filtro, todos los pedidos del cliente.
+     * La consulta se hace en el ejecutor de base de datos; la tabla se actualiza en el EDT.
+     *
+     * @return Futuro que se completa en el EDT cuando la tabla se ha actualizado
      */
-    private void aplicarFiltro() {
-        FiltroClienteItem item = (FiltroClienteItem) cmbFiltroCliente.getSelectedItem();
-        if (item != null) {
-            clienteFiltroId = item.getId();
-            cargarPedidos();
-        }
+    public CompletableFuture<List<PedidoDTO>> cargarPedidos() {
+        Integer filtro = clienteFiltroId;
+        int carga = ++cargaPedidosActual;
+        btnCargarMas.setEnabled(false);
+
+        return DatabaseExecutor.getInstance().submit(() -> filtro == null
+                ? pedidoService.listarPedidosPagina(null, TAMANO_PAGINA)
+                : pedidoService.obtenerPedidosPorCliente(filtro),
+            pedidos -> {
+                if (carga != cargaPedidosActual) {
+                    return; // Llegó antes la respuesta de un filtro posterior
+                }
+                hayMasPedidos = filtro == null && pedidos.size() == TAMANO_PAGINA;
+                tableModel.setPedidos(pedidos);
+                actualizarEstadisticas();
+            },
+            e -> mostrarError("Error al cargar pedidos: " + e.getMessage()));
     }
-    
+
     /**
-     * Carga los pedidos desde el servicio y actualiza la tabla.
+     * Añade a la tabla la página de pedidos siguiente al último cargado (solo sin filtro).
      */
-    public void cargarPedidos() {
-        try {
-            List<PedidoDTO> pedidos;
-            
-            if (clienteFiltroId == null) {
-                pedidos = pedidoService.listarPedidos();
-            } else {
-                pedidos = pedidoService.obtenerPedidosPorCliente(clienteFiltroId);
-            }
-            
-            tableModel.setPedidos(pedidos);
-            actualizarEstadisticas(pedidos);
-        } catch (Exception e) {
-            mostrarError("Error al cargar pedidos: " + e.getMessage());
+    private void cargarMasPedidos() {
+        int filas = tableModel.getRowCount();
+        if (!hayMasPedidos || filas == 0) {
+            return;
         }
+        PedidoDTO ultimo = tableModel.getPedidoAt(filas - 1);
+        int carga = ++cargaPedidosActual;
+        btnCargarMas.setEnabled(false);
+
+        DatabaseExecutor.getInstance().submit(() -> pedidoService.listarPedidosPagina(ultimo, TAMANO_PAGINA),
+            pedidos -> {
+                if (carga != cargaPedidosActual) {
+                    return; // La tabla se recargó mientras tanto
+                }
+                hayMasPedidos = pedidos.size() == TAMANO_PAGINA;
+                tableModel.addPedidos(pedidos);
+                actualizarEstadisticas();
+            },
+            e -> {
+                btnCargarMas.setEnabled(hayMasPedidos);
+                mostrarError("Error al cargar pedidos: " + e.getMessage());
+            });
     }
     
     /**
      * Filtra los pedidos por un cliente específico.
+     * Solo se lee ese cliente para mostrarlo en el selector, que aplica el filtro al seleccionarlo.
      * 
      * @param idCliente ID del cliente
      */
     public void filtrarPorCliente(Integer idCliente) {
-        // Seleccionar el cliente en el combo
-        for (int i = 0; i < cmbFiltroCliente.getItemCount(); i++) {
-            FiltroClienteItem item = cmbFiltroCliente.getItemAt(i);
-            if (item.getId() != null && item.getId().equals(idCliente)) {
-                cmbFiltroCliente.setSelectedIndex(i);
-                break;
-            }
-        }
+        DatabaseExecutor.getInstance().submit(() -> obtenerResumenCliente(idCliente),
+            selectorFiltroCliente::seleccionar,
+            e -> mostrarError("Error al cargar el cliente: " + e.getMessage()));
+    }
+
+    /**
+     * Obtiene el ID y el nombre de un cliente para los selectores.
+     *
+     * @param idCliente ID del cliente
+     * @return Resumen del cliente
+     */
+    private ClienteResumenDTO obtenerResumenCliente(Integer idCliente) {
+        ClienteDTO cliente = clienteService.obtenerCliente(idCliente);
+        return new ClienteResumenDTO(cliente.getId(), cliente.getNombre(), cliente.getApellido());
     }
     
     /**
-     * Actualiza las estadísticas mostradas.
-     * 
-     * @param pedidos Lista de pedidos
+     * Actualiza las estadísticas mostradas con los pedidos cargados en la tabla.
      */
-    private void actualizarEstadisticas(List<PedidoDTO> pedidos) {
-        int cantidad = pedidos.size();
+    private void actualizarEstadisticas() {
+        int cantidad = tableModel.getRowCount();
         double totalImporte = tableModel.calcularTotalGeneral();
         
-        lblTotal.setText("Total: " + cantidad + " pedido" + (cantidad != 1 ? "s" : ""));
+        lblTotal.setText((hayMasPedidos ? "Mostrando: " : "Total: ") + cantidad + " pedido" + (cantidad != 1 ? "s" : ""));
         lblTotalImporte.setText(String.format("Importe total: %.2f €", totalImporte));
+        btnCargarMas.setEnabled(hayMasPedidos);
     }
     
     /**
      * Abre el diálogo para añadir un nuevo pedido.
      */
     private void anadirPedido() {
-        try {
-            List<ClienteDTO> clientes = clienteService.listarClientes();
-            
+        DatabaseExecutor.getInstance().submit(() -> clienteService.buscarResumenesClientes("", 1), clientes -> {
             if (clientes.isEmpty()) {
                 mostrarAdvertencia("No hay clientes registrados. Debe crear al menos un cliente primero.");
                 return;
@@ -291,19 +319,22 @@ public class PedidoPanel extends JPanel {
             PedidoDialog dialog = new PedidoDialog(
                 (Frame) SwingUtilities.getWindowAncestor(this),
                 null,
-                clientes
+                null,
+                clienteService
             );
             dialog.setVisible(true);
             
             PedidoDTO nuevoPedido = dialog.getPedido();
             if (nuevoPedido != null) {
-                pedidoService.crearPedido(nuevoPedido);
-                cargarPedidos();
-                mostrarInfo("Pedido creado exitosamente");
+                DatabaseExecutor.getInstance().execute(
+                    () -> pedidoService.crearPedido(nuevoPedido),
+                    () -> {
+                        cargarPedidos();
+                        mostrarInfo("Pedido creado exitosamente");
+                    },
+                    e -> mostrarError("Error al crear pedido: " + e.getMessage()));
             }
-        } catch (Exception e) {
-            mostrarError("Error al crear pedido: " + e.getMessage());
-        }
+        }, e -> mostrarError("Error al crear pedido: " + e.getMessage()));
     }
     
     /**
@@ -316,26 +347,27 @@ public class PedidoPanel extends JPanel {
             return;
         }
         
-        try {
-            PedidoDTO pedidoSeleccionado = tableModel.getPedidoAt(selectedRow);
-            List<ClienteDTO> clientes = clienteService.listarClientes();
-            
+        PedidoDTO pedidoSeleccionado = tableModel.getPedidoAt(selectedRow);
+        DatabaseExecutor.getInstance().submit(() -> obtenerResumenCliente(pedidoSeleccionado.getIdCliente()), cliente -> {
             PedidoDialog dialog = new PedidoDialog(
                 (Frame) SwingUtilities.getWindowAncestor(this),
                 pedidoSeleccionado,
-                clientes
+                cliente,
+                clienteService
             );
             dialog.setVisible(true);
             
             PedidoDTO pedidoModificado = dialog.getPedido();
             if (pedidoModificado != null) {
-                pedidoService.actualizarPedido(pedidoModificado);
-                cargarPedidos();
-                mostrarInfo("Pedido actualizado exitosamente");
+                DatabaseExecutor.getInstance().execute(
+                    () -> pedidoService.actualizarPedido(pedidoModificado),
+                    () -> {
+                        cargarPedidos();
+                        mostrarInfo("Pedido actualizado exitosamente");
+                    },
+                    e -> mostrarError("Error al actualizar pedido: " + e.getMessage()));
             }
-        } catch (Exception e) {
-            mostrarError("Error al actualizar pedido: " + e.getMessage());
-        }
+        }, e -> mostrarError("Error al actualizar pedido: " + e.getMessage()));
     }
     
     /**
@@ -359,13 +391,13 @@ public class PedidoPanel extends JPanel {
         );
 
         if (confirmacion == JOptionPane.YES_OPTION) {
-            try {
-                pedidoService.eliminarPedido(pedidoSeleccionado.getId());
-                cargarPedidos();
-                mostrarInfo("Pedido eliminado exitosamente");
-            } catch (Exception e) {
-                mostrarError("Error al eliminar pedido: " + e.getMessage());
-            }
+            DatabaseExecutor.getInstance().execute(
+                () -> pedidoService.eliminarPedido(pedidoSeleccionado.getId()),
+                () -> {
+                    cargarPedidos();
+                    mostrarInfo("Pedido eliminado exitosamente");
+                },
+                e -> mostrarError("Error al eliminar pedido: " + e.getMessage()));
         }
     }
 
@@ -387,21 +419,25 @@ public class PedidoPanel extends JPanel {
             return;
         }
 
-        try {
-            logger.info("Preparando diálogo de confirmación para pedido ID: " + pedidoSeleccionado.getId());
+        logger.info("Preparando diálogo de confirmación para pedido ID: " + pedidoSeleccionado.getId());
 
-            // Obtener datos del cliente
-            Cliente cliente = obtenerClienteDelPedido(pedidoSeleccionado);
-            if (cliente == null) {
+        // Contacto del cliente y mensaje (la lógica de estado está en WhatsAppService) se obtienen
+        // fuera del EDT con una sola consulta de notificación
+        DatabaseExecutor.getInstance().submit(() -> {
+            NotificacionPedidoDTO notificacion = pedidoService.obtenerNotificacion(pedidoSeleccionado.getId());
+            if (!notificacion.tieneCliente()) {
+                return null;
+            }
+            return new MensajeSeguimiento(notificacion, whatsAppService.generateWhatsAppUrl(notificacion));
+        }, preparado -> {
+            if (preparado == null) {
                 mostrarError("No se pudo obtener la información del cliente");
                 return;
             }
-
-            // Generar mensaje usando WhatsAppService (contiene la lógica de estado)
-            String whatsappUrl = whatsAppService.generateWhatsAppUrl(pedidoSeleccionado.getId());
+            NotificacionPedidoDTO notificacion = preparado.notificacion;
 
             // Extraer el mensaje de la URL (está después de ?text=)
-            String mensaje = extraerMensajeDeWhatsAppUrl(whatsappUrl);
+            String mensaje = extraerMensajeDeWhatsAppUrl(preparado.whatsappUrl);
             String asuntoEmail = generarAsuntoEmail(pedidoSeleccionado);
 
             logger.info("Mensaje generado correctamente, mostrando diálogo de confirmación");
@@ -410,9 +446,9 @@ public class PedidoPanel extends JPanel {
             MessageConfirmationDialog dialog = new MessageConfirmationDialog(
                 (java.awt.Frame) SwingUtilities.getWindowAncestor(this),
                 pedidoSeleccionado,
-                cliente.getNombre() + " " + cliente.getApellido(),
-                cliente.getEmail(),
-                cliente.getTelefono(),
+                notificacion.getNombreCompletoCliente(),
+                notificacion.getEmail(),
+                notificacion.getTelefono(),
                 mensaje,
                 asuntoEmail,
                 whatsAppService,
@@ -420,27 +456,15 @@ public class PedidoPanel extends JPanel {
             );
 
             dialog.setVisible(true); // El diálogo permanece abierto hasta que el usuario lo cierre
-
-        } catch (ValidationException e) {
-            logger.warning("Error de validación al preparar mensaje: " + e.getMessage());
-            mostrarAdvertencia("Error de validación: " + e.getMessage());
-        } catch (Exception e) {
-            logger.log(java.util.logging.Level.SEVERE, "Error inesperado al preparar mensaje: " + e.getMessage(), e);
-            mostrarError("Error al preparar el mensaje: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Obtiene el cliente asociado a un pedido.
-     */
-    private Cliente obtenerClienteDelPedido(PedidoDTO pedido) {
-        try {
-            ClienteDTO clienteDTO = clienteService.obtenerCliente(pedido.getIdCliente());
-            return clienteDTO.toEntity();
-        } catch (Exception e) {
-            logger.log(java.util.logging.Level.SEVERE, "Error al obtener cliente: " + e.getMessage(), e);
-            return null;
-        }
+        }, e -> {
+            if (e instanceof ValidationException) {
+                logger.warning("Error de validación al preparar mensaje: " + e.getMessage());
+                mostrarAdvertencia("Error de validación: " + e.getMessage());
+            } else {
+                logger.log(java.util.logging.Level.SEVERE, "Error inesperado al preparar mensaje: " + e.getMessage(), e);
+                mostrarError("Error al preparar el mensaje: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -525,24 +549,15 @@ public class PedidoPanel extends JPanel {
     }
     
     /**
-     * Clase interna para representar items del combo box de filtro.
+     * Datos del mensaje de seguimiento preparados fuera del EDT.
      */
-    private static class FiltroClienteItem {
-        private final Integer id;
-        private final String nombre;
-        
-        public FiltroClienteItem(Integer id, String nombre) {
-            this.id = id;
-            this.nombre = nombre;
-        }
-        
-        public Integer getId() {
-            return id;
-        }
-        
-        @Override
-        public String toString() {
-            return nombre;
+    private static class MensajeSeguimiento {
+        private final NotificacionPedidoDTO notificacion;
+        private final String whatsappUrl;
+
+        MensajeSeguimiento(NotificacionPedidoDTO notificacion, String whatsappUrl) {
+            this.notificacion = notificacion;
+            this.whatsappUrl = whatsappUrl;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,29 @@
 package com.kilombo.crm.presentation.table;
 
 import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.EstadisticasClienteDTO;
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Modelo de tabla personalizado para mostrar clientes en un JTable.
  * Extiende AbstractTableModel para proporcionar datos a la tabla.
+ * Las columnas de pedidos y total gastado quedan vacías hasta que se cargan sus estadísticas.
  * 
  * @author KilomboCRM Team
  * @version 1.0
  */
 public class ClienteTableModel extends AbstractTableModel {
     
-    private static final String[] COLUMN_NAMES = {"ID", "Nombre", "Apellido", "Email", "Teléfono"};
-    private static final Class<?>[] COLUMN_TYPES = {Integer.class, String.class, String.class, String.class, String.class};
+    private static final String[] COLUMN_NAMES = {"ID", "Nombre", "Apellido", "Email", "Teléfono", "Pedidos", "Total gastado"};
+    private static final Class<?>[] COLUMN_TYPES = {Integer.class, String.class, String.class, String.class, String.class,
+            Integer.class, String.class};
     
     private List<ClienteDTO> clientes;
+    private final Map<Integer, EstadisticasClienteDTO> estadisticas = new HashMap<>();
     
     /**
      * Constructor que inicializa la lista vacía.
@@ -79,6 +85,14 @@ public class ClienteTableModel extends AbstractTableModel {
                 return cliente.getEmail();
             case 4:
                 return cliente.getTelefono();
+            case 5: {
+                EstadisticasClienteDTO stats = estadisticas.get(cliente.getId());
+                return stats != null ? stats.getNumPedidos() : null;
+            }
+            case 6: {
+                EstadisticasClienteDTO stats = estadisticas.get(cliente.getId());
+                return stats != null ? String.format("%.2f €", stats.getTotalGastado()) : null;
+            }
             default:
                 return null;
         }
@@ -91,9 +105,24 @@ public class ClienteTableModel extends AbstractTableModel {
      */
     public void setClientes(List<ClienteDTO> clientes) {
         this.clientes = clientes != null ? new ArrayList<>(clientes) : new ArrayList<>();
+        this.estadisticas.clear();
         fireTableDataChanged();
     }
     
+    /**
+     * Añade las estadísticas de pedidos de los clientes indicados y refresca la tabla.
+     *
+     * @param nuevas Mapa de ID de cliente a sus estadísticas
+     */
+    public void addEstadisticas(Map<Integer, EstadisticasClienteDTO> nuevas) {
+        if (nuevas != null && !nuevas.isEmpty()) {
+            estadisticas.putAll(nuevas);
+            if (!clientes.isEmpty()) {
+                fireTableRowsUpdated(0, clientes.size() - 1);
+            }
+        }
+    }
+    
     /**
      * Agrega un cliente a la tabla.
      * 
@@ -107,6 +136,19 @@ public class ClienteTableModel extends AbstractTableModel {
         }
     }
     
+    /**
+     * Agrega al final de la tabla una página de clientes.
+     *
+     * @param nuevos Clientes a agregar
+     */
+    public void addClientes(List<ClienteDTO> nuevos) {
+        if (nuevos != null && !nuevos.isEmpty()) {
+            int first = clientes.size();
+            clientes.addAll(nuevos);
+            fireTableRowsInserted(first, clientes.size() - 1);
+        }
+    }
+    
     /**
      * Actualiza un cliente en la tabla.
      * 
@@ -150,6 +192,7 @@ public class ClienteTableModel extends AbstractTableModel {
      */
     public void clear() {
         int size = clientes.size();
+        estadisticas.clear();
         if (size > 0) {
             clientes.clear();
             fireTableRowsDeleted(0, size - 1);
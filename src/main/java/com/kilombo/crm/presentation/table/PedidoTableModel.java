@@ -105,6 +105,19 @@ public class PedidoTableModel extends AbstractTableModel {
         }
     }
     
+    /**
+     * Agrega al final de la tabla una página de pedidos.
+     *
+     * @param nuevos Pedidos a agregar
+     */
+    public void addPedidos(List<PedidoDTO> nuevos) {
+        if (nuevos != null && !nuevos.isEmpty()) {
+            int first = pedidos.size();
+            pedidos.addAll(nuevos);
+            fireTableRowsInserted(first, pedidos.size() - 1);
+        }
+    }
+    
     /**
      * Actualiza un pedido en la tabla.
      * 
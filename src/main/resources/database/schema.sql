@@ -28,7 +28,11 @@ CREATE TABLE clientes (
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     fecha_actualizacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email),
-    INDEX idx_nombre_apellido (nombre, apellido)
+    INDEX idx_nombre_apellido (nombre, apellido),
+    -- Orden del listado paginado (apellido, nombre, id); InnoDB añade id al índice
+    INDEX idx_apellido_nombre (apellido, nombre),
+    -- Búsqueda de clientes por palabras (prefijos con * en modo booleano)
+    FULLTEXT INDEX ft_clientes_busqueda (nombre, apellido, email)
 ) ENGINE=InnoDB 
 DEFAULT CHARSET=utf8mb4 
 COLLATE=utf8mb4_unicode_ci
@@ -86,6 +90,13 @@ DEFAULT CHARSET=utf8mb4
 COLLATE=utf8mb4_unicode_ci
 COMMENT='Tabla de detalle de ítems por pedido';
 
+-- ============================================
+-- Migración de bases de datos existentes
+-- ============================================
+-- Este script recrea las tablas. En una instalación con datos, aplicar solo:
+-- ALTER TABLE clientes ADD INDEX idx_apellido_nombre (apellido, nombre);
+-- ALTER TABLE clientes ADD FULLTEXT INDEX ft_clientes_busqueda (nombre, apellido, email);
+
 -- ============================================
 -- Verificación del Esquema
 -- ============================================
@@ -0,0 +1,66 @@
+package com.kilombo.crm.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de la caducidad e invalidación del conteo en memoria.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class CachedCountTest {
+
+    private final AtomicLong consultas = new AtomicLong();
+
+    private long contar() {
+        return consultas.incrementAndGet() * 10;
+    }
+
+    @Test
+    void reutilizaElConteoDentroDelTtl() {
+        CachedCount count = new CachedCount(1, TimeUnit.MINUTES);
+
+        assertEquals(10, count.get(this::contar));
+        assertEquals(10, count.get(this::contar));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void recalculaAlCaducar() throws Exception {
+        CachedCount count = new CachedCount(50, TimeUnit.MILLISECONDS);
+
+        assertEquals(10, count.get(this::contar));
+        Thread.sleep(80);
+        assertEquals(20, count.get(this::contar));
+        assertEquals(20, count.get(this::contar));
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void recalculaTrasInvalidar() {
+        CachedCount count = new CachedCount(1, TimeUnit.MINUTES);
+
+        count.get(this::contar);
+        count.invalidate();
+
+        assertEquals(20, count.get(this::contar));
+    }
+
+    @Test
+    void noGuardaUnConteoIniciadoAntesDeInvalidar() {
+        CachedCount count = new CachedCount(1, TimeUnit.MINUTES);
+
+        // Una escritura concurrente invalida mientras se cuenta
+        count.get(() -> {
+            count.invalidate();
+            return contar();
+        });
+
+        assertEquals(20, count.get(this::contar));
+    }
+}
@@ -0,0 +1,72 @@
+package com.kilombo.crm.application.service;
+
+import com.kilombo.crm.application.dto.ClienteDTO;
+import com.kilombo.crm.application.dto.ClienteResumenDTO;
+import com.kilombo.crm.domain.model.Cliente;
+import com.kilombo.crm.domain.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del servicio de clientes con el repositorio simulado.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ClienteServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private ClienteService clienteService;
+
+    @BeforeEach
+    void crearServicio() {
+        clienteService = new ClienteService(clienteRepository);
+    }
+
+    @Test
+    void buscarClientesDelegaEnLaBusquedaDelRepositorio() {
+        Cliente ana = new Cliente(4, "Ana", "López", "ana@kilombo.es", "600000000");
+        when(clienteRepository.search("lop", 50)).thenReturn(List.of(ana));
+
+        List<ClienteDTO> resultados = clienteService.buscarClientes("lop");
+
+        assertEquals(1, resultados.size());
+        assertEquals(4, resultados.get(0).getId());
+        verify(clienteRepository, never()).findAll();
+    }
+
+    @Test
+    void buscarClientesSinTerminoDevuelveLaPrimeraPagina() {
+        when(clienteRepository.findPage(null, 25)).thenReturn(List.of());
+
+        assertEquals(List.of(), clienteService.buscarClientes(" ", 25));
+        verify(clienteRepository, never()).search(anyString(), anyInt());
+        verify(clienteRepository, never()).findAll();
+    }
+
+    @Test
+    void buscarResumenesClientesConsultaSoloElPrefijoConLimite() {
+        List<ClienteResumenDTO> resumenes = List.of(new ClienteResumenDTO(4, "Ana", "López"));
+        when(clienteRepository.findResumenByPrefix("Lo", 50)).thenReturn(resumenes);
+
+        assertEquals(resumenes, clienteService.buscarResumenesClientes("Lo", 50));
+        verify(clienteRepository, never()).findResumenPage(any(), anyInt());
+        verify(clienteRepository, never()).findAll();
+    }
+}
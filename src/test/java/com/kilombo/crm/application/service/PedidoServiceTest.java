@@ -0,0 +1,96 @@
+package com.kilombo.crm.application.service;
+
+import com.kilombo.crm.application.dto.NotificacionPedidoDTO;
+import com.kilombo.crm.application.dto.PedidoDTO;
+import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.domain.exception.PedidoNotFoundException;
+import com.kilombo.crm.domain.repository.ClienteRepository;
+import com.kilombo.crm.domain.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del servicio de pedidos con repositorios simulados.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PedidoServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private PedidoService pedidoService;
+
+    @BeforeEach
+    void crearServicio() {
+        pedidoService = new PedidoService(pedidoRepository, clienteRepository);
+    }
+
+    @Test
+    void listarPedidosUsaUnaSolaConsultaConElNombreDelCliente() {
+        PedidoDTO primero = pedido(1, 10, "Ana López");
+        PedidoDTO segundo = pedido(2, 11, "Luis Pérez");
+        when(pedidoRepository.findAllWithNombreCliente()).thenReturn(List.of(primero, segundo));
+
+        List<PedidoDTO> pedidos = pedidoService.listarPedidos();
+
+        assertEquals(List.of(primero, segundo), pedidos);
+        assertEquals("Ana López", pedidos.get(0).getNombreCliente());
+        verify(pedidoRepository, times(1)).findAllWithNombreCliente();
+        verify(clienteRepository, never()).findById(any());
+    }
+
+    @Test
+    void listarPedidosPropagaElErrorDeBaseDeDatos() {
+        DatabaseException error = new DatabaseException("Servidor no disponible");
+        when(pedidoRepository.findAllWithNombreCliente()).thenThrow(error);
+
+        assertSame(error, assertThrows(DatabaseException.class, () -> pedidoService.listarPedidos()));
+        verify(clienteRepository, never()).findById(any());
+    }
+
+    @Test
+    void obtenerNotificacionUsaSoloLaConsultaDeNotificacion() {
+        NotificacionPedidoDTO notificacion = new NotificacionPedidoDTO(5, 10, "SHIPPED",
+                "Ana", "López", "ana@example.com", "600000000", "Camiseta");
+        when(pedidoRepository.findNotificacionByPedidoId(5)).thenReturn(Optional.of(notificacion));
+
+        assertSame(notificacion, pedidoService.obtenerNotificacion(5));
+        verify(pedidoRepository, never()).findById(any());
+        verify(clienteRepository, never()).findById(any());
+    }
+
+    @Test
+    void obtenerNotificacionDeUnPedidoInexistenteFalla() {
+        when(pedidoRepository.findNotificacionByPedidoId(9)).thenReturn(Optional.empty());
+
+        assertThrows(PedidoNotFoundException.class, () -> pedidoService.obtenerNotificacion(9));
+    }
+
+    private static PedidoDTO pedido(int id, int idCliente, String nombreCliente) {
+        PedidoDTO dto = new PedidoDTO(id, idCliente, LocalDate.of(2024, 3, id), 25.0 * id);
+        dto.setNombreCliente(nombreCliente);
+        return dto;
+    }
+}
@@ -0,0 +1,74 @@
+package com.kilombo.crm.infrastructure.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del ciclo de estados del circuit breaker.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class CircuitBreakerTest {
+
+    @Test
+    void recorreCerradoAbiertoSemiabiertoYCerrado() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.circuitBreaker.failureThreshold", "2");
+        properties.setProperty("db.circuitBreaker.probeInterval", "100");
+
+        // El servidor responde al segundo sondeo
+        AtomicReference<CircuitBreaker> breakerRef = new AtomicReference<>();
+        List<CircuitBreaker.State> estadosDuranteSondeo = new CopyOnWriteArrayList<>();
+        AtomicInteger sondeos = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker(properties, () -> {
+            estadosDuranteSondeo.add(breakerRef.get().getState());
+            return sondeos.incrementAndGet() >= 2;
+        });
+        breakerRef.set(breaker);
+
+        List<CircuitBreaker.State> notificados = new CopyOnWriteArrayList<>();
+        CountDownLatch cerrado = new CountDownLatch(1);
+        breaker.addStateListener(state -> {
+            notificados.add(state);
+            if (state == CircuitBreaker.State.CLOSED) {
+                cerrado.countDown();
+            }
+        });
+
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        assertTrue(cerrado.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.HALF_OPEN), estadosDuranteSondeo);
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.CLOSED), notificados);
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void exitoReiniciaLaCuentaDeFallos() {
+        Properties properties = new Properties();
+        properties.setProperty("db.circuitBreaker.failureThreshold", "2");
+        CircuitBreaker breaker = new CircuitBreaker(properties, () -> false);
+
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,300 @@
+package com.kilombo.crm.infrastructure.database;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del pool de conexiones con conexiones físicas simuladas.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void cerrarPool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void precargaParcialSigueReclamandoConexionesAbandonadas() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "3");
+        properties.setProperty("db.keepaliveInterval", "0");
+        properties.setProperty("db.removeAbandoned", "true");
+        properties.setProperty("db.removeAbandonedTimeout", "1");
+
+        // La primera conexión se abre y las siguientes fallan
+        AtomicInteger created = new AtomicInteger();
+        pool = new ConnectionPool(() -> {
+            if (created.incrementAndGet() > 1) {
+                throw new SQLException("Servidor saturado");
+            }
+            return mock(Connection.class);
+        }, connection -> true, properties);
+        pool.prefill();
+        assertEquals(1, pool.getIdleCount());
+
+        Connection abandoned = pool.borrow();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, pool.getAbandonedReclaimed());
+        assertEquals(0, pool.getActiveCount());
+        assertTrue(abandoned.isClosed());
+    }
+
+    @Test
+    void mantenimientoReponeConexionesLibresHastaMinIdle() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "0");
+        properties.setProperty("db.minIdle", "3");
+        properties.setProperty("db.keepaliveInterval", "50");
+
+        // Solo la primera conexión se abre durante la precarga; después el servidor se recupera
+        AtomicInteger created = new AtomicInteger();
+        pool = new ConnectionPool(() -> {
+            if (created.incrementAndGet() == 2) {
+                throw new SQLException("Servidor saturado");
+            }
+            return mock(Connection.class);
+        }, connection -> true, properties);
+        pool.prefill();
+        assertEquals(1, pool.getIdleCount());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getIdleCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(3, pool.getIdleCount());
+    }
+
+    @Test
+    void reposicionNoSuperaMaxActiveConPrestamosAbriendoConexion() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "0");
+        properties.setProperty("db.minIdle", "1");
+        properties.setProperty("db.maxActive", "2");
+        properties.setProperty("db.keepaliveInterval", "20");
+
+        // Tras la precarga cada apertura tarda lo bastante para que el mantenimiento pase varias veces
+        AtomicBoolean lenta = new AtomicBoolean();
+        AtomicInteger abiertas = new AtomicInteger();
+        AtomicInteger maximoAbiertas = new AtomicInteger();
+        pool = new ConnectionPool(() -> {
+            if (lenta.get()) {
+                sleepQuietly(300);
+            }
+            Connection physical = mock(Connection.class);
+            maximoAbiertas.accumulateAndGet(abiertas.incrementAndGet(), Math::max);
+            doAnswer(invocation -> abiertas.decrementAndGet()).when(physical).close();
+            return physical;
+        }, connection -> true, properties);
+        pool.prefill();
+        assertEquals(1, pool.getIdleCount());
+        lenta.set(true);
+
+        // Dos préstamos a la vez: uno toma la conexión libre y el otro abre una nueva
+        ExecutorService borrowers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Connection> primero = borrowers.submit(pool::borrow);
+            Future<Connection> segundo = borrowers.submit(pool::borrow);
+            Connection a = primero.get(5, TimeUnit.SECONDS);
+            Connection b = segundo.get(5, TimeUnit.SECONDS);
+            Thread.sleep(200);
+
+            assertEquals(2, pool.getActiveCount());
+            assertTrue(maximoAbiertas.get() <= 2, "conexiones físicas abiertas a la vez: " + maximoAbiertas.get());
+            a.close();
+            b.close();
+        } finally {
+            borrowers.shutdownNow();
+        }
+    }
+
+    @Test
+    void keepaliveSinVentanaDeInactividadNoBloqueaLaReposicion() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "0");
+        properties.setProperty("db.minIdle", "3");
+        properties.setProperty("db.keepaliveInterval", "50");
+        properties.setProperty("db.validationIdleWindow", "0");
+
+        // Dos conexiones durante la precarga; la tercera la repone el mantenimiento
+        AtomicInteger created = new AtomicInteger();
+        pool = new ConnectionPool(() -> {
+            if (created.incrementAndGet() == 3) {
+                throw new SQLException("Servidor saturado");
+            }
+            return mock(Connection.class);
+        }, connection -> true, properties);
+        pool.prefill();
+        assertEquals(2, pool.getIdleCount());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getIdleCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(3, pool.getIdleCount());
+    }
+
+    @Test
+    void precalentamientoTerminaConVariasConexionesLibres() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "3");
+        properties.setProperty("db.minIdle", "3");
+        properties.setProperty("db.keepaliveInterval", "0");
+        properties.setProperty("db.statementCacheSize", "4");
+
+        List<Connection> physicals = new CopyOnWriteArrayList<>();
+        pool = new ConnectionPool(() -> {
+            Connection physical = mock(Connection.class);
+            when(physical.prepareStatement(anyString(), anyInt())).thenReturn(mock(PreparedStatement.class));
+            physicals.add(physical);
+            return physical;
+        }, connection -> true, properties);
+        pool.prefill();
+        assertEquals(3, pool.getIdleCount());
+
+        pool.warmUpStatements(List.of("SELECT 1"));
+        Thread warmer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("kilombo-statement-warmup"))
+                .findFirst()
+                .orElse(null);
+        if (warmer != null) {
+            warmer.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(warmer.isAlive(), "el precalentamiento no terminó");
+        }
+
+        assertEquals(3, pool.getIdleCount());
+        for (Connection physical : physicals) {
+            verify(physical).prepareStatement("SELECT 1", Statement.NO_GENERATED_KEYS);
+        }
+    }
+
+    @Test
+    void prestamoExcluidoNoSeReclamaComoAbandonado() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "0");
+        properties.setProperty("db.minIdle", "0");
+        properties.setProperty("db.keepaliveInterval", "0");
+        properties.setProperty("db.removeAbandoned", "true");
+        properties.setProperty("db.removeAbandonedTimeout", "1");
+        pool = new ConnectionPool(() -> mock(Connection.class), connection -> true, properties);
+        pool.prefill();
+
+        Connection streaming = pool.borrow();
+        Connection abandoned = pool.borrow();
+        assertTrue(ConnectionPool.exemptFromAbandonedReclaim(streaming));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getActiveCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, pool.getAbandonedReclaimed());
+        assertTrue(abandoned.isClosed());
+        assertFalse(streaming.isClosed());
+        streaming.close();
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void exclusionIgnoraConexionesAjenasAlPool() {
+        assertFalse(ConnectionPool.exemptFromAbandonedReclaim(mock(Connection.class)));
+        assertFalse(ConnectionPool.exemptFromAbandonedReclaim(null));
+    }
+
+    @Test
+    void conexionDevueltaSeReutiliza() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "1");
+        properties.setProperty("db.minIdle", "1");
+        properties.setProperty("db.keepaliveInterval", "0");
+
+        AtomicInteger created = new AtomicInteger();
+        pool = new ConnectionPool(() -> {
+            created.incrementAndGet();
+            return mock(Connection.class);
+        }, connection -> true, properties);
+        pool.prefill();
+
+        Connection first = pool.borrow();
+        assertEquals(1, pool.getActiveCount());
+        assertEquals(0, pool.getIdleCount());
+        first.close();
+        assertTrue(first.isClosed());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        Connection second = pool.borrow();
+        second.close();
+        assertEquals(1, created.get());
+        assertThrows(SQLException.class, first::createStatement);
+    }
+
+    @Test
+    void agotaLaEsperaConTodasLasConexionesEnUso() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.initialSize", "0");
+        properties.setProperty("db.minIdle", "0");
+        properties.setProperty("db.maxActive", "1");
+        properties.setProperty("db.maxWait", "100");
+        properties.setProperty("db.keepaliveInterval", "0");
+        pool = new ConnectionPool(() -> mock(Connection.class), connection -> true, properties);
+        pool.prefill();
+
+        Connection held = pool.borrow();
+        long start = System.nanoTime();
+        DatabaseException error = assertThrows(DatabaseException.class, pool::borrow);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMs >= 90, "esperó " + waitedMs + " ms");
+        assertTrue(error.getMessage().contains("Tiempo de espera agotado"));
+        assertEquals(0, pool.getWaitingCount());
+        assertEquals(1, pool.getActiveCount());
+        assertFalse(held.isClosed());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.kilombo.crm.infrastructure.database;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del enrutado de lecturas a la réplica con un pool de réplica simulado.
+ * Las comprobaciones de retraso se lanzan a mano en lugar de en segundo plano.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class ReplicaRouterTest {
+
+    private static final String URL = "jdbc:mysql://replica:3306/kilombo";
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final AtomicInteger primaryReads = new AtomicInteger();
+
+    private ConnectionPool replicaPool;
+    private ResultSet status;
+    private ScheduledExecutorService checker;
+    private AtomicInteger poolsCreated;
+
+    @BeforeEach
+    void prepararReplica() throws Exception {
+        replicaPool = mock(ConnectionPool.class);
+        Connection lagConnection = mock(Connection.class);
+        Statement stmt = mock(Statement.class);
+        status = mock(ResultSet.class);
+        when(replicaPool.borrow()).thenReturn(lagConnection, replicaConnection);
+        when(lagConnection.createStatement()).thenReturn(stmt);
+        when(stmt.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+        checker = mock(ScheduledExecutorService.class);
+        poolsCreated = new AtomicInteger();
+    }
+
+    @Test
+    void leeDelPrincipalHastaLaPrimeraComprobacion() throws Exception {
+        replicaEnSincronia(0);
+        ReplicaRouter router = router(new Properties());
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+
+        // La comprobación y la creación del pool solo se piden al planificador
+        verify(checker).execute(any(Runnable.class));
+        assertEquals(0, poolsCreated.get());
+        verify(replicaPool, never()).borrow();
+    }
+
+    @Test
+    void leeDeLaReplicaEnSincroniaSalvoTrasUnaEscritura() throws Exception {
+        replicaEnSincronia(1);
+        ReplicaRouter router = router(new Properties());
+        router.refresh();
+
+        assertSame(replicaConnection, router.borrowForRead(this::primary));
+        assertEquals(1, poolsCreated.get());
+
+        router.recordWrite();
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+        assertEquals(1, primaryReads.get());
+    }
+
+    @Test
+    void replicacionDetenidaLeeDelPrincipal() throws Exception {
+        when(status.next()).thenReturn(true);
+        when(status.getLong("Seconds_Behind_Source")).thenReturn(0L);
+        when(status.wasNull()).thenReturn(true);
+        ReplicaRouter router = router(new Properties());
+        router.refresh();
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+    }
+
+    @Test
+    void servidorSinEstadoDeReplicacionNoEsReplica() throws Exception {
+        when(status.next()).thenReturn(false);
+        ReplicaRouter router = router(new Properties());
+        router.refresh();
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+    }
+
+    @Test
+    void servidorSinEstadoDeReplicacionSeAceptaSiSeHabilita() throws Exception {
+        when(status.next()).thenReturn(false);
+        Properties properties = new Properties();
+        properties.setProperty("db.replica.allowStandalone", "true");
+        ReplicaRouter router = router(properties);
+        router.refresh();
+
+        assertSame(replicaConnection, router.borrowForRead(this::primary));
+    }
+
+    @Test
+    void retrasoSuperiorAlMaximoLeeDelPrincipal() throws Exception {
+        replicaEnSincronia(30);
+        ReplicaRouter router = router(new Properties());
+        router.refresh();
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+    }
+
+    @Test
+    void fallaElPrestamoDeLaReplicaYSeLeeDelPrincipal() throws Exception {
+        replicaEnSincronia(0);
+        Connection lagConnection = replicaPool.borrow();
+        when(replicaPool.borrow()).thenReturn(lagConnection)
+                .thenThrow(new DatabaseException("Tiempo de espera agotado"));
+        ReplicaRouter router = router(new Properties());
+        router.refresh();
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+        // Hasta la siguiente comprobación no se vuelve a intentar la réplica
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+        assertEquals(2, primaryReads.get());
+    }
+
+    @Test
+    void replicaInalcanzableNoCreaPoolYLeeDelPrincipal() {
+        ReplicaRouter router = new ReplicaRouter(new Properties(), (url, username, password) -> {
+            throw new DatabaseException("Communications link failure");
+        }, checker);
+        router.configure(URL, "lector", "secreto", 0);
+        router.refresh();
+
+        assertSame(primaryConnection, router.borrowForRead(this::primary));
+    }
+
+    private ReplicaRouter router(Properties properties) {
+        ReplicaRouter router = new ReplicaRouter(properties, (url, username, password) -> {
+            poolsCreated.incrementAndGet();
+            return replicaPool;
+        }, checker);
+        router.configure(URL, "lector", "secreto", 0);
+        return router;
+    }
+
+    private void replicaEnSincronia(long lagSeconds) throws Exception {
+        when(status.next()).thenReturn(true);
+        when(status.getLong("Seconds_Behind_Source")).thenReturn(lagSeconds);
+        when(status.wasNull()).thenReturn(false);
+    }
+
+    private Connection primary() {
+        primaryReads.incrementAndGet();
+        return primaryConnection;
+    }
+}
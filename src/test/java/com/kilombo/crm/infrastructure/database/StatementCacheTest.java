@@ -0,0 +1,87 @@
+package com.kilombo.crm.infrastructure.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la caché LRU de sentencias preparadas.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class StatementCacheTest {
+
+    private final Map<String, PreparedStatement> physicalStatements = new HashMap<>();
+    private Connection physical;
+    private StatementCache.Statistics statistics;
+    private StatementCache cache;
+
+    @BeforeEach
+    void crearCache() throws Exception {
+        physical = mock(Connection.class);
+        when(physical.prepareStatement(anyString(), anyInt())).thenAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            physicalStatements.put(invocation.getArgument(0), statement);
+            return statement;
+        });
+        statistics = new StatementCache.Statistics();
+        cache = new StatementCache(physical, 2, statistics);
+    }
+
+    @Test
+    void reutilizaLaSentenciaDevuelta() throws Exception {
+        usar("SELECT 1");
+        usar("SELECT 1");
+
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getHits());
+        verify(physicalStatements.get("SELECT 1"), never()).close();
+    }
+
+    @Test
+    void expulsaLaMenosUsadaRecientemente() throws Exception {
+        usar("SELECT a");
+        usar("SELECT b");
+        // El acceso a "a" deja a "b" como la menos usada recientemente
+        usar("SELECT a");
+        usar("SELECT c");
+
+        assertEquals(1, statistics.getEvictions());
+        verify(physicalStatements.get("SELECT b")).close();
+        verify(physicalStatements.get("SELECT a"), never()).close();
+
+        usar("SELECT a");
+        assertEquals(2, statistics.getHits());
+        usar("SELECT b");
+        assertEquals(4, statistics.getMisses());
+    }
+
+    @Test
+    void sentenciaEnUsoExpulsadaSeCierraAlDevolverse() throws Exception {
+        PreparedStatement enUso = cache.prepare(physical, "SELECT a", Statement.NO_GENERATED_KEYS);
+        usar("SELECT b");
+        usar("SELECT c");
+
+        verify(physicalStatements.get("SELECT a"), never()).close();
+        enUso.close();
+        verify(physicalStatements.get("SELECT a")).close();
+    }
+
+    private void usar(String sql) throws Exception {
+        cache.prepare(physical, sql, Statement.NO_GENERATED_KEYS).close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kilombo.crm.infrastructure.mapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ResultSet de una sola fila para pruebas, legible por etiqueta y por índice
+ * con la misma semántica que el driver: etiquetas sin distinguir mayúsculas y,
+ * si se repiten, gana la primera.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+final class FilaSimulada {
+
+    private final List<String> etiquetas = new ArrayList<>();
+    private final List<Object> valores = new ArrayList<>();
+
+    FilaSimulada columna(String etiqueta, Object valor) {
+        etiquetas.add(etiqueta);
+        valores.add(valor);
+        return this;
+    }
+
+    ResultSet toResultSet() {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                ResultSetMetaData.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return etiquetas.size();
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return etiquetas.get((Integer) args[0] - 1);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if ("getMetaData".equals(method.getName())) {
+                        return metaData;
+                    }
+                    if ("findColumn".equals(method.getName())) {
+                        return indice((String) args[0]);
+                    }
+                    if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int indice = args[0] instanceof String ? indice((String) args[0]) : (Integer) args[0];
+                    return convertir(valores.get(indice - 1), method.getReturnType());
+                });
+    }
+
+    private int indice(String etiqueta) throws SQLException {
+        for (int i = 0; i < etiquetas.size(); i++) {
+            if (etiquetas.get(i).equalsIgnoreCase(etiqueta)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Columna no encontrada: " + etiqueta);
+    }
+
+    private static Object convertir(Object valor, Class<?> tipo) {
+        if (tipo == int.class) {
+            return valor == null ? 0 : ((Number) valor).intValue();
+        }
+        if (tipo == double.class) {
+            return valor == null ? 0.0 : ((Number) valor).doubleValue();
+        }
+        if (tipo == BigDecimal.class || tipo == Date.class || tipo == String.class) {
+            return valor;
+        }
+        throw new UnsupportedOperationException(tipo.getName());
+    }
+}
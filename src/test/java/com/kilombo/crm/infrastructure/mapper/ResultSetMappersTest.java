@@ -0,0 +1,133 @@
+package com.kilombo.crm.infrastructure.mapper;
+
+import com.kilombo.crm.domain.model.Cliente;
+import com.kilombo.crm.domain.model.DetallePedido;
+import com.kilombo.crm.domain.model.Pedido;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Comprueba que los mappers, leyendo por índices resueltos una vez, obtienen los mismos
+ * valores que la lectura por etiqueta de columna, también con columnas reordenadas,
+ * columnas adicionales y etiquetas repetidas de consultas con JOIN.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class ResultSetMappersTest {
+
+    @Test
+    void clientePorIndiceIgualQuePorEtiqueta() throws SQLException {
+        ResultSet rs = new FilaSimulada()
+                .columna("telefono", "600111222")
+                .columna("EMAIL", "ana@kilombo.es")
+                .columna("prioridad", 2)
+                .columna("id", 4)
+                .columna("Apellido", "López")
+                .columna("nombre", "Ana")
+                .toResultSet();
+
+        Cliente porIndice = ClienteMapper.fromResultSet(rs, ClienteMapper.columnIndexes(rs));
+        Cliente porEtiqueta = new Cliente();
+        porEtiqueta.setId(rs.getInt("id"));
+        porEtiqueta.setNombre(rs.getString("nombre"));
+        porEtiqueta.setApellido(rs.getString("apellido"));
+        porEtiqueta.setEmail(rs.getString("email"));
+        porEtiqueta.setTelefono(rs.getString("telefono"));
+
+        assertEquals(porEtiqueta.getId(), porIndice.getId());
+        assertEquals(porEtiqueta.getNombre(), porIndice.getNombre());
+        assertEquals(porEtiqueta.getApellido(), porIndice.getApellido());
+        assertEquals(porEtiqueta.getEmail(), porIndice.getEmail());
+        assertEquals(porEtiqueta.getTelefono(), porIndice.getTelefono());
+    }
+
+    @Test
+    void pedidoPorIndiceIgualQuePorEtiquetaEnUnJoin() throws SQLException {
+        // Pedido unido a sus detalles: el "id" del pedido aparece antes que el del detalle
+        ResultSet rs = new FilaSimulada()
+                .columna("id", 15)
+                .columna("id_cliente", 7)
+                .columna("fecha", Date.valueOf(LocalDate.of(2024, 5, 2)))
+                .columna("total", 129.95)
+                .columna("nombre", "Ana")
+                .columna("id", 300)
+                .toResultSet();
+
+        Pedido porIndice = PedidoMapper.fromResultSet(rs, PedidoMapper.columnIndexes(rs));
+
+        assertEquals(rs.getInt("id"), porIndice.getId());
+        assertEquals(15, porIndice.getId());
+        assertEquals(rs.getInt("id_cliente"), porIndice.getIdCliente());
+        assertEquals(rs.getDate("fecha").toLocalDate(), porIndice.getFecha());
+        assertEquals(rs.getDouble("total"), porIndice.getTotal());
+    }
+
+    @Test
+    void pedidoSinFechaQuedaSinFecha() throws SQLException {
+        ResultSet rs = new FilaSimulada()
+                .columna("id", 1)
+                .columna("id_cliente", 2)
+                .columna("fecha", null)
+                .columna("total", 10.0)
+                .toResultSet();
+
+        assertNull(PedidoMapper.fromResultSet(rs).getFecha());
+    }
+
+    @Test
+    void detallePorIndiceIgualQuePorEtiqueta() throws SQLException {
+        ResultSet rs = new FilaSimulada()
+                .columna("ganancia_bruta", new BigDecimal("12.00"))
+                .columna("subtotal", new BigDecimal("30.00"))
+                .columna("precio_unitario", new BigDecimal("10.00"))
+                .columna("costo_unitario", new BigDecimal("6.00"))
+                .columna("cantidad", 3)
+                .columna("descripcion", "Camiseta de algodón")
+                .columna("tipo_producto", "Camiseta")
+                .columna("id_pedido", 15)
+                .columna("id", 201)
+                .toResultSet();
+
+        DetallePedido porIndice = DetallePedidoMapper.fromResultSet(rs, DetallePedidoMapper.columnIndexes(rs));
+
+        assertEquals(rs.getInt("id"), porIndice.getId());
+        assertEquals(rs.getInt("id_pedido"), porIndice.getIdPedido());
+        assertEquals(rs.getString("tipo_producto"), porIndice.getTipoProducto());
+        assertEquals(rs.getString("descripcion"), porIndice.getDescripcion());
+        assertEquals(rs.getInt("cantidad"), porIndice.getCantidad());
+        assertEquals(rs.getBigDecimal("costo_unitario"), porIndice.getCostoUnitario());
+        assertEquals(rs.getBigDecimal("precio_unitario"), porIndice.getPrecioUnitario());
+        assertEquals(rs.getBigDecimal("subtotal"), porIndice.getSubtotal());
+        assertEquals(rs.getBigDecimal("ganancia_bruta"), porIndice.getGananciaBruta());
+    }
+
+    @Test
+    void detalleSinColumnasDevuelveNullComoAntes() throws SQLException {
+        ResultSet rs = new FilaSimulada().columna("id", 1).toResultSet();
+
+        assertNull(DetallePedidoMapper.fromResultSet(rs));
+    }
+
+    @Test
+    void resolveTomaLaPrimeraEtiquetaYFallaSiFalta() throws SQLException {
+        ResultSet rs = new FilaSimulada()
+                .columna("id", 1)
+                .columna("NOMBRE", "Ana")
+                .columna("id", 2)
+                .toResultSet();
+
+        assertArrayEquals(new int[]{1, 2}, ColumnIndexes.resolve(rs, "id", "nombre"));
+        assertThrows(SQLException.class, () -> ColumnIndexes.resolve(rs, "id", "email"));
+    }
+}
@@ -0,0 +1,237 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import com.kilombo.crm.domain.exception.ClienteNotFoundException;
+import com.kilombo.crm.domain.exception.ValidationException;
+import com.kilombo.crm.domain.model.Cliente;
+import com.kilombo.crm.infrastructure.database.ConexionBD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la búsqueda y de la escritura de clientes en base de datos con JDBC simulado.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class ClienteRepositoryImplTest {
+
+    private static final String[] SEARCH_COLUMNS = {"id", "nombre", "apellido", "email", "telefono", "prioridad", "relevancia"};
+
+    private static final int ER_DUP_ENTRY = 1062;
+
+    private MockedStatic<ConexionBD> conexionBD;
+    private ConexionBD instancia;
+    private PreparedStatement stmt;
+    private ResultSet rs;
+    private Connection writeConn;
+
+    @BeforeEach
+    void prepararConexion() throws Exception {
+        Connection conn = mock(Connection.class);
+        instancia = mock(ConexionBD.class);
+        when(instancia.getReadConnection()).thenReturn(conn);
+        conexionBD = mockStatic(ConexionBD.class);
+        conexionBD.when(ConexionBD::getInstance).thenReturn(instancia);
+        writeConn = mock(Connection.class);
+        when(instancia.getWriteConnection()).thenReturn(writeConn);
+
+        stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement(SqlStatement.CLIENTE_SEARCH.getSql())).thenReturn(stmt);
+        rs = mock(ResultSet.class);
+        when(stmt.executeQuery()).thenReturn(rs);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(SEARCH_COLUMNS.length);
+        for (int i = 0; i < SEARCH_COLUMNS.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(SEARCH_COLUMNS[i]);
+        }
+    }
+
+    @AfterEach
+    void liberarConexion() {
+        conexionBD.close();
+    }
+
+    @Test
+    void busquedaUsaPrefijoEscapadoYPalabrasObligatorias() throws Exception {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(4);
+        when(rs.getString(2)).thenReturn("Ana");
+        when(rs.getString(3)).thenReturn("López");
+        when(rs.getString(4)).thenReturn("ana@kilombo.es");
+        when(rs.getString(5)).thenReturn("600000000");
+
+        List<Cliente> clientes = new ClienteRepositoryImpl().search("  50%_a  (lo-pez) ", 20);
+
+        assertEquals(1, clientes.size());
+        assertEquals("López", clientes.get(0).getApellido());
+        // Prefijo literal en apellido, nombre y email
+        verify(stmt).setString(1, "50\\%\\_a  (lo-pez)%");
+        verify(stmt).setString(3, "50\\%\\_a  (lo-pez)%");
+        verify(stmt).setString(5, "50\\%\\_a  (lo-pez)%");
+        // FULLTEXT sin operadores del modo booleano
+        verify(stmt).setString(7, "+50%_a* +lo* +pez*");
+        verify(stmt).setString(8, "+50%_a* +lo* +pez*");
+        // Cada rama y el resultado final quedan limitados
+        for (int index : new int[]{2, 4, 6, 9, 10}) {
+            verify(stmt).setInt(index, 20);
+        }
+    }
+
+    @Test
+    void busquedaSinTerminoNoConsultaLaBaseDeDatos() {
+        assertTrue(new ClienteRepositoryImpl().search("   ", 20).isEmpty());
+        assertTrue(new ClienteRepositoryImpl().search(null, 20).isEmpty());
+        verify(instancia, never()).getReadConnection();
+    }
+
+    @Test
+    void busquedaRechazaUnLimiteNoPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new ClienteRepositoryImpl().search("ana", 0));
+    }
+
+    @Test
+    void guardarConEmailDuplicadoLanzaValidacion() throws Exception {
+        PreparedStatement insert = mock(PreparedStatement.class);
+        when(writeConn.prepareStatement(SqlStatement.CLIENTE_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)).thenReturn(insert);
+        SQLException duplicado = new SQLException("Duplicate entry 'ana@kilombo.es' for key 'email'", "23000", ER_DUP_ENTRY);
+        when(insert.executeUpdate()).thenThrow(duplicado);
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> new ClienteRepositoryImpl().save(cliente(null)));
+
+        assertEquals("Ya existe un cliente con el email: ana@kilombo.es", error.getMessage());
+        assertSame(duplicado, error.getCause());
+        verify(instancia, never()).getReadConnection();
+    }
+
+    @Test
+    void otraViolacionDeIntegridadLanzaValidacionGenerica() throws Exception {
+        PreparedStatement insert = mock(PreparedStatement.class);
+        when(writeConn.prepareStatement(SqlStatement.CLIENTE_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)).thenReturn(insert);
+        when(insert.executeUpdate()).thenThrow(new SQLException("Column 'nombre' cannot be null", "23000", 1048));
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> new ClienteRepositoryImpl().save(cliente(null)));
+
+        assertTrue(error.getMessage().startsWith("Los datos del cliente no son válidos"), error.getMessage());
+    }
+
+    @Test
+    void actualizarClienteInexistenteLanzaNoEncontrado() throws Exception {
+        PreparedStatement update = mock(PreparedStatement.class);
+        when(writeConn.prepareStatement(SqlStatement.CLIENTE_UPDATE.getSql())).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(0);
+
+        assertThrows(ClienteNotFoundException.class, () -> new ClienteRepositoryImpl().update(cliente(42)));
+        verify(update).setInt(5, 42);
+        verify(instancia, never()).getReadConnection();
+    }
+
+    @Test
+    void insercionesConcurrentesDelMismoEmailSoloGuardanUna() throws Exception {
+        int hilos = 8;
+        // Índice único simulado; la barrera hace que todos los INSERT lleguen a la vez
+        Map<String, Integer> indiceEmail = new ConcurrentHashMap<>();
+        AtomicInteger ids = new AtomicInteger();
+        CyclicBarrier barrera = new CyclicBarrier(hilos);
+        when(instancia.getWriteConnection()).thenAnswer(invocation -> conexionConIndiceUnico(indiceEmail, ids, barrera));
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Cliente>> resultados = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                resultados.add(executor.submit(() -> {
+                    // Los mocks estáticos solo valen en el hilo que los registra
+                    try (MockedStatic<ConexionBD> enHilo = mockStatic(ConexionBD.class)) {
+                        enHilo.when(ConexionBD::getInstance).thenReturn(instancia);
+                        return new ClienteRepositoryImpl().save(cliente(null));
+                    }
+                }));
+            }
+
+            int guardados = 0;
+            int duplicados = 0;
+            for (Future<Cliente> resultado : resultados) {
+                try {
+                    resultado.get(5, TimeUnit.SECONDS);
+                    guardados++;
+                } catch (java.util.concurrent.ExecutionException e) {
+                    assertTrue(e.getCause() instanceof ValidationException, String.valueOf(e.getCause()));
+                    assertTrue(e.getCause().getMessage().startsWith("Ya existe un cliente con el email"));
+                    duplicados++;
+                }
+            }
+
+            assertEquals(1, guardados);
+            assertEquals(hilos - 1, duplicados);
+            assertEquals(1, indiceEmail.size());
+            verify(instancia, never()).getReadConnection();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Connection conexionConIndiceUnico(Map<String, Integer> indiceEmail, AtomicInteger ids,
+                                                     CyclicBarrier barrera) throws SQLException {
+        Connection conn = mock(Connection.class);
+        PreparedStatement insert = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString(), anyInt())).thenReturn(insert);
+        String[] email = new String[1];
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0, Integer.class) == 3) {
+                email[0] = invocation.getArgument(1);
+            }
+            return null;
+        }).when(insert).setString(anyInt(), anyString());
+        int id = ids.incrementAndGet();
+        when(insert.executeUpdate()).thenAnswer(invocation -> {
+            barrera.await(5, TimeUnit.SECONDS);
+            if (indiceEmail.putIfAbsent(email[0], id) != null) {
+                throw new SQLException("Duplicate entry '" + email[0] + "' for key 'email'", "23000", ER_DUP_ENTRY);
+            }
+            return 1;
+        });
+        ResultSet claves = mock(ResultSet.class);
+        when(insert.getGeneratedKeys()).thenReturn(claves);
+        when(claves.next()).thenReturn(true);
+        when(claves.getInt(1)).thenReturn(id);
+        return conn;
+    }
+
+    private static Cliente cliente(Integer id) {
+        return new Cliente(id, "Ana", "López", "ana@kilombo.es", "600000000");
+    }
+}
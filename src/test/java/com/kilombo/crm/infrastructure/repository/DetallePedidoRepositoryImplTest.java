@@ -0,0 +1,206 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.domain.exception.ValidationException;
+import com.kilombo.crm.domain.model.DetallePedido;
+import com.kilombo.crm.infrastructure.database.ConexionBD;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del repositorio de detalles de pedido con JDBC simulado.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class DetallePedidoRepositoryImplTest {
+
+    @Test
+    void saveAllValidaCadaDetalleAntesDeTocarLaBaseDeDatos() {
+        DetallePedido valido = detalle(1);
+        DetallePedido invalido = new DetallePedido();
+
+        assertThrows(ValidationException.class,
+                () -> new DetallePedidoRepositoryImpl().saveAll(List.of(valido, invalido)));
+    }
+
+    @Test
+    void saveAllRestauraLosDetallesSiFallaLaConfirmacion() throws Exception {
+        Connection conn = mock(Connection.class);
+        PreparedStatement insert = mock(PreparedStatement.class);
+        when(conn.prepareStatement(SqlStatement.DETALLE_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)).thenReturn(insert);
+        ResultSet ids = mock(ResultSet.class);
+        when(insert.getGeneratedKeys()).thenReturn(ids);
+        when(ids.next()).thenReturn(true, true, false);
+        when(ids.getInt(1)).thenReturn(201, 202);
+
+        PreparedStatement consulta = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(consulta);
+        ResultSet calculadas = mock(ResultSet.class);
+        when(consulta.executeQuery()).thenReturn(calculadas);
+        when(calculadas.next()).thenReturn(true, true, false);
+        when(calculadas.getInt("id")).thenReturn(201, 202);
+        when(calculadas.getBigDecimal("subtotal")).thenReturn(new BigDecimal("30.00"), new BigDecimal("20.00"));
+        when(calculadas.getBigDecimal("ganancia_bruta")).thenReturn(new BigDecimal("12.00"), new BigDecimal("8.00"));
+        doThrow(new SQLException("Conexión perdida", "08S01")).when(conn).commit();
+
+        ConexionBD instancia = mock(ConexionBD.class);
+        when(instancia.getWriteConnection()).thenReturn(conn);
+        List<DetallePedido> detalles = List.of(detalle(1), detalle(1));
+
+        try (MockedStatic<ConexionBD> conexionBD = mockStatic(ConexionBD.class)) {
+            conexionBD.when(ConexionBD::getInstance).thenReturn(instancia);
+            assertThrows(DatabaseException.class, () -> new DetallePedidoRepositoryImpl().saveAll(detalles));
+        }
+
+        verify(conn).rollback();
+        for (DetallePedido detalle : detalles) {
+            assertNull(detalle.getId());
+            assertNull(detalle.getSubtotal());
+            assertNull(detalle.getGananciaBruta());
+        }
+    }
+
+    @Test
+    void loadGeneratedColumnsParteLosIdsEnBloquesRellenados() throws Exception {
+        List<DetallePedido> detalles = new ArrayList<>();
+        for (int i = 1; i <= InList.MAX_SIZE + 88; i++) {
+            DetallePedido detalle = detalle(1);
+            detalle.setId(i);
+            detalles.add(detalle);
+        }
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+
+        DetallePedidoRepositoryImpl.loadGeneratedColumns(conn, detalles);
+
+        verify(conn).prepareStatement(SqlStatement.DETALLE_GENERATED_COLUMNS_BY_IDS.getSql(InList.MAX_SIZE));
+        verify(conn).prepareStatement(SqlStatement.DETALLE_GENERATED_COLUMNS_BY_IDS.getSql(128));
+        verify(stmt, times(2)).executeQuery();
+    }
+
+    @Test
+    void loadGeneratedColumnsAsignaSubtotalYGanancia() throws Exception {
+        DetallePedido detalle = detalle(1);
+        detalle.setId(7);
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt("id")).thenReturn(7);
+        when(rs.getBigDecimal("subtotal")).thenReturn(new BigDecimal("30.00"));
+        when(rs.getBigDecimal("ganancia_bruta")).thenReturn(new BigDecimal("10.00"));
+
+        DetallePedidoRepositoryImpl.loadGeneratedColumns(conn, List.of(detalle));
+
+        assertEquals(new BigDecimal("30.00"), detalle.getSubtotal());
+        assertEquals(new BigDecimal("10.00"), detalle.getGananciaBruta());
+    }
+
+    @Test
+    void productosPrincipalesUnoPorPedidoEntreBloques() throws Exception {
+        // Pedidos 1..1025 con repetidos e IDs inválidos; los múltiplos de 10 no tienen detalles
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 2 * InList.MAX_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        ids.addAll(Arrays.asList(5, null, 0, -3, 1025));
+
+        Connection conn = mock(Connection.class);
+        List<String> consultas = new ArrayList<>();
+        Set<Integer> enviados = new HashSet<>();
+        when(conn.prepareStatement(anyString())).thenAnswer(invocation -> {
+            consultas.add(invocation.getArgument(0));
+            return consultaDeProductosPrincipales(enviados);
+        });
+        ConexionBD instancia = mock(ConexionBD.class);
+        when(instancia.getConnection()).thenReturn(conn);
+
+        Map<Integer, String> productos;
+        try (MockedStatic<ConexionBD> conexionBD = mockStatic(ConexionBD.class)) {
+            conexionBD.when(ConexionBD::getInstance).thenReturn(instancia);
+            productos = new DetallePedidoRepositoryImpl().findPrincipalProductsByPedidoIds(ids);
+        }
+
+        assertEquals(List.of(
+                SqlStatement.DETALLE_PRINCIPAL_PRODUCTS_BY_PEDIDOS.getSql(InList.MAX_SIZE),
+                SqlStatement.DETALLE_PRINCIPAL_PRODUCTS_BY_PEDIDOS.getSql(InList.MAX_SIZE),
+                SqlStatement.DETALLE_PRINCIPAL_PRODUCTS_BY_PEDIDOS.getSql(1)), consultas);
+        assertEquals(2 * InList.MAX_SIZE + 1, enviados.size());
+        assertEquals(2 * InList.MAX_SIZE + 1 - (2 * InList.MAX_SIZE + 1) / 10, productos.size());
+        for (int id = 1; id <= 2 * InList.MAX_SIZE + 1; id++) {
+            assertEquals(id % 10 == 0 ? null : "Producto " + id, productos.get(id), "pedido " + id);
+        }
+        verify(conn).close();
+    }
+
+    /**
+     * Sentencia simulada que, como la consulta con ROW_NUMBER, devuelve una fila por pedido
+     * con detalles entre los IDs asignados a sus marcadores.
+     */
+    private static PreparedStatement consultaDeProductosPrincipales(Set<Integer> enviados) throws Exception {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        Set<Integer> asignados = new LinkedHashSet<>();
+        doAnswer(invocation -> {
+            asignados.add(invocation.getArgument(1));
+            return null;
+        }).when(stmt).setInt(anyInt(), anyInt());
+        when(stmt.executeQuery()).thenAnswer(invocation -> {
+            enviados.addAll(asignados);
+            Iterator<Integer> filas = asignados.stream().filter(id -> id % 10 != 0).iterator();
+            int[] actual = new int[1];
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.next()).thenAnswer(next -> {
+                if (!filas.hasNext()) {
+                    return false;
+                }
+                actual[0] = filas.next();
+                return true;
+            });
+            when(rs.getInt(1)).thenAnswer(get -> actual[0]);
+            when(rs.getString(2)).thenAnswer(get -> "Producto " + actual[0]);
+            return rs;
+        });
+        return stmt;
+    }
+
+    private static DetallePedido detalle(int idPedido) {
+        return new DetallePedido(idPedido, "Camiseta", "Camiseta de algodón", 3,
+                new BigDecimal("6.00"), new BigDecimal("10.00"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pruebas de la partición y el relleno de listas IN.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class InListTest {
+
+    @Test
+    void paddedSizeRedondeaALaSiguientePotenciaDeDos() {
+        assertEquals(1, InList.paddedSize(1));
+        assertEquals(2, InList.paddedSize(2));
+        assertEquals(4, InList.paddedSize(3));
+        assertEquals(4, InList.paddedSize(4));
+        assertEquals(8, InList.paddedSize(5));
+        assertEquals(256, InList.paddedSize(256));
+        assertEquals(512, InList.paddedSize(257));
+        assertEquals(512, InList.paddedSize(InList.MAX_SIZE));
+    }
+
+    @Test
+    void chunksNoSuperanElMaximo() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 2 * InList.MAX_SIZE + 1; i++) {
+            ids.add(i);
+        }
+
+        List<List<Integer>> chunks = InList.chunks(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(InList.MAX_SIZE, chunks.get(0).size());
+        assertEquals(InList.MAX_SIZE, chunks.get(1).size());
+        assertEquals(List.of(2 * InList.MAX_SIZE + 1), chunks.get(2));
+    }
+
+    @Test
+    void chunksDeUnaListaExactaNoDejanBloqueVacio() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= InList.MAX_SIZE; i++) {
+            ids.add(i);
+        }
+
+        assertEquals(1, InList.chunks(ids).size());
+        assertEquals(0, InList.chunks(List.of()).size());
+    }
+
+    @Test
+    void bindRellenaConElUltimoId() throws Exception {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+
+        int next = InList.bind(stmt, 2, List.of(10, 20, 30));
+
+        assertEquals(6, next);
+        verify(stmt).setInt(2, 10);
+        verify(stmt).setInt(3, 20);
+        verify(stmt).setInt(4, 30);
+        verify(stmt).setInt(5, 30);
+        verify(stmt, times(4)).setInt(anyInt(), anyInt());
+    }
+
+    @Test
+    void distinctValidIdsDescartaNulosNoPositivosYRepetidos() {
+        assertEquals(List.of(3, 1, 7), InList.distinctValidIds(Arrays.asList(3, null, 1, 0, 3, -2, 7, 1)));
+    }
+}
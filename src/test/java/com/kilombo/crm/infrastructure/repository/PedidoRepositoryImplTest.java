@@ -0,0 +1,170 @@
+package com.kilombo.crm.infrastructure.repository;
+
+import com.kilombo.crm.domain.exception.DatabaseException;
+import com.kilombo.crm.domain.model.DetallePedido;
+import com.kilombo.crm.domain.model.Pedido;
+import com.kilombo.crm.infrastructure.database.ConexionBD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la transacción de guardado conjunto de pedido y detalles con JDBC simulado.
+ *
+ * @author KilomboCRM Team
+ * @version 1.0
+ */
+class PedidoRepositoryImplTest {
+
+    private static final double TOTAL_PROVISIONAL = 99.0;
+
+    private MockedStatic<ConexionBD> conexionBD;
+    private Connection conn;
+    private PreparedStatement insertDetalles;
+
+    private Pedido pedido;
+    private List<DetallePedido> detalles;
+
+    @BeforeEach
+    void prepararConexion() throws Exception {
+        conn = mock(Connection.class);
+        ConexionBD instancia = mock(ConexionBD.class);
+        when(instancia.getWriteConnection()).thenReturn(conn);
+        conexionBD = mockStatic(ConexionBD.class);
+        conexionBD.when(ConexionBD::getInstance).thenReturn(instancia);
+
+        // INSERT del pedido: ID 100
+        PreparedStatement insertPedido = mock(PreparedStatement.class);
+        when(conn.prepareStatement(SqlStatement.PEDIDO_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)).thenReturn(insertPedido);
+        when(insertPedido.executeUpdate()).thenReturn(1);
+        ResultSet idPedido = mock(ResultSet.class);
+        when(insertPedido.getGeneratedKeys()).thenReturn(idPedido);
+        when(idPedido.next()).thenReturn(true);
+        when(idPedido.getInt(1)).thenReturn(100);
+
+        // INSERT en lote de los detalles: IDs 201 y 202
+        insertDetalles = mock(PreparedStatement.class);
+        when(conn.prepareStatement(SqlStatement.DETALLE_INSERT.getSql(), Statement.RETURN_GENERATED_KEYS)).thenReturn(insertDetalles);
+        ResultSet idsDetalles = mock(ResultSet.class);
+        when(insertDetalles.getGeneratedKeys()).thenReturn(idsDetalles);
+        when(idsDetalles.next()).thenReturn(true, true, false);
+        when(idsDetalles.getInt(1)).thenReturn(201, 202);
+
+        // Columnas calculadas y recálculo del total
+        PreparedStatement consultas = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(consultas);
+        ResultSet calculadas = mock(ResultSet.class);
+        when(consultas.executeQuery()).thenReturn(calculadas);
+        when(calculadas.next()).thenReturn(true, true, false);
+        when(calculadas.getInt("id")).thenReturn(201, 202);
+        when(calculadas.getBigDecimal("subtotal")).thenReturn(new BigDecimal("30.00"), new BigDecimal("20.00"));
+        when(calculadas.getBigDecimal("ganancia_bruta")).thenReturn(new BigDecimal("12.00"), new BigDecimal("8.00"));
+
+        pedido = new Pedido(7, LocalDate.now(), TOTAL_PROVISIONAL);
+        detalles = List.of(
+                new DetallePedido(1, "Camiseta", "Camiseta de algodón", 3, new BigDecimal("6.00"), new BigDecimal("10.00")),
+                new DetallePedido(1, "Gorra", "Gorra bordada", 2, new BigDecimal("6.00"), new BigDecimal("10.00")));
+    }
+
+    @AfterEach
+    void liberarConexion() {
+        conexionBD.close();
+    }
+
+    @Test
+    void confirmaLaTransaccionAlGuardarPedidoYDetalles() throws Exception {
+        Pedido guardado = new PedidoRepositoryImpl().saveWithDetalles(pedido, detalles);
+
+        assertSame(pedido, guardado);
+        assertEquals(100, pedido.getId());
+        assertEquals(50.0, pedido.getTotal());
+        assertEquals(201, detalles.get(0).getId());
+        assertEquals(202, detalles.get(1).getId());
+        assertEquals(100, detalles.get(1).getIdPedido());
+        assertEquals(new BigDecimal("30.00"), detalles.get(0).getSubtotal());
+
+        InOrder orden = inOrder(conn);
+        orden.verify(conn).setAutoCommit(false);
+        orden.verify(conn).commit();
+        orden.verify(conn).close();
+        verify(conn, never()).rollback();
+    }
+
+    @Test
+    void deshaceYLimpiaLosIdsSiFallaElLote() throws Exception {
+        SQLException fallo = new SQLException("Deadlock", "40001");
+        when(insertDetalles.executeBatch()).thenThrow(fallo);
+
+        DatabaseException error = assertThrows(DatabaseException.class,
+                () -> new PedidoRepositoryImpl().saveWithDetalles(pedido, detalles));
+
+        assertSame(fallo, error.getCause());
+        verify(conn).rollback();
+        verify(conn, never()).commit();
+        verify(conn).close();
+        assertNull(pedido.getId());
+        assertEquals(TOTAL_PROVISIONAL, pedido.getTotal());
+        assertNull(detalles.get(0).getId());
+        assertNull(detalles.get(1).getId());
+    }
+
+    @Test
+    void restauraLosDetallesSiFallaLaConfirmacion() throws Exception {
+        doThrow(new SQLException("Conexión perdida", "08S01")).when(conn).commit();
+
+        assertThrows(DatabaseException.class,
+                () -> new PedidoRepositoryImpl().saveWithDetalles(pedido, detalles));
+
+        verify(conn).rollback();
+        assertNull(pedido.getId());
+        assertEquals(TOTAL_PROVISIONAL, pedido.getTotal());
+        for (DetallePedido detalle : detalles) {
+            assertNull(detalle.getId());
+            assertEquals(1, detalle.getIdPedido());
+            assertNull(detalle.getSubtotal());
+            assertNull(detalle.getGananciaBruta());
+        }
+    }
+
+    @Test
+    void unRollbackFallidoNoOcultaElErrorOriginal() throws Exception {
+        SQLException fallo = new SQLException("Deadlock", "40001");
+        SQLException falloRollback = new SQLException("Conexión perdida", "08S01");
+        when(insertDetalles.executeBatch()).thenThrow(fallo);
+        doThrow(falloRollback).when(conn).rollback();
+
+        DatabaseException error = assertThrows(DatabaseException.class,
+                () -> new PedidoRepositoryImpl().saveWithDetalles(pedido, detalles));
+
+        assertSame(fallo, error.getCause());
+        assertArrayEquals(new Throwable[]{falloRollback}, fallo.getSuppressed());
+        assertNull(pedido.getId());
+        assertNull(detalles.get(0).getId());
+        verify(conn).close();
+    }
+}